@@ -0,0 +1,112 @@
+package miniproject2_final.studentgradetracker;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * A small window with the tracker's live numbers, refreshed once a second:
+ * p50/p99/max of every {@link OperationTimer}, including the CSS and layout
+ * part of each pulse, the main window's node count and the allocation rate.
+ *
+ * Nothing here runs until the window is opened, and it stops refreshing once
+ * closed; the same timers are always available over JMX.
+ */
+final class DiagnosticsWindow {
+
+    static final String LAYOUT_TIMER = "fx.cssAndLayout";
+
+    private final Scene watched;
+    private final Stage stage = new Stage();
+    private final Label text = new Label();
+    private final Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private long lastAllocatedBytes = -1;
+    private long lastSampledNanos;
+
+    DiagnosticsWindow(Scene watched, String stylesheet) {
+        this.watched = watched;
+
+        text.setFont(Font.font("Courier New", FontWeight.NORMAL, 12));
+        VBox layout = new VBox(10, text);
+        layout.setPadding(new Insets(20));
+        layout.getStyleClass().add("panel");
+        layout.setPrefWidth(520);
+
+        Scene scene = new Scene(layout);
+        scene.getStylesheets().add(stylesheet);
+        stage.setTitle("🩺 Diagnostics");
+        stage.setScene(scene);
+        refresh.setCycleCount(Timeline.INDEFINITE);
+        stage.setOnHidden(e -> refresh.stop());
+    }
+
+    /** Times the CSS and layout passes of every pulse of {@code scene}. */
+    static void timeLayout(Scene scene) {
+        OperationTimer timer = OperationTimer.named(LAYOUT_TIMER);
+        long[] started = new long[1];
+        scene.addPreLayoutPulseListener(() -> started[0] = timer.start());
+        scene.addPostLayoutPulseListener(() -> timer.stop(started[0]));
+    }
+
+    void show() {
+        refresh();
+        refresh.play();
+        stage.show();
+        stage.toFront();
+    }
+
+    private void refresh() {
+        StringBuilder sb = new StringBuilder();
+        if (!OperationTimer.ENABLED) sb.append("Timing is off (-Dtracker.metrics=false)\n\n");
+        sb.append(String.format("%-18s %8s %9s %9s %9s%n", "Operation", "Count", "p50 ms", "p99 ms", "max ms"));
+        for (OperationTimer timer : OperationTimer.all()) {
+            sb.append(String.format("%-18s %8d %9.3f %9.3f %9.3f%n", timer.name(), timer.getCount(),
+                    timer.getP50Millis(), timer.getP99Millis(), timer.getMaxMillis()));
+        }
+        sb.append(String.format("%nScene nodes: %d%n", countNodes(watched.getRoot())));
+        sb.append(String.format("Allocation rate: %s%n", allocationRate()));
+        text.setText(sb.toString());
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) count += countNodes(child);
+        }
+        return count;
+    }
+
+    // Bytes allocated by all live threads since the last refresh
+    private String allocationRate() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return "not available";
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemoryEnabled()) return "not available";
+
+        long allocated = Arrays.stream(allocations.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0).sum();
+        long now = System.nanoTime();
+        String rate = "measuring...";
+        if (lastAllocatedBytes >= 0) {
+            // Threads that ended take their bytes with them, so the difference can dip below zero
+            double perSecond = Math.max(0, allocated - lastAllocatedBytes) * 1e9 / (now - lastSampledNanos);
+            rate = String.format("%.1f MB/s", perSecond / (1024 * 1024));
+        }
+        lastAllocatedBytes = allocated;
+        lastSampledNanos = now;
+        return rate;
+    }
+}
@@ -0,0 +1,67 @@
+package miniproject2_final.studentgradetracker;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesces UI refreshes to at most one per pulse.
+ *
+ * Each view registers the method that redraws it and is then only marked
+ * dirty when the data changes. On the next pulse every dirty view is redrawn
+ * once, however many edits arrived in between. The timer only runs while
+ * something is waiting, so an idle tracker costs nothing per frame.
+ */
+final class RefreshScheduler {
+
+    /** A view that can be marked out of date. */
+    final class View {
+        private final Runnable refresh;
+        private boolean dirty;
+
+        private View(Runnable refresh) {
+            this.refresh = refresh;
+        }
+
+        void invalidate() {
+            if (dirty) return;
+            dirty = true;
+            pending.add(this);
+            if (!running) {
+                running = true;
+                timer.start();
+            }
+        }
+    }
+
+    private final List<View> pending = new ArrayList<>();
+    private boolean running;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (pending.isEmpty()) {
+                stop();
+                running = false;
+                return;
+            }
+            flush();
+        }
+    };
+
+    View view(Runnable refresh) {
+        return new View(refresh);
+    }
+
+    /** Redraws every dirty view right away instead of waiting for the pulse. */
+    void flush() {
+        // A refresh may invalidate other views; those run on the next pulse
+        List<View> due = new ArrayList<>(pending);
+        pending.clear();
+        for (View view : due) {
+            view.dirty = false;
+            view.refresh.run();
+        }
+    }
+}
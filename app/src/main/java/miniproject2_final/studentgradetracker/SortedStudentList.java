@@ -0,0 +1,134 @@
+package miniproject2_final.studentgradetracker;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The roster as the window lists it when sorted: a {@link RosterOrder} kept
+ * by the grade book, shown lowest or highest first.
+ *
+ * It follows a {@link StudentStore}, so it moves in step with the rest of the
+ * window. A single add or remove becomes a single list change at the
+ * student's rank; anything bigger, switching the key or flipping the
+ * direction replaces the list wholesale, which only costs the ListView a
+ * redraw of the rows on screen. Nothing is ever sorted or copied here.
+ */
+final class SortedStudentList extends ObservableListBase<Student> implements RandomAccess {
+
+    private final GradeBook book;
+    private final StudentStore store;
+    private RosterOrder order;
+    private List<Student> shown;
+    private boolean descending;
+
+    SortedStudentList(GradeBook book, StudentStore store, RosterOrder.Key key, boolean descending) {
+        this.book = book;
+        this.store = store;
+        this.order = book.ordered(key);
+        this.descending = descending;
+        this.shown = view(order);
+        store.addListener(this::follow);
+    }
+
+    RosterOrder.Key key() {
+        return order.key();
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    /** Shows the roster sorted by {@code key}; costs nothing once that key has been shown before. */
+    void show(RosterOrder.Key key, boolean descending) {
+        if (key == order.key() && descending == this.descending) return;
+        this.descending = descending;
+        RosterOrder next = store.ordered(key);
+        replace(next != null ? next : book.ordered(key));
+    }
+
+    private void follow(ListChangeListener.Change<? extends Student> change) {
+        RosterOrder next = store.ordered(order.key());
+        // Our order may be newer than the store's rows if it was first built after they were published
+        if (next == null || next.version() <= order.version()) return;
+
+        Student added = null;
+        Student removed = null;
+        int changed = 0;
+        while (change.next()) {
+            if (change.wasPermutated()) continue;
+            changed += change.getAddedSize() + change.getRemovedSize();
+            if (change.wasAdded()) added = change.getAddedSubList().get(0);
+            if (change.wasRemoved()) removed = change.getRemoved().get(0);
+        }
+
+        if (changed != 1) {
+            if (changed == 0) {
+                order = next;
+                shown = view(next);
+            } else {
+                replace(next);
+            }
+            return;
+        }
+
+        beginChange();
+        try {
+            if (added != null) {
+                order = next;
+                shown = view(next);
+                int at = position(next.rankOf(added), next.size());
+                nextAdd(at, at + 1);
+            } else {
+                int at = position(order.rankOf(removed), order.size());
+                order = next;
+                shown = view(next);
+                nextRemove(at, removed);
+            }
+        } finally {
+            endChange();
+        }
+    }
+
+    private void replace(RosterOrder next) {
+        List<Student> previous = shown;
+        order = next;
+        shown = view(next);
+        beginChange();
+        try {
+            nextReplace(0, shown.size(), previous);
+        } finally {
+            endChange();
+        }
+    }
+
+    private List<Student> view(RosterOrder order) {
+        return descending ? order.descending() : order.ascending();
+    }
+
+    private int position(int rank, int size) {
+        return descending ? size - 1 - rank : rank;
+    }
+
+    @Override
+    public Student get(int index) {
+        return shown.get(index);
+    }
+
+    @Override
+    public int size() {
+        return shown.size();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return shown.indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return shown.contains(o);
+    }
+}
@@ -0,0 +1,44 @@
+package miniproject2_final.studentgradetracker;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures how long the tracker takes from JVM launch to its first frame and
+ * to being usable with the saved roster loaded, and reports both once when
+ * asked to with {@code -Dtracker.startupTimer=true}.
+ *
+ * Run with {@code -Dtracker.exitAfterStartup=true} to report and quit right
+ * after, for timing cold starts or recording a class data sharing archive.
+ */
+final class StartupTimer {
+
+    // What a cold start should stay under, JVM launch included
+    static final long TARGET_MILLIS = 500;
+
+    private final Instant launched = ProcessHandle.current().info().startInstant().orElseGet(Instant::now);
+    private long firstFrameMillis = -1;
+
+    static boolean exitAfterStartup() {
+        return Boolean.getBoolean("tracker.exitAfterStartup");
+    }
+
+    private static boolean reporting() {
+        return Boolean.getBoolean("tracker.startupTimer") || exitAfterStartup();
+    }
+
+    void firstFrame() {
+        firstFrameMillis = sinceLaunch();
+    }
+
+    void interactive(int students) {
+        if (!reporting()) return;
+        long interactiveMillis = sinceLaunch();
+        System.out.printf("⏱️ Startup: first frame after %d ms, interactive with %d students after %d ms (target %d ms)%n",
+                firstFrameMillis, students, interactiveMillis, TARGET_MILLIS);
+    }
+
+    private long sinceLaunch() {
+        return Duration.between(launched, Instant.now()).toMillis();
+    }
+}
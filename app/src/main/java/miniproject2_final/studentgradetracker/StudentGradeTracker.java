@@ -0,0 +1,1430 @@
+package miniproject2_final.studentgradetracker;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.paint.Color;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.beans.binding.Bindings;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.Parent;
+import javafx.css.PseudoClass;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class StudentGradeTracker extends Application {
+
+    // The grade book keeps statistics and the search index; any thread may write to it and the
+    // window catches up through this list once per pulse
+    private final GradeBook gradeBook = new GradeBook();
+    private final StudentStore students = new StudentStore(gradeBook, () -> Platform.runLater(this::rosterChanged));
+
+    // Search runs against the grade book on a background thread, debounced per keystroke
+    private final ObservableList<Student> searchResults = FXCollections.observableArrayList();
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(150));
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "student-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Task<List<Student>> searchTask;
+    private String searchQuery = "";
+    private String shownQuery = "";
+
+    // Every change to the roster is journaled so it survives a restart, in order, on this thread
+    private StudentRepository repository;
+    private final ExecutorService journalWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "journal-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The grading scheme is kept next to the journal, as text the scheme dialog edits
+    private Path gradingSchemeFile;
+    private boolean saveFailed;
+    private TextField nameField = new TextField();
+    private TextField gradeField = new TextField();
+    private ComboBox<String> majorField = new ComboBox<>();
+    // Charts are built the first time there is something to chart
+    private final VBox chartBox = new VBox(15);
+    private PieChart gradeChart;
+    private LineChart<Number, Number> progressChart;
+    private Label statsLabel = new Label();
+    // The stats panel can narrow down to one major and bin its histogram as finely as asked
+    private final ComboBox<String> statsMajorChoice = new ComboBox<>();
+    private final ComboBox<String> binWidthChoice = new ComboBox<>();
+    private final XYChart.Series<String, Number> histogramSeries = new XYChart.Series<>();
+    private double histogramBinWidth;
+    private ListView<Student> studentListView;
+    // What the list shows when not searching: the roster as added, or one of the grade book's sorted orders
+    private ObservableList<Student> listedStudents = students;
+    private SortedStudentList sortedStudents;
+    private Button directionButton;
+    // Enabled while the grade book has something to undo or redo; the tooltip says what
+    private final Button undoButton = createStyledButton("↶ Undo", ACCENT);
+    private final Button redoButton = createStyledButton("↷ Redo", ACCENT);
+    private DiagnosticsWindow diagnosticsWindow;
+
+    // Edits only mark views dirty; each one is redrawn at most once per pulse
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler();
+    private final RefreshScheduler.View rosterView = refreshScheduler.view(this::refreshStudentList);
+    private final RefreshScheduler.View statsView = refreshScheduler.view(this::updateStats);
+    private final RefreshScheduler.View chartView = refreshScheduler.view(this::updateCharts);
+    private final RefreshScheduler.View searchView = refreshScheduler.view(this::runSearch);
+    private final XYChart.Series<Number, Number> progressSeries = new XYChart.Series<>();
+    // One slice per band of the scheme the pie was last drawn with
+    private GradingScheme piedScheme;
+    private PieChart.Data[] bandSlices = new PieChart.Data[0];
+    // What the progression chart shows; a new one means the history changed
+    private GradeHistory.Timeline plottedTimeline;
+
+    // Every window shares one stylesheet; nodes only carry style classes
+    private static final String STYLESHEET = StudentGradeTracker.class.getResource("tracker.css").toExternalForm();
+
+    // Button variants, each a style class with its theme color in the stylesheet
+    private static final String PRIMARY = "primary";
+    private static final String ACCENT = "accent";
+    private static final String SUCCESS = "success";
+    private static final String WARNING = "warning";
+    private static final String DANGER = "danger";
+
+    // Cards switch style through these pseudo-classes instead of getting a new inline style per item,
+    // one per tone of the grading scheme
+    private static final PseudoClass[] TONE_PSEUDO_CLASSES = {
+            PseudoClass.getPseudoClass("excellent"), PseudoClass.getPseudoClass("good"),
+            PseudoClass.getPseudoClass("average"), PseudoClass.getPseudoClass("needs-improvement")
+    };
+    // Past this many students the cards drop their shadow and gradient
+    private static final int LARGE_ROSTER = 1_000;
+    private static final PseudoClass LARGE_ROSTER_PSEUDO_CLASS = PseudoClass.getPseudoClass("large-roster");
+
+    private static final String ROSTER_ORDER = "📋 Order added";
+    private static final String ALL_MAJORS = "All majors";
+
+    // Hot paths, timed into the diagnostics window, JMX and flight recordings
+    private static final OperationTimer ADD_TIMER = OperationTimer.named("add");
+    private static final OperationTimer REFRESH_TIMER = OperationTimer.named("refresh");
+    private static final OperationTimer STATS_TIMER = OperationTimer.named("stats");
+    private static final OperationTimer CHARTS_TIMER = OperationTimer.named("charts");
+    private static final OperationTimer SEARCH_TIMER = OperationTimer.named("search");
+    private static final OperationTimer REPORT_TIMER = OperationTimer.named("report");
+
+    // Fixed row height lets the list virtualize without measuring every cell
+    private static final double STUDENT_CELL_HEIGHT = 72;
+
+    /** Opens the window, or with {@code --serve [--port=N]} serves the grade book over HTTP without one. */
+    public static void main(String[] args) throws IOException {
+        if (Arrays.asList(args).contains("--serve")) {
+            TrackerServer.main(args);
+            return;
+        }
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage primaryStage) {
+        StartupTimer startupTimer = new StartupTimer();
+        primaryStage.setTitle("🎓 Student Grade Tracker");
+
+        // Keep the running statistics in step with every change to the roster
+        students.addListener(this::onStudentsChanged);
+
+        // Create main layout
+        BorderPane root = new BorderPane();
+        root.getStyleClass().add("tracker-window");
+
+        // Create header
+        VBox header = createHeader();
+        root.setTop(header);
+
+        // Create main content
+        HBox mainContent = new HBox(20);
+        mainContent.setPadding(new Insets(20));
+
+        // Left panel - Input form
+        VBox leftPanel = createInputPanel();
+
+        // Center panel - Statistics and charts
+        VBox centerPanel = createStatsPanel();
+
+        // Right panel - Student list
+        VBox rightPanel = createStudentListPanel();
+
+        mainContent.getChildren().addAll(leftPanel, centerPanel, rightPanel);
+        root.setCenter(mainContent);
+
+
+        Scene scene = new Scene(root, 1200, 800);
+        // Built as tracker.bss, which JavaFX picks up in place of the .css
+        scene.getStylesheets().add(STYLESHEET);
+        DiagnosticsWindow.timeLayout(scene);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN), this::undo);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN), this::redo);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN,
+                KeyCombination.SHIFT_DOWN), this::redo);
+
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        // Add entrance animation
+        addEntranceAnimation(root);
+
+        // The saved roster loads once the window has been laid out for its first frame
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                startupTimer.firstFrame();
+                Platform.runLater(() -> {
+                    loadStudents();
+                    startupTimer.interactive(students.size());
+                    // JMX takes longer to start than the window; it is not needed before now
+                    if (OperationTimer.ENABLED) {
+                        Thread jmx = new Thread(OperationTimer::exposeOverJmx, "jmx-metrics");
+                        jmx.setDaemon(true);
+                        jmx.start();
+                    }
+                    if (StartupTimer.exitAfterStartup()) Platform.exit();
+                });
+            }
+        });
+    }
+
+    @Override
+    public void stop() throws IOException {
+        // Whatever is still queued for the journal goes in before it closes
+        journalWriter.shutdown();
+        try {
+            journalWriter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (repository != null) repository.close();
+    }
+
+    private void loadStudents() {
+        Path dataDirectory = Paths.get(System.getProperty("tracker.dataDir",
+                System.getProperty("user.home") + File.separator + ".student-grade-tracker"));
+        repository = new JournalStudentRepository(dataDirectory);
+
+        // Set before the roster loads, so each student is graded once, as they go in
+        gradingSchemeFile = dataDirectory.resolve("grading-scheme.txt");
+        if (Files.exists(gradingSchemeFile)) {
+            try {
+                gradeBook.setGradingScheme(GradingScheme.parse(Files.readString(gradingSchemeFile)));
+            } catch (IOException | IllegalArgumentException e) {
+                showEnhancedAlert("Error", "Could not read the grading scheme, using the default: " + e.getMessage(),
+                        Alert.AlertType.ERROR);
+            }
+        }
+
+        try {
+            gradeBook.addAll(repository.load());
+            gradeBook.recordGrades(repository.loadedGrades());
+            students.update();
+            // What was saved is where undo stops
+            gradeBook.clearUndo();
+            refreshUndoButtons();
+            if (repository.needsCompaction()) repository.compact(students.snapshot());
+        } catch (IOException e) {
+            repository = null;
+            showEnhancedAlert("Error", "Could not load saved students: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+
+        statsView.invalidate();
+        chartView.invalidate();
+
+        // Registered after loading so the loaded roster is not written back
+        students.addListener(this::saveChanges);
+    }
+
+    // Reads what changed on the FX thread and leaves encoding and writing it to the journal writer
+    private void saveChanges(ListChangeListener.Change<? extends Student> change) {
+        // Immutable, so the writer can read the rows after the window has moved on
+        StudentTable.Snapshot rows = students.snapshot();
+        if (rows.isEmpty()) {
+            saveInBackground(repository -> repository.clear());
+            return;
+        }
+
+        List<List<? extends Student>> removed = new ArrayList<>();
+        List<List<? extends Student>> added = new ArrayList<>();
+        boolean insertedBeforeEnd = false;
+        // Each part's indexes count the parts before it, so track the size as it was after each one
+        int size = rows.size();
+        while (change.next()) size += change.getRemovedSize() - change.getAddedSize();
+        change.reset();
+        while (change.next()) {
+            if (change.wasPermutated()) continue;
+            size += change.getAddedSize() - change.getRemovedSize();
+            if (change.wasRemoved()) removed.add(change.getRemoved());
+            if (change.wasAdded()) {
+                added.add(rows.subList(change.getFrom(), change.getTo()));
+                if (change.getTo() < size) insertedBeforeEnd = true;
+            }
+        }
+        // Rows put back in the middle, as when a removal is undone, would load at the end from the
+        // journal, so the roster is written out fresh instead
+        boolean rewrite = insertedBeforeEnd;
+        saveInBackground(repository -> {
+            if (rewrite) {
+                repository.compact(rows);
+                return;
+            }
+            for (List<? extends Student> batch : removed) {
+                for (Student student : batch) repository.remove(student);
+            }
+            for (List<? extends Student> batch : added) repository.addAll(batch);
+            if (repository.needsCompaction()) repository.compact(rows);
+        });
+    }
+
+    private interface JournalWrite {
+        void to(StudentRepository repository) throws IOException;
+    }
+
+    private void saveInBackground(JournalWrite write) {
+        StudentRepository target = repository;
+        if (target == null) return;
+        journalWriter.execute(() -> {
+            try {
+                write.to(target);
+            } catch (IOException e) {
+                Platform.runLater(() -> {
+                    if (saveFailed) return;
+                    saveFailed = true;
+                    showEnhancedAlert("Error", "Could not save changes: " + e.getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        });
+    }
+
+    private VBox createHeader() {
+        VBox header = new VBox();
+        header.setAlignment(Pos.CENTER);
+        header.setPadding(new Insets(20));
+        header.getStyleClass().add("header");
+
+        Label titleLabel = new Label("🎓 STUDENT GRADE TRACKER");
+        titleLabel.setFont(Font.font("Arial", FontWeight.BOLD, 32));
+        titleLabel.setTextFill(Color.BLUE);
+        titleLabel.setEffect(new DropShadow(10, Color.HOTPINK));
+
+        Label subtitleLabel = new Label("Advanced Academic Performance Management System");
+        subtitleLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 16));
+        subtitleLabel.setTextFill(Color.NAVY);
+
+        header.getChildren().addAll(titleLabel, subtitleLabel);
+        return header;
+    }
+
+    private VBox createInputPanel() {
+        VBox panel = new VBox(15);
+        panel.setPrefWidth(300);
+        panel.getStyleClass().add("panel");
+        panel.setPadding(new Insets(20));
+
+        Label panelTitle = new Label("📝 Add New Student");
+        panelTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        panelTitle.setTextFill(Color.BLACK);
+
+        // Enhanced input fields
+        nameField.setPromptText("Enter student name...");
+        nameField.getStyleClass().add("input-field");
+        nameField.setPrefHeight(40);
+
+        gradeField.setPromptText("Enter grade (0-100)...");
+        gradeField.getStyleClass().add("input-field");
+        gradeField.setPrefHeight(40);
+
+        // Major selection
+        majorField.setPromptText("Select major...");
+        majorField.setItems(FXCollections.observableArrayList(Student.MAJORS));
+        majorField.getStyleClass().add("input-field");
+        majorField.setPrefHeight(40);
+
+        // Enhanced buttons
+        Button addButton = createStyledButton("➕ Add Student", SUCCESS);
+        Button clearButton = createStyledButton("🗑️ Clear Form", WARNING);
+
+        addButton.setOnAction(e -> addStudentWithAnimation());
+        clearButton.setOnAction(e -> clearForm());
+
+        HBox buttonBox = new HBox(10, addButton, clearButton);
+        buttonBox.setAlignment(Pos.CENTER);
+
+        Button importButton = createStyledButton("📥 Import CSV/TSV", PRIMARY);
+        importButton.setOnAction(e -> importStudents());
+
+        Button exportButton = createStyledButton("📤 Export", PRIMARY);
+        exportButton.setOnAction(e -> exportStudents());
+
+        HBox importBox = new HBox(10, importButton, exportButton);
+        importBox.setAlignment(Pos.CENTER);
+
+        panel.getChildren().addAll(
+                panelTitle,
+                new Label("Student Name:") {{ setTextFill(Color.DARKBLUE); setFont(Font.font("Arial", FontWeight.BOLD, 12)); }},
+                nameField,
+                new Label("Grade:") {{ setTextFill(Color.DARKBLUE); setFont(Font.font("Arial", FontWeight.BOLD, 12)); }},
+                gradeField,
+                new Label("Major:") {{ setTextFill(Color.DARKBLUE); setFont(Font.font("Arial", FontWeight.BOLD, 12)); }},
+                majorField,
+                buttonBox,
+                importBox
+        );
+
+        return panel;
+    }
+
+    private VBox createStatsPanel() {
+        VBox panel = new VBox(15);
+        panel.setPrefWidth(400);
+        panel.getStyleClass().add("panel");
+        panel.setPadding(new Insets(20));
+
+        Label panelTitle = new Label("📊 Statistics & Analytics");
+        panelTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        panelTitle.setTextFill(Color.BLACK);
+
+        // Stats display
+        statsLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
+        statsLabel.setTextFill(Color.DARKBLUE);
+        statsLabel.setWrapText(true);
+
+        statsMajorChoice.getItems().add(ALL_MAJORS);
+        statsMajorChoice.setValue(ALL_MAJORS);
+        statsMajorChoice.getStyleClass().add("input-field");
+        statsMajorChoice.setOnAction(e -> statsView.invalidate());
+        binWidthChoice.getItems().addAll("1", "2.5", "5", "10");
+        binWidthChoice.setValue("5");
+        binWidthChoice.getStyleClass().add("input-field");
+        binWidthChoice.setOnAction(e -> statsView.invalidate());
+        Label binLabel = new Label("Bin width:");
+        binLabel.setTextFill(Color.DARKBLUE);
+        HBox statsControls = new HBox(10, statsMajorChoice, binLabel, binWidthChoice);
+        statsControls.setAlignment(Pos.CENTER_LEFT);
+
+        Button reportButton = createStyledButton("📋 Generate Report", PRIMARY);
+        reportButton.setOnAction(e -> showResults());
+
+        Button schemeButton = createStyledButton("🎚️ Grading Scheme", ACCENT);
+        schemeButton.setOnAction(e -> showGradingScheme());
+
+        Button diagnosticsButton = createStyledButton("🩺 Diagnostics", ACCENT);
+        diagnosticsButton.setOnAction(e -> showDiagnostics(diagnosticsButton.getScene()));
+
+        HBox buttonBox = new HBox(10, reportButton, schemeButton, diagnosticsButton);
+        buttonBox.setAlignment(Pos.CENTER_LEFT);
+
+        panel.getChildren().addAll(
+                panelTitle,
+                statsControls,
+                statsLabel,
+                chartBox,
+                buttonBox
+        );
+
+        return panel;
+    }
+
+    // The scheme as text, one letter per line; applying it re-grades the whole roster at once
+    private void showGradingScheme() {
+        Stage schemeStage = new Stage();
+        schemeStage.setTitle("Grading Scheme");
+
+        VBox schemeLayout = new VBox(15);
+        schemeLayout.setPadding(new Insets(20));
+        schemeLayout.getStyleClass().add("panel");
+        schemeLayout.setAlignment(Pos.CENTER);
+
+        Label schemeTitle = new Label("🎚️ Grading Scheme");
+        schemeTitle.setFont(Font.font("Arial", FontWeight.BOLD, 20));
+        schemeTitle.setTextFill(Color.DARKBLUE);
+
+        Label hint = new Label("One letter per line, best first: letter, lowest grade, band, pass or fail. "
+                + "Letters sharing a band are counted together in the charts and the report.");
+        hint.setWrapText(true);
+        hint.setTextFill(Color.DARKBLUE);
+
+        TextArea schemeText = new TextArea(gradeBook.gradingScheme().toString());
+        schemeText.getStyleClass().add("text-view");
+        schemeText.setPrefSize(420, 260);
+
+        Label errorLabel = new Label();
+        errorLabel.setTextFill(Color.DARKRED);
+        errorLabel.setWrapText(true);
+
+        Button applyButton = createStyledButton("✅ Apply", SUCCESS);
+        Button defaultButton = createStyledButton("↺ Default", WARNING);
+        Button closeButton = createStyledButton("Close", DANGER);
+        applyButton.setOnAction(e -> {
+            GradingScheme scheme;
+            try {
+                scheme = GradingScheme.parse(schemeText.getText());
+            } catch (IllegalArgumentException ex) {
+                errorLabel.setText(ex.getMessage());
+                return;
+            }
+            applyGradingScheme(scheme);
+            schemeStage.close();
+        });
+        defaultButton.setOnAction(e -> schemeText.setText(GradingScheme.DEFAULT.toString()));
+        closeButton.setOnAction(e -> schemeStage.close());
+
+        HBox buttonBox = new HBox(10, applyButton, defaultButton, closeButton);
+        buttonBox.setAlignment(Pos.CENTER);
+
+        schemeLayout.getChildren().addAll(schemeTitle, hint, schemeText, errorLabel, buttonBox);
+        schemeStage.setScene(styledScene(schemeLayout));
+        schemeStage.show();
+    }
+
+    private void applyGradingScheme(GradingScheme scheme) {
+        gradeBook.setGradingScheme(scheme);
+        // Exports, search and the journal read the regraded rows from here on
+        students.update();
+        statsView.invalidate();
+        chartView.invalidate();
+        studentListView.refresh();
+        if (gradingSchemeFile == null) return;
+        try {
+            Files.writeString(gradingSchemeFile, scheme.toString());
+        } catch (IOException e) {
+            showEnhancedAlert("Error", "Could not save the grading scheme: " + e.getMessage(), Alert.AlertType.ERROR);
+        }
+    }
+
+    // One more assessment for a student's history; their current grade and card stay as they are
+    private void showRecordGrade(Student student) {
+        Stage gradeStage = new Stage();
+        gradeStage.setTitle("Record Grade");
+        gradeStage.initOwner(studentListView.getScene().getWindow());
+        gradeStage.initModality(Modality.WINDOW_MODAL);
+
+        VBox gradeLayout = new VBox(15);
+        gradeLayout.setPadding(new Insets(20));
+        gradeLayout.getStyleClass().add("panel");
+        gradeLayout.setAlignment(Pos.CENTER);
+        gradeLayout.setPrefWidth(380);
+
+        Label gradeTitle = new Label("📝 " + student.getName());
+        gradeTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        gradeTitle.setTextFill(Color.DARKBLUE);
+
+        TextField courseField = new TextField();
+        courseField.setPromptText("Course...");
+        TextField termField = new TextField();
+        termField.setPromptText("Term...");
+        TextField newGradeField = new TextField();
+        newGradeField.setPromptText("Grade (0-100)...");
+        for (TextField field : List.of(courseField, termField, newGradeField)) field.getStyleClass().add("input-field");
+
+        Label errorLabel = new Label();
+        errorLabel.setTextFill(Color.DARKRED);
+        errorLabel.setWrapText(true);
+
+        Button saveButton = createStyledButton("✅ Record", SUCCESS);
+        Button closeButton = createStyledButton("Close", DANGER);
+        saveButton.setOnAction(e -> {
+            String course = courseField.getText().trim();
+            String term = termField.getText().trim();
+            RecordedGrade recorded;
+            try {
+                if (course.isEmpty() || term.isEmpty() || newGradeField.getText().isBlank()) {
+                    throw new IllegalArgumentException(StudentValidator.MISSING_FIELDS);
+                }
+                double grade = StudentValidator.parseGrade(newGradeField.getText());
+                recorded = new RecordedGrade(student, course, term, grade, LocalDateTime.now());
+                gradeBook.recordGrade(student, course, term, recorded.getGrade(), recorded.getAt());
+            } catch (IllegalArgumentException ex) {
+                errorLabel.setText(ex.getMessage());
+                return;
+            }
+            saveInBackground(repository -> repository.recordGrade(recorded));
+            chartView.invalidate();
+            gradeStage.close();
+        });
+        closeButton.setOnAction(e -> gradeStage.close());
+
+        HBox buttonBox = new HBox(10, saveButton, closeButton);
+        buttonBox.setAlignment(Pos.CENTER);
+
+        gradeLayout.getChildren().addAll(gradeTitle, courseField, termField, newGradeField, errorLabel, buttonBox);
+        gradeStage.setScene(styledScene(gradeLayout));
+        gradeStage.show();
+    }
+
+    private void showDiagnostics(Scene scene) {
+        if (diagnosticsWindow == null) diagnosticsWindow = new DiagnosticsWindow(scene, STYLESHEET);
+        diagnosticsWindow.show();
+    }
+
+    private void showResults(){
+        Stage reportStage = new Stage();
+        reportStage.setTitle("Detailed Student Report");
+
+        VBox reportLayout = new VBox(15);
+        reportLayout.setPadding(new Insets(20));
+        reportLayout.getStyleClass().add("panel");
+
+        Label reportTitle = new Label("📄 Detailed Student Report");
+        reportTitle.setFont(Font.font("Arial", FontWeight.BOLD, 20));
+        reportTitle.setTextFill(Color.DARKBLUE);
+
+        // Lines stream in while the report is written; only visible ones get cells
+        ListView<String> reportContent = new ListView<>();
+        reportContent.getStyleClass().add("text-view");
+        reportContent.setPrefHeight(600);
+        reportContent.setPrefWidth(500);
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+
+        ReportLines reportLines = new ReportLines(reportContent.getItems());
+        Task<Void> reportTask = generateReportContent(reportLines);
+        progressBar.progressProperty().bind(reportTask.progressProperty());
+        reportTask.setOnSucceeded(e -> {
+            reportLines.flush();
+            progressBar.setVisible(false);
+        });
+        reportTask.setOnFailed(e -> progressBar.setVisible(false));
+
+        Button saveButton = createStyledButton("💾 Save to File", SUCCESS);
+        saveButton.setOnAction(e -> saveReport(reportStage));
+
+        Button closeButton = createStyledButton("Close", DANGER);
+        closeButton.setOnAction(e -> reportStage.close());
+        reportStage.setOnHidden(e -> reportTask.cancel());
+
+        HBox buttonBox = new HBox(10, saveButton, closeButton);
+        buttonBox.setAlignment(Pos.CENTER);
+
+        reportLayout.getChildren().addAll(reportTitle, progressBar, reportContent, buttonBox);
+        reportLayout.setAlignment(Pos.CENTER);
+
+        reportStage.setScene(styledScene(reportLayout));
+        reportStage.show();
+
+        startBackgroundTask(reportTask, "report-writer");
+    }
+
+    private void saveReport(Stage owner) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Report");
+        chooser.setInitialFileName("student-report.txt");
+        File file = chooser.showSaveDialog(owner);
+        if (file == null) return;
+
+        BufferedWriter writer;
+        try {
+            writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            showEnhancedAlert("Error", "Could not write report: " + ex.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+
+        Task<Void> saveTask = generateReportContent(text -> {
+            writer.append(text);
+            writer.newLine();
+        });
+        saveTask.runningProperty().addListener((obs, wasRunning, running) -> {
+            if (running) return;
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                showEnhancedAlert("Error", "Could not write report: " + ex.getMessage(), Alert.AlertType.ERROR);
+            }
+        });
+        saveTask.setOnSucceeded(e -> showEnhancedAlert("Success",
+                "Report saved to " + file.getName(), Alert.AlertType.INFORMATION));
+        saveTask.setOnFailed(e -> showEnhancedAlert("Error",
+                "Could not write report: " + saveTask.getException().getMessage(), Alert.AlertType.ERROR));
+        startBackgroundTask(saveTask, "report-writer");
+    }
+
+    // Streams the report for the current roster to the sink on a background thread
+    private Task<Void> generateReportContent(ReportWriter.LineSink sink) {
+        return new Task<>() {
+            @Override
+            protected Void call() throws IOException {
+                // Only finished reports are timed
+                long started = REPORT_TIMER.start();
+                gradeBook.writeReport(sink, (done, total) -> {
+                    if (isCancelled()) throw new CancellationException();
+                    updateProgress(done, total);
+                });
+                REPORT_TIMER.stop(started);
+                return null;
+            }
+        };
+    }
+
+    private void startBackgroundTask(Task<?> task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private VBox createStudentListPanel() {
+        VBox panel = new VBox(15);
+        panel.setPrefWidth(350);
+        panel.getStyleClass().add("panel");
+        panel.setPadding(new Insets(20));
+
+        Label panelTitle = new Label("👥 Student List");
+        panelTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        panelTitle.setTextFill(Color.BLACK);
+
+        // Only the rows on screen get nodes; cells are recycled while scrolling
+        studentListView = new ListView<>(students);
+        studentListView.setCellFactory(list -> new StudentCell());
+        studentListView.setFixedCellSize(STUDENT_CELL_HEIGHT);
+        studentListView.setPrefHeight(400);
+        studentListView.setPlaceholder(new Label("No students yet"));
+        studentListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        studentListView.getStyleClass().add("student-list");
+
+        HBox controlBox = new HBox(10);
+        controlBox.setAlignment(Pos.CENTER);
+
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search students...");
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
+            searchQuery = Student.normalize(newVal);
+            if (searchQuery.isEmpty()) {
+                searchDelay.stop();
+                runSearch();
+            } else {
+                searchDelay.playFromStart();
+            }
+        });
+        searchDelay.setOnFinished(e -> runSearch());
+
+
+        // Sorting only changes what the list shows; the roster keeps the order students were added in
+        ComboBox<String> sortChoice = new ComboBox<>();
+        sortChoice.getItems().add(ROSTER_ORDER);
+        for (RosterOrder.Key key : RosterOrder.Key.values()) sortChoice.getItems().add("🔄 " + key);
+        sortChoice.setValue(ROSTER_ORDER);
+        sortChoice.getStyleClass().add("input-field");
+        directionButton = createStyledButton("⬇", ACCENT);
+        directionButton.setDisable(true);
+        Button deleteSelectedButton = createStyledButton("❌ Delete Selected", DANGER);
+        deleteSelectedButton.disableProperty().bind(
+                Bindings.isEmpty(studentListView.getSelectionModel().getSelectedItems()));
+        Button deleteAllButton = createStyledButton("🗑️ Clear All", DANGER);
+
+        sortChoice.setOnAction(e -> {
+            int choice = sortChoice.getSelectionModel().getSelectedIndex();
+            RosterOrder.Key key = choice <= 0 ? null : RosterOrder.Key.values()[choice - 1];
+            showOrder(key, key == RosterOrder.Key.GRADE);
+        });
+        directionButton.setOnAction(e -> showOrder(sortedStudents.key(), !sortedStudents.isDescending()));
+        deleteSelectedButton.setOnAction(e -> removeSelectedStudents());
+        deleteAllButton.setOnAction(e -> clearAllStudents());
+
+        undoButton.setOnAction(e -> undo());
+        redoButton.setOnAction(e -> redo());
+        undoButton.setTooltip(new Tooltip());
+        redoButton.setTooltip(new Tooltip());
+        refreshUndoButtons();
+
+        controlBox.getChildren().addAll(sortChoice, directionButton, deleteSelectedButton, deleteAllButton,
+                undoButton, redoButton);
+
+        panel.getChildren().addAll(panelTitle, searchField, studentListView, controlBox);
+        return panel;
+    }
+
+
+    private void addStudentWithAnimation() {
+        long started = ADD_TIMER.start();
+        Student newStudent;
+        try {
+            newStudent = StudentValidator.parse(nameField.getText(), gradeField.getText(), majorField.getValue());
+        } catch (IllegalArgumentException e) {
+            showEnhancedAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+
+        gradeBook.add(newStudent);
+        students.update();
+        studentListView.scrollTo(newStudent);
+
+        clearForm();
+        // Up to the confirmation, which waits for the user
+        ADD_TIMER.stop(started);
+
+        showEnhancedAlert("Success", "Student added successfully! 🎉", Alert.AlertType.INFORMATION);
+    }
+
+    private void importStudents() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Students");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV / TSV files", "*.csv", "*.tsv", "*.txt"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = chooser.showOpenDialog(studentListView.getScene().getWindow());
+        if (file == null) return;
+
+        // The import is one transaction, so one undo takes it back
+        Stage importStage = new Stage();
+        importStage.setTitle("Import Students");
+        importStage.initOwner(studentListView.getScene().getWindow());
+        importStage.initModality(Modality.WINDOW_MODAL);
+
+        VBox importLayout = new VBox(15);
+        importLayout.setPadding(new Insets(20));
+        importLayout.getStyleClass().add("panel");
+        importLayout.setAlignment(Pos.CENTER);
+        importLayout.setPrefWidth(450);
+
+        Label statusLabel = new Label("📥 Importing " + file.getName() + "...");
+        statusLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        statusLabel.setTextFill(Color.DARKBLUE);
+        statusLabel.setWrapText(true);
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+
+        Button closeButton = createStyledButton("Cancel", DANGER);
+
+        // Rows are read and validated in the background while other edits carry on; only adding the valid
+        // ones takes the grade book's write lock, in one transaction that the list refreshes for once
+        Task<StudentImporter.Result> importTask = new Task<>() {
+            @Override
+            protected StudentImporter.Result call() throws Exception {
+                List<Student> valid = new ArrayList<>();
+                StudentImporter.Result result = new StudentImporter(file.toPath()).run(valid::addAll,
+                        (done, total) -> {
+                            if (isCancelled()) throw new CancellationException();
+                            updateProgress(done, total);
+                        });
+                if (isCancelled()) throw new CancellationException();
+                gradeBook.transaction("Import " + file.getName(), () -> {
+                    gradeBook.addAll(valid);
+                    return null;
+                });
+                return result;
+            }
+        };
+        progressBar.progressProperty().bind(importTask.progressProperty());
+        closeButton.setOnAction(e -> importStage.close());
+        importStage.setOnHidden(e -> importTask.cancel());
+
+        importTask.setOnSucceeded(e -> {
+            StudentImporter.Result result = importTask.getValue();
+            statusLabel.setText(String.format("✅ Imported %d students, rejected %d rows.",
+                    result.getImported(), result.getRejected()));
+            progressBar.setVisible(false);
+            closeButton.setText("Close");
+
+            if (!result.getErrors().isEmpty()) {
+                ListView<String> errorList = new ListView<>(FXCollections.observableArrayList(result.getErrors()));
+                errorList.getStyleClass().add("text-view");
+                errorList.setPrefHeight(250);
+                int closeIndex = importLayout.getChildren().indexOf(closeButton);
+                importLayout.getChildren().add(closeIndex, errorList);
+                importStage.sizeToScene();
+            }
+        });
+        importTask.setOnFailed(e -> {
+            importStage.close();
+            showEnhancedAlert("Error", "Import failed: " + importTask.getException().getMessage(),
+                    Alert.AlertType.ERROR);
+        });
+
+        importLayout.getChildren().addAll(statusLabel, progressBar, closeButton);
+        importStage.setScene(styledScene(importLayout));
+        importStage.show();
+
+        startBackgroundTask(importTask, "student-import-reader");
+    }
+
+    private void exportStudents() {
+        if (students.isEmpty()) {
+            showEnhancedAlert("Error", "There are no students to export.", Alert.AlertType.ERROR);
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Students");
+        FileChooser.ExtensionFilter studentsCsv = new FileChooser.ExtensionFilter("Students (CSV)", "*.csv");
+        FileChooser.ExtensionFilter majorsCsv = new FileChooser.ExtensionFilter("Major summary (CSV)", "*.csv");
+        FileChooser.ExtensionFilter json = new FileChooser.ExtensionFilter("Students and majors (JSON)", "*.json");
+        chooser.getExtensionFilters().addAll(studentsCsv, majorsCsv, json);
+        chooser.setInitialFileName("students");
+        File file = chooser.showSaveDialog(studentListView.getScene().getWindow());
+        if (file == null) return;
+
+        FileChooser.ExtensionFilter chosen = chooser.getSelectedExtensionFilter();
+        StudentExporter.Format format = chosen == json ? StudentExporter.Format.JSON
+                : chosen == majorsCsv ? StudentExporter.Format.MAJORS_CSV
+                : StudentExporter.Format.STUDENTS_CSV;
+
+        // Snapshot now so edits made during the export do not end up in the file
+        StudentTable.Snapshot snapshot = students.snapshot();
+        Task<Void> exportTask = new Task<>() {
+            @Override
+            protected Void call() throws IOException {
+                new StudentExporter(snapshot).export(file.toPath(), format, (done, total) -> {
+                    if (isCancelled()) throw new CancellationException();
+                    updateProgress(done, total);
+                });
+                return null;
+            }
+        };
+
+        Stage exportStage = new Stage();
+        exportStage.setTitle("Export Students");
+
+        Label statusLabel = new Label("📤 Exporting " + snapshot.size() + " students to " + file.getName() + "...");
+        statusLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        statusLabel.setTextFill(Color.DARKBLUE);
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.progressProperty().bind(exportTask.progressProperty());
+
+        Button cancelButton = createStyledButton("Cancel", DANGER);
+        cancelButton.setOnAction(e -> exportStage.close());
+        exportStage.setOnHidden(e -> exportTask.cancel());
+
+        exportTask.setOnSucceeded(e -> {
+            exportStage.close();
+            showEnhancedAlert("Success", "Exported " + snapshot.size() + " students to " + file.getName(),
+                    Alert.AlertType.INFORMATION);
+        });
+        exportTask.setOnFailed(e -> {
+            exportStage.close();
+            showEnhancedAlert("Error", "Export failed: " + exportTask.getException().getMessage(),
+                    Alert.AlertType.ERROR);
+        });
+
+        VBox exportLayout = new VBox(15, statusLabel, progressBar, cancelButton);
+        exportLayout.setPadding(new Insets(20));
+        exportLayout.getStyleClass().add("panel");
+        exportLayout.setAlignment(Pos.CENTER);
+        exportLayout.setPrefWidth(450);
+
+        exportStage.setScene(styledScene(exportLayout));
+        exportStage.show();
+
+        startBackgroundTask(exportTask, "student-export");
+    }
+
+    private void removeStudent(Student student) {
+        gradeBook.remove(student);
+        students.update();
+    }
+
+    // One write and one list change however many rows are selected
+    private void removeSelectedStudents() {
+        List<Student> selected = new ArrayList<>(studentListView.getSelectionModel().getSelectedItems());
+        studentListView.getSelectionModel().clearSelection();
+        gradeBook.removeAll(selected);
+        students.update();
+    }
+
+    private void undo() {
+        if (gradeBook.undo()) students.update();
+    }
+
+    private void redo() {
+        if (gradeBook.redo()) students.update();
+    }
+
+    private void refreshUndoButtons() {
+        String undo = gradeBook.undoDescription();
+        String redo = gradeBook.redoDescription();
+        undoButton.setDisable(undo == null);
+        redoButton.setDisable(redo == null);
+        if (undoButton.getTooltip() != null) {
+            undoButton.getTooltip().setText("Undo: " + undo);
+            redoButton.getTooltip().setText("Redo: " + redo);
+        }
+    }
+
+    // Catches the list up with the grade book, once per pulse at most
+    private void refreshStudentList() {
+        long started = REFRESH_TIMER.start();
+        try {
+            students.update();
+        } finally {
+            REFRESH_TIMER.stop(started);
+        }
+    }
+
+    // Called on the FX thread after another thread wrote to the grade book
+    private void rosterChanged() {
+        rosterView.invalidate();
+    }
+
+    private void onStudentsChanged(ListChangeListener.Change<? extends Student> change) {
+        refreshUndoButtons();
+        statsView.invalidate();
+        chartView.invalidate();
+        studentListView.pseudoClassStateChanged(LARGE_ROSTER_PSEUDO_CLASS, students.size() > LARGE_ROSTER);
+        if (students.isEmpty()) {
+            searchResults.clear();
+            return;
+        }
+
+        while (change.next()) {
+            if (shownQuery.isEmpty()) continue;
+            if (change.wasRemoved()) searchResults.removeAll(new HashSet<>(change.getRemoved()));
+            for (Student added : change.getAddedSubList()) {
+                if (added.matches(shownQuery)) searchResults.add(added);
+            }
+        }
+
+        // An in-flight search saw an older roster
+        boolean searchPending = searchTask != null && !searchTask.isDone();
+        if (!searchQuery.isEmpty() && searchPending) searchView.invalidate();
+    }
+
+    private void runSearch() {
+        if (searchTask != null) searchTask.cancel();
+
+        String query = searchQuery;
+        if (query.isEmpty()) {
+            searchTask = null;
+            shownQuery = "";
+            searchResults.clear();
+            studentListView.setItems(listedStudents);
+            return;
+        }
+
+        StudentTable.Snapshot roster = students.snapshot();
+        Task<List<Student>> task = new Task<>() {
+            @Override
+            protected List<Student> call() {
+                long started = SEARCH_TIMER.start();
+                try {
+                    // The result reads rows from the snapshot; build the students here, off the FX thread
+                    return new ArrayList<>(gradeBook.search(query, roster, this::isCancelled));
+                } finally {
+                    SEARCH_TIMER.stop(started);
+                }
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (task == searchTask) showSearchResults(query, task.getValue());
+        });
+        searchTask = task;
+        searchExecutor.execute(task);
+    }
+
+    // Replace only the rows that differ, keeping the unchanged head and tail in place
+    private void showSearchResults(String query, List<Student> next) {
+        int currentSize = searchResults.size();
+        int shared = Math.min(currentSize, next.size());
+
+        int head = 0;
+        while (head < shared && searchResults.get(head).equals(next.get(head))) head++;
+        int tail = 0;
+        while (tail < shared - head &&
+                searchResults.get(currentSize - 1 - tail).equals(next.get(next.size() - 1 - tail))) tail++;
+
+        if (head < currentSize - tail) searchResults.remove(head, currentSize - tail);
+        if (head < next.size() - tail) searchResults.addAll(head, next.subList(head, next.size() - tail));
+
+        shownQuery = query;
+        studentListView.setItems(searchResults);
+    }
+
+    // First data: put the charts in the stats panel
+    private void buildCharts() {
+        // Histogram of the selected major, one bar per bin
+        BarChart<String, Number> histogramChart = new BarChart<>(new CategoryAxis(), new NumberAxis());
+        histogramChart.setTitle("Grade Histogram");
+        histogramChart.setPrefSize(300, 180);
+        histogramChart.setLegendVisible(false);
+        histogramChart.setAnimated(false);
+        histogramChart.setBarGap(0);
+        histogramChart.setCategoryGap(1);
+        histogramChart.getData().add(histogramSeries);
+
+        // Grade distribution chart
+        gradeChart = new PieChart();
+        gradeChart.setTitle("Grade Distribution");
+        gradeChart.setPrefSize(300, 250);
+
+        // Progress chart
+        NumberAxis xAxis = new NumberAxis();
+        NumberAxis yAxis = new NumberAxis();
+        xAxis.setLabel("Date");
+        xAxis.setForceZeroInRange(false);
+        xAxis.setTickLabelFormatter(new TimeAxisLabels(xAxis));
+        yAxis.setLabel("Average grade");
+
+        progressChart = new LineChart<>(xAxis, yAxis);
+        progressChart.setTitle("Grade Progression");
+        progressChart.setPrefSize(300, 200);
+        // Points arrive every pulse during bulk edits; animating each batch would lag behind
+        progressChart.setAnimated(false);
+        progressSeries.setName("Average grade");
+        progressChart.getData().add(progressSeries);
+        // A wider chart can show more points
+        progressChart.widthProperty().addListener((obs, oldWidth, newWidth) -> chartView.invalidate());
+
+        chartBox.getChildren().addAll(histogramChart, gradeChart, progressChart);
+        statsView.invalidate();
+        chartView.invalidate();
+    }
+
+    private void updateCharts() {
+        long started = CHARTS_TIMER.start();
+        try {
+            drawCharts();
+        } finally {
+            CHARTS_TIMER.stop(started);
+        }
+    }
+
+    private void drawCharts() {
+        if (gradeChart == null) {
+            if (students.isEmpty()) return;
+            buildCharts();
+        }
+
+        // Pie chart: resize the existing slices, adding or dropping only bands that became (non-)empty
+        GradeSummary summary = gradeBook.statistics();
+        GradingScheme scheme = summary.getGradingScheme();
+        if (scheme != piedScheme) {
+            gradeChart.getData().clear();
+            bandSlices = new PieChart.Data[scheme.bandCount()];
+            piedScheme = scheme;
+        }
+        int position = 0;
+        for (int band = 0; band < bandSlices.length; band++) {
+            long count = summary.getBandCount(band);
+            if (count == 0) {
+                if (bandSlices[band] != null) gradeChart.getData().remove(bandSlices[band]);
+                bandSlices[band] = null;
+                continue;
+            }
+            if (bandSlices[band] == null) {
+                bandSlices[band] = new PieChart.Data(scheme.bandLabel(band), count);
+                gradeChart.getData().add(position, bandSlices[band]);
+            } else {
+                bandSlices[band].setPieValue(count);
+            }
+            position++;
+        }
+
+        // Line chart: the average of every grade given, over time, in stretches of about two pixels.
+        // The grade book keeps the timeline per history version, so an unchanged one is not replotted.
+        GradeHistory.Timeline timeline = gradeBook.timeline(progressChartBuckets());
+        if (timeline == plottedTimeline) return;
+        plottedTimeline = timeline;
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>();
+        for (int bucket = 0; bucket < timeline.buckets(); bucket++) {
+            if (timeline.count(bucket) == 0) continue;
+            long middle = timeline.start(bucket) + timeline.bucketNanos() / 2;
+            points.add(new XYChart.Data<>(TimeAxisLabels.toAxis(middle), timeline.average(bucket)));
+        }
+        // Symbols only while the points are few enough to tell apart
+        progressChart.setCreateSymbols(points.size() <= 50);
+        progressSeries.getData().setAll(points);
+    }
+
+    // A stretch of time per two pixels of chart width
+    private int progressChartBuckets() {
+        double width = progressChart.getWidth() > 0 ? progressChart.getWidth() : progressChart.getPrefWidth();
+        return Math.max(1, (int) (width / 2));
+    }
+
+    private void updateStats() {
+        long started = STATS_TIMER.start();
+        try {
+            showStats();
+        } finally {
+            STATS_TIMER.stop(started);
+        }
+    }
+
+    private void showStats() {
+        // Offer the majors that currently have students
+        List<String> majors = gradeBook.majors();
+        if (!statsMajorChoice.getItems().subList(1, statsMajorChoice.getItems().size()).equals(majors)) {
+            String selected = statsMajorChoice.getValue();
+            statsMajorChoice.getItems().setAll(ALL_MAJORS);
+            statsMajorChoice.getItems().addAll(majors);
+            statsMajorChoice.setValue(majors.contains(selected) ? selected : ALL_MAJORS);
+        }
+
+        String major = ALL_MAJORS.equals(statsMajorChoice.getValue()) ? null : statsMajorChoice.getValue();
+        GradeDistribution distribution = gradeBook.distribution(major, Double.parseDouble(binWidthChoice.getValue()));
+        if (gradeChart != null) updateHistogram(distribution);
+        if (distribution.isEmpty()) {
+            statsLabel.setText("📊 No data available");
+            return;
+        }
+
+        String stats = String.format(
+                "📈 Total Students: %d\n" +
+                        "📊 Class Average: %.2f (Std Dev %.2f)\n" +
+                        "🏆 Highest Grade: %.1f\n" +
+                        "📉 Lowest Grade: %.1f\n" +
+                        "⚖️ Median Grade: %.1f\n" +
+                        "📐 P10 %.1f | P25 %.1f | P75 %.1f | P90 %.1f\n" +
+                        "🎯 Pass Rate: %.1f%%",
+                distribution.getCount(),
+                distribution.getAverage(),
+                distribution.getStandardDeviation(),
+                distribution.getHighest(),
+                distribution.getLowest(),
+                distribution.getMedian(),
+                distribution.getP10(),
+                distribution.getP25(),
+                distribution.getP75(),
+                distribution.getP90(),
+                distribution.getPassRate()
+        );
+
+        statsLabel.setText(stats);
+    }
+
+    // Same bins as last time: move the bars; otherwise lay the bins out again
+    private void updateHistogram(GradeDistribution distribution) {
+        ObservableList<XYChart.Data<String, Number>> bars = histogramSeries.getData();
+        if (distribution.getBinWidth() != histogramBinWidth) {
+            histogramBinWidth = distribution.getBinWidth();
+            List<XYChart.Data<String, Number>> laidOut = new ArrayList<>();
+            for (int bin = 0; bin < distribution.getBinCount(); bin++) {
+                laidOut.add(new XYChart.Data<>(binLabel(distribution, bin), distribution.getBin(bin)));
+            }
+            bars.setAll(laidOut);
+            return;
+        }
+        for (int bin = 0; bin < bars.size(); bin++) {
+            XYChart.Data<String, Number> bar = bars.get(bin);
+            if (bar.getYValue().longValue() != distribution.getBin(bin)) bar.setYValue(distribution.getBin(bin));
+        }
+    }
+
+    private static String binLabel(GradeDistribution distribution, int bin) {
+        double start = distribution.getBinStart(bin);
+        return start == Math.rint(start) ? String.valueOf((long) start) : String.valueOf(start);
+    }
+
+    // A null key lists the roster in the order students were added
+    private void showOrder(RosterOrder.Key key, boolean descending) {
+        if (key == null) {
+            listedStudents = students;
+        } else {
+            students.update();
+            if (sortedStudents == null) {
+                sortedStudents = new SortedStudentList(gradeBook, students, key, descending);
+            } else {
+                sortedStudents.show(key, descending);
+            }
+            listedStudents = sortedStudents;
+        }
+        directionButton.setDisable(key == null);
+        directionButton.setText(key != null && descending ? "⬇" : "⬆");
+        if (searchQuery.isEmpty()) studentListView.setItems(listedStudents);
+    }
+
+    private void clearAllStudents() {
+        if (students.isEmpty()) return;
+
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Confirm Clear All");
+        alert.setHeaderText("Are you sure?");
+        alert.setContentText("This will remove all students from the tracker. Undo brings them back.");
+
+        alert.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                gradeBook.clear();
+                students.update();
+            }
+        });
+    }
+
+    private void clearForm() {
+        nameField.clear();
+        gradeField.clear();
+        majorField.setValue(null);
+    }
+
+    // A short fade only: the window is usable at once, and scaling would lay everything out every frame
+    private void addEntranceAnimation(Node node) {
+        FadeTransition fade = new FadeTransition(Duration.millis(150), node);
+        fade.setFromValue(0.0);
+        fade.setToValue(1.0);
+        fade.play();
+    }
+
+    // Helper methods for styling and utilities
+    private Scene styledScene(Parent root) {
+        Scene scene = new Scene(root);
+        scene.getStylesheets().add(STYLESHEET);
+        return scene;
+    }
+
+    // Color and hover scaling come from the variant's style class
+    private Button createStyledButton(String text, String variant) {
+        Button button = new Button(text);
+        button.getStyleClass().addAll("action-button", variant);
+        return button;
+    }
+
+    private void showEnhancedAlert(String title, String message, Alert.AlertType type) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+
+        // Style the alert
+        DialogPane dialogPane = alert.getDialogPane();
+        dialogPane.getStylesheets().add(STYLESHEET);
+        dialogPane.getStyleClass().add("tracker-dialog");
+
+        alert.showAndWait();
+    }
+
+    // Collects report lines off the FX thread and hands them to the viewer in batches
+    private static class ReportLines implements ReportWriter.LineSink {
+        // Small first batch so the viewer shows something almost immediately
+        private static final int FIRST_BATCH = 64;
+        private static final int BATCH = 4096;
+
+        private final ObservableList<String> target;
+        private List<String> pending = new ArrayList<>(FIRST_BATCH);
+        private int batchSize = FIRST_BATCH;
+
+        ReportLines(ObservableList<String> target) {
+            this.target = target;
+        }
+
+        @Override
+        public void line(CharSequence text) {
+            pending.add(text.toString());
+            if (pending.size() >= batchSize) {
+                publish();
+                batchSize = BATCH;
+            }
+        }
+
+        // Called on the FX thread once writing has finished
+        void flush() {
+            target.addAll(pending);
+            pending.clear();
+        }
+
+        private void publish() {
+            List<String> batch = pending;
+            pending = new ArrayList<>(BATCH);
+            Platform.runLater(() -> target.addAll(batch));
+        }
+    }
+
+    // Recycled list cell that renders a student as a card
+    private class StudentCell extends ListCell<Student> {
+        private final HBox card = new HBox(10);
+        private final Label nameLabel = new Label();
+        private final Label gradeLabel = new Label();
+        private final Label majorLabel = new Label();
+
+        StudentCell() {
+            card.getStyleClass().add("student-card");
+            card.setAlignment(Pos.CENTER_LEFT);
+            card.setPadding(new Insets(10));
+
+            nameLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+            nameLabel.setTextFill(Color.DARKBLUE);
+
+            gradeLabel.getStyleClass().add("grade-label");
+            gradeLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+
+            majorLabel.setFont(Font.font("Arial", 12));
+            majorLabel.setTextFill(Color.DARKBLUE);
+
+            Button gradeButton = new Button("📝");
+            gradeButton.getStyleClass().add("card-grade-button");
+            gradeButton.setTooltip(new Tooltip("Record a grade"));
+            gradeButton.setOnAction(e -> {
+                Student student = getItem();
+                if (student != null) showRecordGrade(student);
+            });
+
+            Button deleteButton = new Button("❌");
+            deleteButton.getStyleClass().add("card-delete-button");
+            deleteButton.setOnAction(e -> {
+                Student student = getItem();
+                if (student != null) removeStudent(student);
+            });
+
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+
+            VBox infoBox = new VBox(2, nameLabel, majorLabel);
+            card.getChildren().addAll(infoBox, spacer, gradeLabel, gradeButton, deleteButton);
+
+            getStyleClass().add("student-cell");
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        }
+
+        @Override
+        protected void updateItem(Student student, boolean empty) {
+            super.updateItem(student, empty);
+            if (empty || student == null) {
+                setGraphic(null);
+                return;
+            }
+
+            nameLabel.setText(student.getName());
+            majorLabel.setText(student.getMajor());
+            gradeLabel.setText(String.format("%.1f", student.getGrade()));
+            // The band stored with the student's row; only a search result the roster has moved past looks it up again
+            StudentTable.Snapshot shown = students.snapshot();
+            GradingScheme scheme = shown.gradingScheme();
+            int row = shown.indexOfId(student.getId());
+            int tone = scheme.toneOf(row >= 0 ? shown.bandAt(row) : scheme.bandOf(student.getGrade()));
+            for (int t = 0; t < TONE_PSEUDO_CLASSES.length; t++) {
+                card.pseudoClassStateChanged(TONE_PSEUDO_CLASSES[t], t == tone);
+            }
+            setGraphic(card);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package miniproject2_final.studentgradetracker;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.RandomAccess;
+
+/**
+ * The window's view of a {@link GradeBook} as an ObservableList of Student.
+ *
+ * The list shows the roster as of the last {@link #update()}, which replays
+ * everything the grade book did since then as list changes, so the ListView,
+ * charts and journal follow along in batches. Any thread may write to the
+ * grade book meanwhile; nothing here moves until the FX thread asks. Rows are
+ * read from the frozen snapshot the last update left behind, so nothing is
+ * stored twice.
+ *
+ * The list is read-only: edits go to the grade book.
+ */
+final class StudentStore extends ObservableListBase<Student> implements RandomAccess {
+
+    private final GradeBook.ChangeFeed feed;
+    private StudentTable.Snapshot shown;
+    private GradeBook.Step shownStep;
+
+    /** {@code onChange} runs on the writing thread when there is something new to {@link #update()}. */
+    StudentStore(GradeBook book, Runnable onChange) {
+        feed = book.openFeed(onChange);
+        shown = book.snapshot();
+    }
+
+    /** Applies every change the grade book has made since the last call. FX thread only. */
+    void update() {
+        for (GradeBook.Step step : feed.poll()) {
+            beginChange();
+            try {
+                for (GradeBook.Change change : step.changes) {
+                    if (change.isAdded()) {
+                        nextAdd(change.from, change.to);
+                    } else {
+                        nextRemove(change.from, change.removed);
+                    }
+                }
+                shown = step.rows;
+                shownStep = step;
+            } finally {
+                endChange();
+            }
+        }
+    }
+
+    @Override
+    public Student get(int index) {
+        return shown.get(index);
+    }
+
+    @Override
+    public int size() {
+        return shown.size();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Student ? shown.indexOfId(((Student) o).getId()) : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /** The roster sorted by {@code key} as of the rows shown, or null if it was not being kept then. */
+    RosterOrder ordered(RosterOrder.Key key) {
+        return shownStep == null ? null : shownStep.ordered(key);
+    }
+
+    /** The rows as shown; already immutable, so background threads may read it. */
+    StudentTable.Snapshot snapshot() {
+        return shown;
+    }
+}
@@ -0,0 +1,42 @@
+package miniproject2_final.studentgradetracker;
+
+import javafx.scene.chart.NumberAxis;
+import javafx.util.StringConverter;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Tick labels for a chart axis of times, plotted as seconds since the epoch:
+ * hours and minutes over a couple of days or less, the day over a year or
+ * less, the month beyond that.
+ */
+final class TimeAxisLabels extends StringConverter<Number> {
+
+    private static final double DAY_SECONDS = 86_400;
+    private static final DateTimeFormatter HOURS = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DAYS = DateTimeFormatter.ofPattern("MMM d");
+    private static final DateTimeFormatter MONTHS = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    private final NumberAxis axis;
+
+    TimeAxisLabels(NumberAxis axis) {
+        this.axis = axis;
+    }
+
+    /** Where epoch nanoseconds go on the axis. */
+    static double toAxis(long epochNanos) {
+        return epochNanos / 1e9;
+    }
+
+    @Override
+    public String toString(Number seconds) {
+        double span = axis.getUpperBound() - axis.getLowerBound();
+        DateTimeFormatter format = span <= 2 * DAY_SECONDS ? HOURS : span <= 365 * DAY_SECONDS ? DAYS : MONTHS;
+        return format.format(Student.dateTime((long) (seconds.doubleValue() * 1e9)));
+    }
+
+    @Override
+    public Number fromString(String text) {
+        throw new UnsupportedOperationException("Time labels are display only");
+    }
+}
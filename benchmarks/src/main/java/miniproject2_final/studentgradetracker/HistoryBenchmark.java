@@ -0,0 +1,69 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The grade history: the average of one major over a month, the progression
+ * chart's timeline over the whole history and one student's trend, all read
+ * from a history of its own so the grade book's cache is not what is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class HistoryBenchmark {
+
+    private static final long WEEK = Duration.ofDays(7).toNanos();
+
+    private GradeHistory history;
+    private GradeHistory.Snapshot snapshot;
+    private Student tracked;
+    private long monthStart;
+    private long monthEnd;
+
+    @Setup(Level.Trial)
+    public void record(RosterState state) {
+        history = new GradeHistory();
+        history.addAll(state.roster);
+        tracked = state.roster.get(state.roster.size() / 2);
+        // A term's worth of weekly quizzes for one student, backdated into the middle of the history
+        LocalDateTime first = tracked.getTimestamp();
+        for (int week = 1; week <= 16; week++) {
+            history.add(tracked, "Quiz " + week, "Fall", 60 + week * 2, Student.epochNanos(first.minusDays(7L * week)));
+        }
+        snapshot = history.snapshot();
+        monthStart = Student.epochNanos(first.minusDays(15));
+        monthEnd = Student.epochNanos(first.plusDays(15));
+    }
+
+    @Benchmark
+    public GradeHistory.Tally averageOverMonth() {
+        return snapshot.between("Computer Science", monthStart, monthEnd);
+    }
+
+    @Benchmark
+    public GradeHistory.Timeline progressionTimeline() {
+        return snapshot.timeline(150);
+    }
+
+    @Benchmark
+    public GradeTrend weeklyTrend() {
+        return history.trend(tracked, WEEK);
+    }
+}
@@ -0,0 +1,283 @@
+package miniproject2_final.studentgradetracker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Puts load on a running {@link TrackerServer}:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar miniproject2_final.studentgradetracker.LoadClient \
+ *     [--url=http://localhost:8642] [--students=100000] [--connections=16] [--seconds=10]
+ * </pre>
+ *
+ * It first sends a generated roster in one bulk request, then keeps every
+ * connection busy for the given time with a mix like a script's: mostly
+ * stats, then searches of ten results, single adds and lookups by id. At the
+ * end it prints requests per second and p50/p99/max latency per kind, as the
+ * client saw them. Each connection waits for its answer before sending the
+ * next request, so the rate measured is what that many clients get.
+ *
+ * Connections speak just enough HTTP/1.1 over a plain socket to keep alive
+ * and read a sized or chunked answer, so the client costs little next to the
+ * server it measures.
+ */
+public final class LoadClient {
+
+    private enum Kind {
+        STATS(60), SEARCH(25), ADD(10), LOOKUP(5);
+
+        final int percent;
+
+        Kind(int percent) {
+            this.percent = percent;
+        }
+    }
+
+    private static final String ID_FIELD = "{\"id\": ";
+    private static final String FORM = "application/x-www-form-urlencoded";
+
+    private final URI server;
+    private final List<Student> roster;
+    private long[] ids;
+    private final LatencyRecorder[] latencies = new LatencyRecorder[Kind.values().length];
+    private final AtomicLong failures = new AtomicLong();
+
+    private LoadClient(URI server, List<Student> roster) {
+        this.server = server;
+        this.roster = roster;
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new LatencyRecorder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:" + TrackerServer.DEFAULT_PORT;
+        int students = 100_000;
+        int connections = 16;
+        int seconds = 10;
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--url=")) url = value;
+            else if (arg.startsWith("--students=")) students = Integer.parseInt(value);
+            else if (arg.startsWith("--connections=")) connections = Integer.parseInt(value);
+            else if (arg.startsWith("--seconds=")) seconds = Integer.parseInt(value);
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        LoadClient load = new LoadClient(URI.create(url), RosterGenerator.generate(students));
+        load.loadRoster();
+        load.run(connections, seconds);
+    }
+
+    private void loadRoster() throws IOException {
+        StringBuilder csv = new StringBuilder(roster.size() * 40).append("name,grade,major\n");
+        for (Student student : roster) {
+            csv.append(student.getName()).append(',').append(student.getGrade()).append(',')
+                    .append(student.getMajor()).append('\n');
+        }
+        try (Connection connection = new Connection(server)) {
+            long started = System.nanoTime();
+            int status = connection.send("POST", "/students/bulk", "text/csv",
+                    csv.toString().getBytes(StandardCharsets.UTF_8), null);
+            System.out.printf("Bulk add of %d students: HTTP %d in %d ms%n", roster.size(), status,
+                    (System.nanoTime() - started) / 1_000_000);
+
+            // Lookups ask for ids the server has, taken from the start of an unfiltered search
+            ByteArrayOutputStream answer = new ByteArrayOutputStream();
+            connection.send("GET", "/students?limit=" + roster.size(), null, null, answer);
+            String body = answer.toString(StandardCharsets.UTF_8);
+            ids = new long[roster.size()];
+            int found = 0;
+            for (int at = body.indexOf(ID_FIELD); at >= 0 && found < ids.length; at = body.indexOf(ID_FIELD, at + 1)) {
+                int start = at + ID_FIELD.length();
+                ids[found++] = Long.parseLong(body.substring(start, body.indexOf(',', start)));
+            }
+            if (found == 0) throw new IllegalStateException("The server has no students to look up");
+            ids = Arrays.copyOf(ids, found);
+        }
+    }
+
+    private void run(int connections, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < connections; c++) {
+            long seed = c;
+            Thread thread = new Thread(() -> drive(new Random(seed), deadline), "load-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        long total = 0;
+        System.out.printf("%n%-8s %10s %10s %9s %9s %9s%n", "Request", "Count", "per sec", "p50 ms", "p99 ms", "max ms");
+        for (Kind kind : Kind.values()) {
+            LatencyRecorder recorder = latencies[kind.ordinal()];
+            total += recorder.count();
+            System.out.printf("%-8s %10d %10.0f %9.3f %9.3f %9.3f%n", kind, recorder.count(),
+                    (double) recorder.count() / seconds, recorder.percentile(50) / 1e6,
+                    recorder.percentile(99) / 1e6, recorder.max() / 1e6);
+        }
+        System.out.printf("%-8s %10d %10.0f   (%d failed)%n", "ALL", total, (double) total / seconds, failures.get());
+    }
+
+    // One connection's requests, back to back; a broken connection is counted and opened again
+    private void drive(Random random, long deadline) {
+        Connection connection = null;
+        while (System.nanoTime() < deadline) {
+            Kind kind = pick(random);
+            Student student = roster.get(random.nextInt(roster.size()));
+            long started = System.nanoTime();
+            try {
+                if (connection == null) connection = new Connection(server);
+                if (send(connection, kind, student, random) >= 300) failures.incrementAndGet();
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                close(connection);
+                connection = null;
+            }
+            latencies[kind.ordinal()].record(System.nanoTime() - started);
+        }
+        close(connection);
+    }
+
+    private int send(Connection connection, Kind kind, Student student, Random random) throws IOException {
+        switch (kind) {
+            case SEARCH:
+                return connection.send("GET", "/students?limit=10&q=" + encode(student.getName()), null, null, null);
+            case ADD:
+                String form = "name=" + encode(student.getName()) + "&grade=" + student.getGrade()
+                        + "&major=" + encode(student.getMajor());
+                return connection.send("POST", "/students", FORM, form.getBytes(StandardCharsets.UTF_8), null);
+            case LOOKUP:
+                return connection.send("GET", "/students/" + ids[random.nextInt(ids.length)], null, null, null);
+            default:
+                return connection.send("GET", "/stats", null, null, null);
+        }
+    }
+
+    private static Kind pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Kind kind : Kind.values()) {
+            if (roll < kind.percent) return kind;
+            roll -= kind.percent;
+        }
+        return Kind.STATS;
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // Already broken
+        }
+    }
+
+    /** One kept-alive HTTP/1.1 connection, used by one thread at a time. */
+    private static final class Connection implements Closeable {
+        private final Socket socket;
+        private final String host;
+        private final OutputStream out;
+        private final InputStream in;
+        private final StringBuilder line = new StringBuilder(128);
+        private final byte[] discard = new byte[8192];
+
+        Connection(URI server) throws IOException {
+            socket = new Socket(server.getHost(), server.getPort());
+            socket.setTcpNoDelay(true);
+            host = server.getHost() + ":" + server.getPort();
+            out = new BufferedOutputStream(socket.getOutputStream(), 8192);
+            in = new BufferedInputStream(socket.getInputStream(), 65536);
+        }
+
+        /**
+         * Sends one request and reads the whole answer into {@code answer}, or
+         * drops it when that is null. Returns the status code.
+         */
+        int send(String method, String target, String contentType, byte[] body, OutputStream answer) throws IOException {
+            StringBuilder head = new StringBuilder(160).append(method).append(' ').append(target)
+                    .append(" HTTP/1.1\r\nHost: ").append(host).append("\r\n");
+            if (body != null) {
+                head.append("Content-Type: ").append(contentType).append("\r\nContent-Length: ")
+                        .append(body.length).append("\r\n");
+            }
+            out.write(head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1));
+            if (body != null) out.write(body);
+            out.flush();
+
+            String status = readLine();
+            int code = Integer.parseInt(status.substring(9, 12));
+            long length = -1;
+            boolean chunked = false;
+            for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+                String name = header.substring(0, header.indexOf(':')).trim().toLowerCase(Locale.ROOT);
+                String value = header.substring(header.indexOf(':') + 1).trim();
+                if (name.equals("content-length")) length = Long.parseLong(value);
+                else if (name.equals("transfer-encoding")) chunked = value.equalsIgnoreCase("chunked");
+            }
+
+            if (chunked) {
+                for (long size = chunkSize(); size > 0; size = chunkSize()) {
+                    copy(size, answer);
+                    readLine();
+                }
+                while (!readLine().isEmpty()) {
+                    // Trailers
+                }
+            } else if (length > 0) {
+                copy(length, answer);
+            } else if (length < 0 && code != 204 && code != 304) {
+                throw new IOException("Answer of unknown length");
+            }
+            return code;
+        }
+
+        private long chunkSize() throws IOException {
+            String size = readLine();
+            int extension = size.indexOf(';');
+            return Long.parseLong(extension < 0 ? size : size.substring(0, extension), 16);
+        }
+
+        private void copy(long length, OutputStream answer) throws IOException {
+            while (length > 0) {
+                int read = in.read(discard, 0, (int) Math.min(discard.length, length));
+                if (read < 0) throw new EOFException();
+                if (answer != null) answer.write(discard, 0, read);
+                length -= read;
+            }
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) throw new EOFException();
+                if (c != '\r') line.append((char) c);
+            }
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list sorted by grade: keeping the order up to date as one student is
+ * added and removed again, and reading the top ten, instead of re-sorting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OrderBenchmark {
+
+    private RosterOrder byGrade;
+    private Student newcomer;
+
+    @Setup(Level.Trial)
+    public void sort(RosterState state) {
+        byGrade = RosterOrder.of(RosterOrder.Key.GRADE, state.roster);
+        newcomer = new Student("Noor Haddad", 81.5, "Physics", LocalDateTime.of(2025, 1, 6, 9, 0));
+    }
+
+    @Benchmark
+    public RosterOrder addAndRemoveOne() {
+        return byGrade.with(newcomer).without(newcomer);
+    }
+
+    @Benchmark
+    public void topTen(Blackhole blackhole) {
+        for (Student student : byGrade.top(10)) blackhole.consume(student);
+    }
+}
@@ -0,0 +1,42 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "report by major", written line by line from a snapshot the way the
+ * report window and "Save Report" produce it, the parallel aggregation
+ * behind it on its own, and the same report asked of the grade book again
+ * while the roster is unchanged.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReportBenchmark {
+
+    @Benchmark
+    public void writeReport(RosterState state, Blackhole blackhole) throws IOException {
+        new ReportWriter(state.snapshot).write(blackhole::consume, Progress.NONE);
+    }
+
+    @Benchmark
+    public void repeatReport(RosterState state, Blackhole blackhole) throws IOException {
+        state.book.writeReport(blackhole::consume, Progress.NONE);
+    }
+
+    @Benchmark
+    public RosterAggregate aggregateByMajor(RosterState state) {
+        return RosterAggregate.of(state.snapshot);
+    }
+}
@@ -0,0 +1,39 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * A generated roster shared by the benchmarks, loaded into a grade book the
+ * way the tracker holds it.
+ */
+@State(Scope.Benchmark)
+public class RosterState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    List<Student> roster;
+    GradeBook book;
+    StudentTable.Snapshot snapshot;
+    GradeStatistics statistics;
+    SearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void load() {
+        roster = RosterGenerator.generate(size);
+        book = new GradeBook();
+        book.addAll(roster);
+        snapshot = book.snapshot();
+        statistics = new GradeStatistics();
+        for (int i = 0; i < snapshot.size(); i++) statistics.add(snapshot.gradeAt(i));
+        // The grade book caches search results, so searches are timed on an index of their own
+        searchIndex = new SearchIndex();
+        for (Student student : roster) searchIndex.add(student);
+    }
+}
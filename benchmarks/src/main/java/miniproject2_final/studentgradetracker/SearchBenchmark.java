@@ -0,0 +1,38 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The search box: a name fragment, a major and a two-word name, looked up
+ * through the index against a snapshot of the roster. Every match is read
+ * back as a Student, as the search box does with the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchBenchmark {
+
+    @Param({"an", "science", "ava lee"})
+    public String query;
+
+    @Benchmark
+    public void search(RosterState state, Blackhole blackhole) {
+        int[] rows = state.searchIndex.search(Student.normalize(query), state.snapshot, () -> false);
+        for (Student student : state.snapshot.rows(rows)) blackhole.consume(student);
+    }
+}
@@ -0,0 +1,43 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first "Sort by Grade" on a roster in entry order, which builds the
+ * order that later writes keep up to date ({@link OrderBenchmark}). Every
+ * invocation starts from a fresh grade book, so only that first sort is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SortBenchmark {
+
+    private GradeBook book;
+
+    @Setup(Level.Invocation)
+    public void unsort(RosterState state) {
+        book = new GradeBook();
+        book.addAll(state.roster);
+    }
+
+    @Benchmark
+    public RosterOrder sortByGrade() {
+        return book.ordered(RosterOrder.Key.GRADE);
+    }
+}
@@ -0,0 +1,82 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The numbers behind the stats panel and both charts: a full rebuild of the
+ * running statistics, the per-edit incremental update the UI now does and
+ * the grade band grouping of the pie chart, from the band each row was given
+ * and by comparing every grade with the cut-offs, plus switching the whole
+ * roster to another grading scheme. The progression chart is timed in
+ * {@link HistoryBenchmark}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatisticsBenchmark {
+
+    // Plus and minus letters in the default bands
+    private static final GradingScheme PLUS_MINUS = GradingScheme.parse(String.join("\n",
+            "A, 93, Excellent, pass", "A-, 90, Excellent, pass",
+            "B+, 87, Good, pass", "B, 83, Good, pass", "B-, 80, Good, pass",
+            "C+, 77, Average, pass", "C, 73, Average, pass", "C-, 70, Average, pass",
+            "D, 60, Needs Improvement, pass", "F, 0, Needs Improvement, fail"));
+
+    @Benchmark
+    public void rebuildStatistics(RosterState state, Blackhole blackhole) {
+        GradeStatistics statistics = new GradeStatistics();
+        for (int i = 0; i < state.snapshot.size(); i++) statistics.add(state.snapshot.gradeAt(i));
+        summarize(statistics, blackhole);
+    }
+
+    @Benchmark
+    public void updateStatisticsForOneEdit(RosterState state, Blackhole blackhole) {
+        state.statistics.add(87.5);
+        summarize(state.statistics, blackhole);
+        state.statistics.remove(87.5);
+    }
+
+    @Benchmark
+    public long[] groupByStoredBand(RosterState state) {
+        GradingScheme scheme = state.snapshot.gradingScheme();
+        long[] bands = new long[scheme.bandCount()];
+        state.snapshot.scan(0, state.snapshot.size(),
+                (index, grade, majorCode, letter) -> bands[scheme.bandOfLetter(letter)]++);
+        return bands;
+    }
+
+    @Benchmark
+    public long[] groupByGradeBand(RosterState state) {
+        GradingScheme scheme = state.snapshot.gradingScheme();
+        long[] bands = new long[scheme.bandCount()];
+        for (int i = 0; i < state.snapshot.size(); i++) bands[scheme.bandOf(state.snapshot.gradeAt(i))]++;
+        return bands;
+    }
+
+    @Benchmark
+    public GradeSummary switchGradingScheme(RosterState state) {
+        GradeBook book = state.book;
+        book.setGradingScheme(book.gradingScheme() == PLUS_MINUS ? GradingScheme.DEFAULT : PLUS_MINUS);
+        return book.statistics();
+    }
+
+    private static void summarize(GradeStatistics statistics, Blackhole blackhole) {
+        blackhole.consume(statistics.count());
+        blackhole.consume(statistics.average());
+        blackhole.consume(statistics.highest());
+        blackhole.consume(statistics.lowest());
+        blackhole.consume(statistics.median());
+        blackhole.consume(statistics.passRate());
+    }
+}
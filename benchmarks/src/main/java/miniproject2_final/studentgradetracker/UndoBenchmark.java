@@ -0,0 +1,56 @@
+package miniproject2_final.studentgradetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Undo and redo on a full roster: a "Clear All" taken back, and a delete of
+ * a hundred selected students taken back. Each pair leaves the grade book
+ * as it found it, so one roster serves every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UndoBenchmark {
+
+    private GradeBook book;
+    private List<Student> selection;
+
+    @Setup(Level.Trial)
+    public void load(RosterState state) {
+        book = new GradeBook();
+        book.addAll(state.roster);
+        book.clearUndo();
+        selection = new ArrayList<>();
+        int step = Math.max(1, state.roster.size() / 100);
+        for (int i = 0; i < state.roster.size() && selection.size() < 100; i += step) selection.add(state.roster.get(i));
+    }
+
+    @Benchmark
+    public boolean clearThenUndo() {
+        book.clear();
+        return book.undo();
+    }
+
+    @Benchmark
+    public boolean removeSelectedThenUndo() {
+        book.removeAll(selection);
+        return book.undo();
+    }
+}
@@ -0,0 +1,157 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The undo and redo history of the grade book: the last {@value #DEFAULT_CAPACITY}
+ * writes, each kept as a small command that knows how to take itself back and
+ * do itself again.
+ *
+ * Commands sit in a ring buffer, so recording one when the log is full just
+ * overwrites the oldest, and undo or redo only moves a cursor. Writes made
+ * between {@link #begin} and {@link #end} are kept as one batch, which undo
+ * and redo treat as a single entry. Recording after an undo drops what could
+ * have been redone.
+ *
+ * The log does not lock; {@link GradeBook} only touches it under its write lock.
+ */
+final class CommandLog {
+
+    static final int DEFAULT_CAPACITY = 100;
+
+    /** One write, able to take itself back and do itself again. */
+    interface Command {
+        void undo();
+
+        void redo();
+
+        /** What the write did, for the undo and redo buttons: "Remove Ada Lovelace". */
+        String description();
+    }
+
+    private final Command[] ring;
+    private int oldest;
+    private int undoable;
+    private int redoable;
+
+    // Set while a batch is open; commands go into it instead of the ring
+    private Batch open;
+    private int depth;
+
+    CommandLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    CommandLog(int capacity) {
+        ring = new Command[capacity];
+    }
+
+    void record(Command command) {
+        if (open != null) {
+            open.commands.add(command);
+            return;
+        }
+        for (int i = 0; i < redoable; i++) ring[slot(undoable + i)] = null;
+        redoable = 0;
+        if (undoable == ring.length) {
+            ring[oldest] = command;
+            oldest = slot(1);
+        } else {
+            ring[slot(undoable++)] = command;
+        }
+    }
+
+    /** Starts a batch, or a batch inside the one already open, which joins it. */
+    void begin(String description) {
+        if (depth++ == 0) open = new Batch(description);
+    }
+
+    /** Ends the batch begun last; once the outermost one ends, it is recorded as one entry. */
+    void end() {
+        if (--depth > 0) return;
+        Batch batch = open;
+        open = null;
+        if (batch.commands.size() == 1 && batch.description == null) record(batch.commands.get(0));
+        else if (!batch.commands.isEmpty()) record(batch);
+    }
+
+    /**
+     * Ends the outermost batch, recording {@code instead} in its place when
+     * the batch did anything: for a batch whose net effect one command can
+     * take back more cheaply than its writes one by one.
+     */
+    void endWith(Command instead) {
+        if (--depth > 0) return;
+        Batch batch = open;
+        open = null;
+        if (!batch.commands.isEmpty()) record(instead);
+    }
+
+    /** Takes back the last write, or batch, still done; false if there is none. */
+    boolean undo() {
+        if (undoable == 0) return false;
+        Command command = ring[slot(undoable - 1)];
+        command.undo();
+        undoable--;
+        redoable++;
+        return true;
+    }
+
+    /** Does the last undone write, or batch, again; false if there is none. */
+    boolean redo() {
+        if (redoable == 0) return false;
+        Command command = ring[slot(undoable)];
+        command.redo();
+        undoable++;
+        redoable--;
+        return true;
+    }
+
+    /** What {@link #undo()} would take back, or null. */
+    String undoDescription() {
+        return undoable == 0 ? null : ring[slot(undoable - 1)].description();
+    }
+
+    /** What {@link #redo()} would do again, or null. */
+    String redoDescription() {
+        return redoable == 0 ? null : ring[slot(undoable)].description();
+    }
+
+    void clear() {
+        Arrays.fill(ring, null);
+        oldest = 0;
+        undoable = 0;
+        redoable = 0;
+    }
+
+    private int slot(int fromOldest) {
+        return (oldest + fromOldest) % ring.length;
+    }
+
+    // Taken back last write first, done again in the order it happened
+    private static final class Batch implements Command {
+        final String description;
+        final List<Command> commands = new ArrayList<>();
+
+        Batch(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public void undo() {
+            for (int i = commands.size() - 1; i >= 0; i--) commands.get(i).undo();
+        }
+
+        @Override
+        public void redo() {
+            for (Command command : commands) command.redo();
+        }
+
+        @Override
+        public String description() {
+            return description != null ? description : commands.get(commands.size() - 1).description();
+        }
+    }
+}
@@ -0,0 +1,951 @@
+package miniproject2_final.studentgradetracker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The tracker without its window: the roster together with the running
+ * statistics and the search index that follow it.
+ *
+ * Every method is safe to call from any thread, and any number of threads
+ * may write at once. Writers take turns on a short lock that covers only the
+ * table, statistics and index update; batches go in under one turn. After
+ * each write the grade book publishes a new frozen snapshot of the roster
+ * with its statistics, so readers never lock: they see the last published
+ * state in full, never half of a write, and anything slow (search, reports)
+ * simply keeps using the snapshot it started with.
+ *
+ * The JavaFX window follows the grade book through a {@link ChangeFeed},
+ * which collects what happened between two frames into one batch.
+ *
+ * Orderings of the roster by grade, name, major or date are kept up to date
+ * with every write once someone has asked for them ({@link #ordered}); the
+ * roster itself stays in the order students were added.
+ *
+ * Reports, per-major aggregates and search results are cached against the
+ * version of the snapshot they were computed from, so asking again before
+ * the roster changes costs nothing.
+ *
+ * Besides each student's current grade the grade book keeps a {@link GradeHistory}
+ * of every grade given, across courses and terms, for range queries, trends
+ * and the progression over time.
+ *
+ * Adds, removes and clears can be undone and redone ({@link #undo},
+ * {@link #redo}); the last {@value CommandLog#DEFAULT_CAPACITY} are kept in a
+ * {@link CommandLog}, each as a small command rather than a copy of the
+ * roster. Removed students keep their grade history for the undo to put
+ * back. A {@link #transaction} groups many writes into one that the window
+ * refreshes for once and undo takes back in one step. A clear sets the roster
+ * aside instead of dropping it, so its undo is instant at any size; the
+ * students stay in memory until the clear drops out of the log.
+ */
+public final class GradeBook {
+
+    private static final long CACHE_BYTES = 64L * 1024 * 1024;
+    // Larger rosters make reports of tens of megabytes; those are rendered each time
+    private static final int MAX_CACHED_REPORT_ROWS = 50_000;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Swapped whole by a clear and its undo (see Contents)
+    private StudentTable table = new StudentTable();
+    private GradeStatistics statistics = new GradeStatistics();
+    private Map<String, GradeStatistics> statisticsByMajor = new HashMap<>();
+    private boolean majorsChanged;
+    // Searches read it without the lock
+    private volatile SearchIndex searchIndex = new SearchIndex();
+    private GradeHistory history = new GradeHistory();
+    private final List<ChangeFeed> feeds = new CopyOnWriteArrayList<>();
+    private final CommandLog commands = new CommandLog();
+    private volatile String undoDescription;
+    private volatile String redoDescription;
+    // Inside a transaction, what the change feeds get once it ends
+    private int transactionDepth;
+    private final List<List<Change>> heldChanges = new ArrayList<>();
+    private final List<State> heldStates = new ArrayList<>();
+    private final ResultCache cache = new ResultCache(CACHE_BYTES);
+    // Null until first asked for, then maintained by every write
+    private final RosterOrder[] orders = new RosterOrder[RosterOrder.Key.values().length];
+    // Last distribution computed per major and bin width
+    private final Map<String, GradeDistribution> distributions = new ConcurrentHashMap<>();
+
+    private volatile State state = new State(table.snapshot(), GradeSummary.of(statistics), orders.clone(),
+            Collections.emptyList(), history.snapshot());
+
+    // ---- Writes ----
+
+    /**
+     * Validates raw field text the way the entry form does and adds the student.
+     * Throws IllegalArgumentException carrying the message to show the user.
+     */
+    public Student add(String name, String gradeText, String major) {
+        Student student = StudentValidator.parse(name, gradeText, major);
+        add(student);
+        return student;
+    }
+
+    public void add(Student student) {
+        addAll(Collections.singletonList(student));
+    }
+
+    public void addAll(Collection<? extends Student> students) {
+        if (students.isEmpty()) return;
+        writeLock.lock();
+        try {
+            int from = table.size();
+            Contents before = from == 0 ? emptyContents() : null;
+            append(students, null);
+            String description = students.size() == 1
+                    ? "Add " + students.iterator().next().getName() : "Add " + students.size() + " students";
+            // Into an empty roster, undo just puts the empty one back
+            record(before != null ? new Swap(description, before) : new Added(description, from, table.size()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Removes the student with the same id; returns false if there was none. */
+    public boolean remove(Student student) {
+        writeLock.lock();
+        try {
+            int index = table.indexOf(student.getId());
+            if (index < 0) return false;
+            int[] rows = {index};
+            record(new Removed("Remove " + student.getName(), rows, removeRows(rows, 1)));
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every listed student that is still there, matched by id, as one
+     * write that readers and the window see as a single batch. Returns how
+     * many were removed.
+     */
+    public int removeAll(Collection<? extends Student> students) {
+        writeLock.lock();
+        try {
+            int[] rows = new int[students.size()];
+            int count = 0;
+            for (Student student : students) {
+                int index = table.indexOf(student.getId());
+                if (index >= 0) rows[count++] = index;
+            }
+            if (count == 0) return 0;
+            Arrays.sort(rows, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || rows[i] != rows[distinct - 1]) rows[distinct++] = rows[i];
+            }
+
+            rows = Arrays.copyOf(rows, distinct);
+            Taken removed = removeRows(rows, distinct);
+            record(new Removed(distinct == 1 ? "Remove " + removed.students.get(0).getName()
+                    : "Remove " + distinct + " students", rows, removed));
+            return distinct;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Empties the roster. The students are set aside rather than dropped, so an undo puts them back at once. */
+    public void clear() {
+        writeLock.lock();
+        try {
+            if (table.size() == 0) return;
+            int count = table.size();
+            Contents before = exchange(emptyContents());
+            record(new Swap(count == 1 ? "Clear 1 student" : "Clear " + count + " students", before));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a grade to a student's history: one assessment of {@code course} in
+     * {@code term}, given at {@code at}. The student's current grade stays as it
+     * is. Throws IllegalArgumentException if the student is not in the roster
+     * or the grade is not between 0 and 100.
+     */
+    public void recordGrade(Student student, String course, String term, double grade, LocalDateTime at) {
+        recordGrades(Collections.singletonList(new RecordedGrade(student, course, term, grade, at)));
+    }
+
+    /**
+     * Adds many grades to the history at once, such as those saved with the
+     * roster, in one write. Checks every grade first, as {@link #recordGrade}
+     * does, and adds none if any of them fails.
+     */
+    void recordGrades(Collection<RecordedGrade> grades) {
+        if (grades.isEmpty()) return;
+        for (RecordedGrade entry : grades) {
+            double grade = entry.getGrade();
+            if (!(grade >= 0 && grade <= 100)) throw new IllegalArgumentException(StudentValidator.GRADE_OUT_OF_RANGE);
+        }
+        writeLock.lock();
+        try {
+            Student[] students = new Student[grades.size()];
+            int i = 0;
+            for (RecordedGrade entry : grades) {
+                int index = table.indexOf(entry.getStudent().getId());
+                if (index < 0) throw new IllegalArgumentException("Not in the roster: " + entry.getStudent().getName());
+                students[i++] = table.get(index);
+            }
+            i = 0;
+            for (RecordedGrade entry : grades) {
+                history.add(students[i++], entry.getCourse(), entry.getTerm(), entry.getGrade(),
+                        Student.epochNanos(entry.getAt()));
+            }
+            // The roster is unchanged, so there is nothing for the change feeds
+            state = newState();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** The scheme that grades are put in letters and bands by. */
+    public GradingScheme gradingScheme() {
+        return state.rows.gradingScheme();
+    }
+
+    /**
+     * Grades the roster by {@code scheme} from now on, looking every student's
+     * letter up again in one parallel pass. Band counts, pass rates and
+     * reports follow at once. Not undoable; the roster itself is unchanged.
+     */
+    public void setGradingScheme(GradingScheme scheme) {
+        writeLock.lock();
+        try {
+            if (scheme.equals(table.gradingScheme())) return;
+            regrade(scheme);
+            // No row moved, but the feeds still get a step so they move on to the regraded rows
+            publish(Collections.emptyList());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void regrade(GradingScheme scheme) {
+        long[][] countsByMajorCode = table.regrade(scheme);
+        List<String> majorTable = table.snapshot().majorTable();
+        long[] overall = new long[scheme.letterCount()];
+        for (int code = 0; code < countsByMajorCode.length; code++) {
+            long[] counts = countsByMajorCode[code];
+            for (int letter = 0; letter < overall.length; letter++) overall[letter] += counts[letter];
+            GradeStatistics major = statisticsByMajor.get(majorTable.get(code));
+            if (major != null) major.regrade(scheme, counts);
+        }
+        statistics.regrade(scheme, overall);
+        distributions.clear();
+    }
+
+    // ---- Undo and redo ----
+
+    /** The writes of one {@link #transaction}. */
+    @FunctionalInterface
+    public interface Writes<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Runs {@code writes} as one transaction: other writers wait until it ends,
+     * the change feeds (and so the window) get all of it at once when it does,
+     * and undo and redo take it back or do it again as a whole, under
+     * {@code description}. Transactions may nest; the inner ones join the outer.
+     * The write lock is held for all of {@code writes}, so slow work such as
+     * reading and parsing a file belongs before it, with just the writes inside.
+     */
+    public <T, E extends Exception> T transaction(String description, Writes<T, E> writes) throws E {
+        writeLock.lock();
+        boolean outermost = transactionDepth++ == 0;
+        Contents before = outermost && table.size() == 0 ? emptyContents() : null;
+        commands.begin(description);
+        try {
+            return writes.run();
+        } finally {
+            // Filling an empty roster is taken back by putting the empty one back
+            if (before != null && table.size() > 0) commands.endWith(new Swap(description, before));
+            else commands.end();
+            describeUndo();
+            if (--transactionDepth == 0) releaseHeld();
+            writeLock.unlock();
+        }
+    }
+
+    /** Takes back the last write or transaction; returns false if there was none. */
+    public boolean undo() {
+        return replay(true);
+    }
+
+    /** Does the last undone write or transaction again; returns false if there was none. */
+    public boolean redo() {
+        return replay(false);
+    }
+
+    /** What {@link #undo()} would take back, such as "Remove Ada Lovelace", or null if nothing. */
+    public String undoDescription() {
+        return undoDescription;
+    }
+
+    /** What {@link #redo()} would do again, or null if nothing. */
+    public String redoDescription() {
+        return redoDescription;
+    }
+
+    /** Forgets every write so far, as after loading the saved roster. */
+    public void clearUndo() {
+        writeLock.lock();
+        try {
+            commands.clear();
+            describeUndo();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean replay(boolean undo) {
+        writeLock.lock();
+        try {
+            if (transactionDepth > 0) throw new IllegalStateException("Cannot undo or redo inside a transaction");
+            transactionDepth++;
+            try {
+                return undo ? commands.undo() : commands.redo();
+            } finally {
+                describeUndo();
+                transactionDepth--;
+                releaseHeld();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void record(CommandLog.Command command) {
+        commands.record(command);
+        describeUndo();
+    }
+
+    private void describeUndo() {
+        undoDescription = commands.undoDescription();
+        redoDescription = commands.redoDescription();
+    }
+
+    // ---- Writes the commands replay; none of them records itself ----
+
+    // With the history they had when taken out, or as new students when it is null
+    private void append(Collection<? extends Student> students, GradeHistory.Dropped entries) {
+        int from = table.size();
+        for (Student student : students) {
+            remember(student, table.add(table.size(), student));
+        }
+        if (entries == null) history.addAll(students);
+        else history.restore(entries);
+        for (int key = 0; key < orders.length; key++) {
+            if (orders[key] != null) orders[key] = orders[key].withAll(students);
+        }
+        publish(Collections.singletonList(Change.added(from, table.size())));
+    }
+
+    // Puts students back at the rows they were removed from, given in ascending order, with their history
+    private void insertRows(int[] rows, Taken taken) {
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            Student student = taken.students.get(i);
+            remember(student, table.add(rows[i], student));
+            Change previous = changes.isEmpty() ? null : changes.get(changes.size() - 1);
+            if (previous != null && previous.to == rows[i]) {
+                changes.set(changes.size() - 1, Change.added(previous.from, rows[i] + 1));
+            } else {
+                changes.add(Change.added(rows[i], rows[i] + 1));
+            }
+        }
+        history.restore(taken.entries);
+        for (int key = 0; key < orders.length; key++) {
+            if (orders[key] != null) orders[key] = orders[key].withAll(taken.students);
+        }
+        publish(changes);
+    }
+
+    // Rows in ascending order, without repeats
+    private Taken removeRows(int[] rows, int count) {
+        List<Student> removed = table.removeRows(rows, count);
+        // Adjacent rows read as one range, last range first so the earlier rows keep their index
+        List<Change> changes = new ArrayList<>();
+        for (int end = count; end > 0; ) {
+            int start = end - 1;
+            while (start > 0 && rows[start - 1] == rows[start] - 1) start--;
+            changes.add(Change.removed(rows[start], removed.subList(start, end)));
+            end = start;
+        }
+        Taken taken = new Taken(removed, forget(removed));
+        publish(changes);
+        return taken;
+    }
+
+    private Taken removeRange(int from, int to) {
+        StudentTable.Snapshot removed = table.removeRange(from, to);
+        Taken taken = new Taken(removed, forget(removed));
+        publish(Collections.singletonList(Change.removed(from, removed)));
+        return taken;
+    }
+
+    /**
+     * Puts {@code replacement} in place of the roster and everything that
+     * follows it, and returns what was there, in O(1) whatever the size:
+     * only the orderings someone asked for since {@code replacement} was set
+     * aside are sorted afresh.
+     */
+    private Contents exchange(Contents replacement) {
+        Contents current = new Contents(table, statistics, statisticsByMajor, searchIndex, history, orders.clone());
+        StudentTable.Snapshot removed = table.snapshot();
+
+        table = replacement.table;
+        statistics = replacement.statistics;
+        statisticsByMajor = replacement.statisticsByMajor;
+        history = replacement.history;
+        // Versions only go up, so caches keyed by them never mistake one roster for the other
+        table.continueAfter(current.table.version());
+        history.continueAfter(current.history.version());
+        // Snapshots of the roster being set aside are not in the index coming in
+        replacement.searchIndex.coverFrom(table.version());
+        searchIndex = replacement.searchIndex;
+        // Set aside under a scheme since replaced
+        if (!table.gradingScheme().equals(current.table.gradingScheme())) regrade(current.table.gradingScheme());
+        for (int key = 0; key < orders.length; key++) {
+            if (replacement.orders[key] != null) orders[key] = replacement.orders[key];
+            else if (orders[key] != null) orders[key] = RosterOrder.of(RosterOrder.Key.values()[key], table.snapshot());
+        }
+        majorsChanged = true;
+
+        List<Change> changes = new ArrayList<>(2);
+        if (!removed.isEmpty()) changes.add(Change.removed(0, removed));
+        if (table.size() > 0) changes.add(Change.added(0, table.size()));
+        publish(changes);
+        return current;
+    }
+
+    private Contents emptyContents() {
+        RosterOrder[] cleared = new RosterOrder[orders.length];
+        for (int key = 0; key < orders.length; key++) {
+            if (orders[key] != null) cleared[key] = orders[key].cleared();
+        }
+        GradingScheme scheme = table.gradingScheme();
+        return new Contents(new StudentTable(scheme), new GradeStatistics(scheme), new HashMap<>(), new SearchIndex(),
+                new GradeHistory(), cleared);
+    }
+
+    // The letter is the one the table gave the row
+    private void remember(Student student, int letter) {
+        statistics.add(student.getGrade(), letter);
+        GradeStatistics major = statisticsByMajor.computeIfAbsent(student.getMajor(),
+                k -> new GradeStatistics(GradeStatistics.MAJOR_SCALE, table.gradingScheme()));
+        major.add(student.getGrade(), letter);
+        if (major.count() == 1) majorsChanged = true;
+        searchIndex.add(student);
+    }
+
+    private GradeHistory.Dropped forget(List<Student> students) {
+        for (Student student : students) {
+            statistics.remove(student.getGrade());
+            GradeStatistics major = statisticsByMajor.get(student.getMajor());
+            major.remove(student.getGrade());
+            if (major.isEmpty()) {
+                statisticsByMajor.remove(student.getMajor());
+                majorsChanged = true;
+            }
+            for (int key = 0; key < orders.length; key++) {
+                if (orders[key] != null) orders[key] = orders[key].without(student);
+            }
+        }
+        // Older snapshots still hold these students; from now on searching them means checking every row
+        searchIndex.coverFrom(table.version());
+        searchIndex.removeAll(students);
+        return history.removeAll(students);
+    }
+
+    // Called with the write lock held, so feeds see changes in the order they happened
+    private void publish(List<Change> changes) {
+        State next = newState();
+        state = next;
+        if (transactionDepth > 0) {
+            heldChanges.add(changes);
+            heldStates.add(next);
+            return;
+        }
+        for (ChangeFeed feed : feeds) feed.record(changes, next);
+    }
+
+    private void releaseHeld() {
+        for (int i = 0; i < heldChanges.size(); i++) {
+            for (ChangeFeed feed : feeds) feed.record(heldChanges.get(i), heldStates.get(i));
+        }
+        heldChanges.clear();
+        heldStates.clear();
+    }
+
+    private State newState() {
+        StudentTable.Snapshot rows = table.snapshot();
+        RosterOrder[] published = new RosterOrder[orders.length];
+        for (int key = 0; key < orders.length; key++) {
+            if (orders[key] != null) published[key] = orders[key] = orders[key].at(rows.version());
+        }
+        List<String> majors = state.majors;
+        if (majorsChanged) {
+            List<String> sorted = new ArrayList<>(statisticsByMajor.keySet());
+            Collections.sort(sorted);
+            majors = Collections.unmodifiableList(sorted);
+            majorsChanged = false;
+        }
+        return new State(rows, GradeSummary.of(statistics), published, majors, history.snapshot());
+    }
+
+    // ---- Reads ----
+
+    public int size() {
+        return state.rows.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public Student get(int index) {
+        return state.rows.get(index);
+    }
+
+    /** The student with this id, or null if there is none. */
+    public Student find(long id) {
+        StudentTable.Snapshot rows = state.rows;
+        int index = rows.indexOfId(id);
+        return index < 0 ? null : rows.get(index);
+    }
+
+    /** Every student, in roster order, as a list that later changes do not affect. */
+    public List<Student> students() {
+        return state.rows;
+    }
+
+    StudentTable.Snapshot snapshot() {
+        return state.rows;
+    }
+
+    public GradeSummary statistics() {
+        return state.summary;
+    }
+
+    /** Majors that have at least one student, alphabetically. */
+    public List<String> majors() {
+        return state.majors;
+    }
+
+    /**
+     * Median, percentiles, spread and a histogram of {@code binWidth}-wide bins
+     * for one major's grades, or everyone's when {@code major} is null. Read
+     * from counts every write keeps up to date, so it costs the same for ten
+     * students or ten million; per major, grades are counted rounded down to 0.1.
+     */
+    public GradeDistribution distribution(String major, double binWidth) {
+        if (!(binWidth > 0 && binWidth <= 100)) {
+            throw new IllegalArgumentException("Bin width must be more than 0 and at most 100: " + binWidth);
+        }
+        String variant = (major == null ? "" : "major:" + major) + "/" + binWidth;
+        GradeDistribution last = distributions.get(variant);
+        if (last != null && last.version() == state.rows.version()) return last;
+
+        // The counts belong to the writers. Rather than wait out a long batch, hand back the
+        // previous figures, or the published rows counted afresh the first time; the batch's
+        // own publish will prompt the caller to ask again.
+        if (!writeLock.tryLock()) {
+            if (last != null) return last;
+            StudentTable.Snapshot rows = state.rows;
+            GradeDistribution counted = GradeDistribution.of(count(rows, major), binWidth, rows.version());
+            distributions.putIfAbsent(variant, counted);
+            return counted;
+        }
+        try {
+            GradeStatistics counts = major == null ? statistics : statisticsByMajor.get(major);
+            if (counts == null) counts = new GradeStatistics(GradeStatistics.MAJOR_SCALE, table.gradingScheme());
+            GradeDistribution next = GradeDistribution.of(counts, binWidth, table.version());
+            distributions.put(variant, next);
+            return next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // The figures of one major, or everyone's, counted from the rows one by one
+    private static GradeStatistics count(StudentTable.Snapshot rows, String major) {
+        GradeStatistics counts = major == null ? new GradeStatistics(rows.gradingScheme())
+                : new GradeStatistics(GradeStatistics.MAJOR_SCALE, rows.gradingScheme());
+        int code = major == null ? -1 : rows.majorTable().indexOf(major);
+        if (major != null && code < 0) return counts;
+        rows.scan(0, rows.size(), (index, grade, majorCode, letter) -> {
+            if (code < 0 || majorCode == code) counts.add(grade, letter);
+        });
+        return counts;
+    }
+
+    /** Goes up with every write; two equal versions mean the same roster. */
+    public long version() {
+        return state.rows.version();
+    }
+
+    /**
+     * The roster sorted by {@code key}. The first call sorts it once; from then
+     * on every write keeps it sorted, so later calls cost nothing.
+     */
+    RosterOrder ordered(RosterOrder.Key key) {
+        RosterOrder order = state.orders[key.ordinal()];
+        if (order != null) return order;
+        writeLock.lock();
+        try {
+            if (orders[key.ordinal()] == null) {
+                orders[key.ordinal()] = RosterOrder.of(key, table.snapshot());
+                state = newState();
+            }
+            return state.orders[key.ordinal()];
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Students whose name or major contains the query, ignoring case, in roster order. */
+    public List<Student> search(String query) {
+        String normalized = Student.normalize(query.trim());
+        if (normalized.isEmpty()) return students();
+        return search(normalized, snapshot(), () -> false);
+    }
+
+    /**
+     * Searches a snapshot taken earlier. The index answers while it still
+     * holds every row of the snapshot; once students of it have been removed,
+     * or the roster swapped by a clear or its undo, the rows are checked one
+     * by one instead. The result reads its students from the snapshot as
+     * they are asked for. Throws CancellationException as soon as
+     * {@code cancelled} reports true.
+     */
+    List<Student> search(String normalizedQuery, StudentTable.Snapshot roster, BooleanSupplier cancelled) {
+        String variant = "search:" + normalizedQuery;
+        // Only the row indexes are kept, 4 bytes a match; any snapshot of that version reads them back
+        int[] rows = cache.get(variant, roster.version());
+        if (rows == null) {
+            SearchIndex index = searchIndex;
+            if (roster.version() >= index.coversFrom()) {
+                rows = index.search(normalizedQuery, roster, cancelled);
+                // A removal while it ran may have hidden some of the snapshot's rows
+                if (roster.version() < index.coversFrom()) rows = null;
+            }
+            if (rows == null) rows = SearchIndex.scan(normalizedQuery, roster, cancelled);
+            cache.put(variant, roster.version(), rows, 4L * rows.length + 16 + variant.length() * 2L + 64);
+        }
+        return Collections.unmodifiableList(roster.rows(rows));
+    }
+
+    /**
+     * Average of every grade given to students of {@code major}, or to anyone
+     * when it is null, from {@code from} up to but not including {@code to};
+     * empty if there were none.
+     */
+    public OptionalDouble averageBetween(String major, LocalDateTime from, LocalDateTime to) {
+        GradeHistory.Tally tally = state.history.between(major, Student.epochNanos(from), Student.epochNanos(to));
+        return tally.count() == 0 ? OptionalDouble.empty() : OptionalDouble.of(tally.average());
+    }
+
+    /** Every grade in the student's history, averaged per {@code bucket} of time, with its trend line. */
+    public GradeTrend trend(Student student, Duration bucket) {
+        if (bucket.isNegative() || bucket.isZero()) throw new IllegalArgumentException("Bucket must be positive: " + bucket);
+        // Rows and history from the same state, so they agree however the grade book has moved on since
+        State current = state;
+        int index = current.rows.indexOfId(student.getId());
+        if (index < 0) throw new IllegalArgumentException("Not in the roster: " + student.getName());
+        return current.history.trend(current.rows.get(index), bucket.toNanos());
+    }
+
+    /** Everyone's grades over time in at most {@code buckets} equal stretches, computed once per history version. */
+    GradeHistory.Timeline timeline(int buckets) {
+        GradeHistory.Snapshot entries = state.history;
+        return cache.get("timeline:" + buckets, entries.version(), () -> entries.timeline(buckets),
+                GradeHistory.Timeline::estimatedBytes);
+    }
+
+    /** Writes the "report by major", one line per call of {@code out.append}, each ending in a newline. */
+    public void writeReport(Appendable out) throws IOException {
+        writeReport(text -> out.append(text).append('\n'), Progress.NONE);
+    }
+
+    void writeReport(ReportWriter.LineSink sink, Progress progress) throws IOException {
+        StudentTable.Snapshot rows = snapshot();
+        // Only the figures are cached; the time it was generated is always now
+        List<String> cached = cache.get("report", rows.version());
+        if (cached != null) {
+            for (String line : cached) sink.line(line);
+            progress.update(rows.size(), rows.size());
+        } else {
+            ReportWriter writer = new ReportWriter(rows, aggregate(rows));
+            if (rows.size() > MAX_CACHED_REPORT_ROWS) {
+                writer.writeFigures(sink, progress);
+            } else {
+                List<String> lines = new ArrayList<>();
+                long[] chars = new long[1];
+                writer.writeFigures(text -> {
+                    String line = text.toString();
+                    lines.add(line);
+                    chars[0] += line.length();
+                    sink.line(line);
+                }, progress);
+                cache.put("report", rows.version(), Collections.unmodifiableList(lines),
+                        2 * chars[0] + 48L * lines.size());
+            }
+        }
+        if (!rows.isEmpty()) ReportWriter.writeGenerated(sink);
+    }
+
+    /** Per-major figures for a snapshot, computed once per version. */
+    RosterAggregate aggregate(StudentTable.Snapshot rows) {
+        return cache.get("aggregate", rows.version(), () -> RosterAggregate.of(rows), RosterAggregate::estimatedBytes);
+    }
+
+    // ---- Change feed ----
+
+    /**
+     * Starts collecting changes for one consumer. {@code onFirstChange} runs on
+     * the writing thread whenever a change arrives at an empty feed, which is
+     * the consumer's cue to {@link ChangeFeed#poll()} soon.
+     */
+    ChangeFeed openFeed(Runnable onFirstChange) {
+        ChangeFeed feed = new ChangeFeed(onFirstChange);
+        feeds.add(feed);
+        return feed;
+    }
+
+    void closeFeed(ChangeFeed feed) {
+        feeds.remove(feed);
+    }
+
+    // Everything that follows the roster, set aside whole by a clear so an undo can put it back
+    private static final class Contents {
+        final StudentTable table;
+        final GradeStatistics statistics;
+        final Map<String, GradeStatistics> statisticsByMajor;
+        final SearchIndex searchIndex;
+        final GradeHistory history;
+        final RosterOrder[] orders;
+
+        Contents(StudentTable table, GradeStatistics statistics, Map<String, GradeStatistics> statisticsByMajor,
+                 SearchIndex searchIndex, GradeHistory history, RosterOrder[] orders) {
+            this.table = table;
+            this.statistics = statistics;
+            this.statisticsByMajor = statisticsByMajor;
+            this.searchIndex = searchIndex;
+            this.history = history;
+            this.orders = orders;
+        }
+    }
+
+    // Students taken out of the roster along with their grade history
+    private static final class Taken {
+        final List<Student> students;
+        final GradeHistory.Dropped entries;
+
+        Taken(List<Student> students, GradeHistory.Dropped entries) {
+            this.students = students;
+            this.entries = entries;
+        }
+    }
+
+    // Students appended at rows from..to; undone, they are kept to append again
+    private final class Added implements CommandLog.Command {
+        private final String description;
+        private final int from;
+        private final int to;
+        private Taken undone;
+
+        Added(String description, int from, int to) {
+            this.description = description;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void undo() {
+            undone = removeRange(from, to);
+        }
+
+        @Override
+        public void redo() {
+            append(undone.students, undone.entries);
+            undone = null;
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+    }
+
+    // The grades recorded for the students go with them, and come back on undo
+    private final class Removed implements CommandLog.Command {
+        private final String description;
+        private final int[] rows;
+        private Taken removed;
+
+        Removed(String description, int[] rows, Taken removed) {
+            this.description = description;
+            this.rows = rows;
+            this.removed = removed;
+        }
+
+        @Override
+        public void undo() {
+            insertRows(rows, removed);
+        }
+
+        @Override
+        public void redo() {
+            removed = removeRows(rows, rows.length);
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+    }
+
+    // Trades the roster for one set aside, both ways; clearing a million students undoes as fast as one
+    private final class Swap implements CommandLog.Command {
+        private final String description;
+        private Contents aside;
+
+        Swap(String description, Contents aside) {
+            this.description = description;
+            this.aside = aside;
+        }
+
+        @Override
+        public void undo() {
+            aside = exchange(aside);
+        }
+
+        @Override
+        public void redo() {
+            aside = exchange(aside);
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+    }
+
+    private static final class State {
+        final StudentTable.Snapshot rows;
+        final GradeSummary summary;
+        final RosterOrder[] orders;
+        final List<String> majors;
+        final GradeHistory.Snapshot history;
+
+        State(StudentTable.Snapshot rows, GradeSummary summary, RosterOrder[] orders, List<String> majors,
+              GradeHistory.Snapshot history) {
+            this.rows = rows;
+            this.summary = summary;
+            this.orders = orders;
+            this.majors = majors;
+            this.history = history;
+        }
+    }
+
+    /** One write: rows added or rows removed. */
+    static final class Change {
+        final int from;
+        final int to;
+        final List<Student> removed;
+
+        private Change(int from, int to, List<Student> removed) {
+            this.from = from;
+            this.to = to;
+            this.removed = removed;
+        }
+
+        static Change added(int from, int to) {
+            return new Change(from, to, Collections.emptyList());
+        }
+
+        static Change removed(int from, List<Student> removed) {
+            return new Change(from, from, removed);
+        }
+
+        boolean isAdded() { return to > from; }
+    }
+
+    /**
+     * A run of adds and removes together with the roster and its maintained
+     * orderings as they stood right after it. A step with no changes only
+     * brings new figures for the same rows, as after the grading scheme
+     * changed.
+     */
+    static final class Step {
+        final List<Change> changes = new ArrayList<>();
+        StudentTable.Snapshot rows;
+        private RosterOrder[] orders;
+
+        /** The roster sorted by {@code key} after this step, or null if nobody had asked for it yet. */
+        RosterOrder ordered(RosterOrder.Key key) {
+            return orders[key.ordinal()];
+        }
+    }
+
+    /** Everything one consumer has not seen yet. */
+    static final class ChangeFeed {
+        private final Runnable onFirstChange;
+        private List<Step> pending = new ArrayList<>();
+
+        private ChangeFeed(Runnable onFirstChange) {
+            this.onFirstChange = onFirstChange;
+        }
+
+        /** Takes every step collected since the last call, oldest first. */
+        synchronized List<Step> poll() {
+            List<Step> steps = pending;
+            pending = new ArrayList<>();
+            return steps;
+        }
+
+        private void record(List<Change> changes, State state) {
+            boolean first;
+            synchronized (this) {
+                first = pending.isEmpty();
+                for (Change change : changes) append(change);
+                if (pending.isEmpty()) pending.add(new Step());
+                Step last = pending.get(pending.size() - 1);
+                last.rows = state.rows;
+                last.orders = state.orders;
+            }
+            if (first) onFirstChange.run();
+        }
+
+        private void append(Change change) {
+            if (pending.isEmpty()) pending.add(new Step());
+            Step last = pending.get(pending.size() - 1);
+            Change previous = last.changes.isEmpty() ? null : last.changes.get(last.changes.size() - 1);
+            if (previous != null && previous.isAdded() && change.isAdded() && previous.to == change.from) {
+                // Back-to-back appends read as one
+                last.changes.set(last.changes.size() - 1, Change.added(previous.from, change.to));
+            } else {
+                last.changes.add(change);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package miniproject2_final.studentgradetracker;
+
+/**
+ * How the grades of one major, or of everyone, are spread out, as returned by
+ * {@link GradeBook#distribution}: the usual figures, the quartiles and outer
+ * deciles, and a histogram from 0 to 100. It never changes once made.
+ */
+public final class GradeDistribution {
+
+    private final long version;
+    private final long count;
+    private final double average;
+    private final double standardDeviation;
+    private final double lowest;
+    private final double highest;
+    private final double p10;
+    private final double p25;
+    private final double median;
+    private final double p75;
+    private final double p90;
+    private final double passRate;
+    private final double binWidth;
+    private final long[] bins;
+
+    private GradeDistribution(GradeStatistics statistics, double binWidth, long version) {
+        this.version = version;
+        count = statistics.count();
+        average = statistics.average();
+        standardDeviation = statistics.standardDeviation();
+        lowest = statistics.lowest();
+        highest = statistics.highest();
+        p10 = statistics.percentile(10);
+        p25 = statistics.percentile(25);
+        median = statistics.median();
+        p75 = statistics.percentile(75);
+        p90 = statistics.percentile(90);
+        passRate = statistics.passRate();
+        this.binWidth = binWidth;
+        bins = statistics.histogram(binWidth);
+    }
+
+    static GradeDistribution of(GradeStatistics statistics, double binWidth, long version) {
+        return new GradeDistribution(statistics, binWidth, version);
+    }
+
+    // The roster version the figures were read at
+    long version() { return version; }
+
+    public long getCount() { return count; }
+    public boolean isEmpty() { return count == 0; }
+    public double getAverage() { return average; }
+    public double getStandardDeviation() { return standardDeviation; }
+    public double getLowest() { return lowest; }
+    public double getHighest() { return highest; }
+    public double getP10() { return p10; }
+    public double getP25() { return p25; }
+    public double getMedian() { return median; }
+    public double getP75() { return p75; }
+    public double getP90() { return p90; }
+    public double getPassRate() { return passRate; }
+
+    public double getBinWidth() { return binWidth; }
+    public int getBinCount() { return bins.length; }
+
+    /** Lowest grade that falls in the bin. */
+    public double getBinStart(int bin) {
+        return bin * binWidth;
+    }
+
+    /** Students whose grade falls in the bin. */
+    public long getBin(int bin) {
+        return bins[bin];
+    }
+}
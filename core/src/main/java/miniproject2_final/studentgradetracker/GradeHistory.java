@@ -0,0 +1,806 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every grade each student has been given, across courses and terms, in the
+ * order they were given. A student's first entry is the grade and time they
+ * were added with; {@link GradeBook#recordGrade} adds the rest.
+ *
+ * Entries are stored column by column in time-ordered segments: times, ids,
+ * grades and dictionary codes for course, term and major, in primitive
+ * arrays. Once a segment stops growing it keeps totals per major, so a range
+ * query ("average for a major between two dates") adds up the segments
+ * inside the range from their totals and only scans the two at its edges.
+ *
+ * Segments are copy-on-write in the same way as {@link StudentTable}'s:
+ * entries only go in place past the end of the last segment, and anything
+ * landing earlier in time rewrites the segments involved. A
+ * {@link #snapshot()} is therefore the list of segments and their lengths,
+ * and answers queries on any thread while the history moves on.
+ *
+ * Students with more than their first entry also keep a series of their own,
+ * from which their trend is read without touching the segments. A series
+ * only grows past its end too, and each entry carries the version it came
+ * in at, so a snapshot reads just the entries it is meant to see. Series a
+ * removal or clear drops are handed on to the snapshots taken before it
+ * through a chain of {@link Drop}s that only those snapshots hold on to.
+ *
+ * The history has a single writer at a time; {@link GradeBook} sees to that.
+ */
+final class GradeHistory {
+
+    static final int SEGMENT_SIZE = 4096;
+    // Smaller batches landing in the past go in entry by entry, larger ones in one merge pass
+    private static final int MERGE_BATCH = 64;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final Labels majors = new Labels();
+    private final Labels courses = new Labels();
+    private final Labels terms = new Labels();
+    // The entries after each student's first, for students that have any; snapshots read it too
+    private volatile Map<Long, Series> seriesOfId = new ConcurrentHashMap<>();
+    // Where the next series dropped get handed on; every snapshot taken until then holds it
+    private Drop nextDrop = new Drop();
+
+    // Bumped by every write, like the roster's version
+    private long version;
+
+    // ---- Reads ----
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) size += segment.count;
+        return size;
+    }
+
+    long version() {
+        return version;
+    }
+
+    /** Carries on counting versions from past {@code version}, like {@link StudentTable#continueAfter}. */
+    void continueAfter(long version) {
+        this.version = Math.max(this.version, version) + 1;
+    }
+
+    /** The current entries, frozen; later writes do not show up in it. */
+    Snapshot snapshot() {
+        Segment[] frozen = segments.toArray(new Segment[0]);
+        int[] lengths = new int[frozen.length];
+        for (int s = 0; s < frozen.length; s++) lengths[s] = frozen[s].count;
+        return new Snapshot(seriesOfId, nextDrop, frozen, lengths, majors.values, majors.count, version);
+    }
+
+    /** Every entry of one student, bucketed by {@code bucketNanos} counted from the epoch. */
+    GradeTrend trend(Student student, long bucketNanos) {
+        return trend(seriesOfId.get(student.getId()), Long.MAX_VALUE, student, bucketNanos);
+    }
+
+    // The student's first entry and those of their series that came in by version upTo, in time order
+    private static GradeTrend trend(Series own, long upTo, Student student, long bucketNanos) {
+        int later = own == null ? 0 : own.countAt(upTo);
+        long[] times = new long[later + 1];
+        double[] grades = new double[later + 1];
+        if (own != null) {
+            System.arraycopy(own.times, 0, times, 0, later);
+            System.arraycopy(own.grades, 0, grades, 0, later);
+        }
+        times[later] = student.getEpochNanos();
+        grades[later] = student.getGrade();
+
+        // Entries mostly come in time order, so an insertion sort has little to move. It is stable, and the
+        // first entry starts out last, so it goes after the entries given at the same time as it
+        for (int i = 1; i <= later; i++) {
+            long time = times[i];
+            double grade = grades[i];
+            int at = i;
+            while (at > 0 && times[at - 1] > time) at--;
+            System.arraycopy(times, at, times, at + 1, i - at);
+            System.arraycopy(grades, at, grades, at + 1, i - at);
+            times[at] = time;
+            grades[at] = grade;
+        }
+        return GradeTrend.of(times, grades, bucketNanos);
+    }
+
+    // ---- Writes ----
+
+    /** Adds each student's first entry. */
+    void addAll(Collection<? extends Student> students) {
+        Batch batch = new Batch(students.size());
+        for (Student student : students) {
+            batch.add(student.getEpochNanos(), student.getId(), student.getGrade(), 0, 0,
+                    majors.code(student.getMajor()));
+        }
+        insert(batch);
+    }
+
+    /** Adds one more entry for a student already in the history. */
+    void add(Student student, String course, String term, double grade, long epochNanos) {
+        Batch batch = new Batch(1);
+        batch.add(epochNanos, student.getId(), grade, courses.code(course), terms.code(term),
+                majors.code(student.getMajor()));
+        insert(batch);
+
+        Series own = seriesOfId.get(student.getId());
+        seriesOfId.put(student.getId(), (own == null ? Series.EMPTY : own).with(epochNanos, grade, version));
+    }
+
+    /**
+     * Drops every entry of the given students and hands them back for
+     * {@link #restore}. Only segments that can hold one of their entries are
+     * rewritten, each run of them in one pass.
+     */
+    Dropped removeAll(Collection<? extends Student> students) {
+        Dropped dropped = new Dropped();
+        LongIntMap gone = new LongIntMap();
+        BitSet touched = new BitSet(segments.size());
+        boolean dropsSeries = false;
+        for (Student student : students) {
+            if (gone.get(student.getId()) >= 0) continue;
+            gone.put(student.getId(), 0);
+            touch(touched, student.getEpochNanos());
+            Series own = seriesOfId.get(student.getId());
+            if (own != null) {
+                for (int i = 0; i < own.count; i++) touch(touched, own.times[i]);
+                dropsSeries = true;
+            }
+        }
+        if (touched.isEmpty()) return dropped;
+        version++;
+        if (dropsSeries) {
+            for (Student student : students) {
+                Series own = seriesOfId.get(student.getId());
+                if (own != null) dropped.series.put(student.getId(), own);
+            }
+            // Handed on before they go, so a snapshot never finds them in neither place
+            handOn(dropped.series);
+            for (Long id : dropped.series.keySet()) seriesOfId.remove(id);
+        }
+
+        List<Segment> kept = new ArrayList<>(segments.size());
+        for (int s = 0; s < segments.size(); ) {
+            if (!touched.get(s)) {
+                kept.add(segments.get(s++));
+                continue;
+            }
+            SegmentWriter out = new SegmentWriter(SEGMENT_SIZE);
+            for (; s < segments.size() && touched.get(s); s++) {
+                Segment segment = segments.get(s);
+                int from = 0;
+                for (int row = 0; row < segment.count; row++) {
+                    if (gone.get(segment.ids[row]) < 0) continue;
+                    out.copy(segment, from, row);
+                    dropped.entries.add(segment.times[row], segment.ids[row], segment.grades[row],
+                            segment.courses[row], segment.terms[row], segment.majors[row]);
+                    from = row + 1;
+                }
+                out.copy(segment, from, segment.count);
+            }
+            kept.addAll(out.finish());
+        }
+        segments.clear();
+        segments.addAll(kept);
+        return dropped;
+    }
+
+    /** Puts back entries {@link #removeAll} dropped from this history, as an undo does. */
+    void restore(Dropped dropped) {
+        insert(dropped.entries);
+        seriesOfId.putAll(dropped.series);
+    }
+
+    void clear() {
+        if (segments.isEmpty()) return;
+        version++;
+        segments.clear();
+        handOn(seriesOfId);
+        seriesOfId = new ConcurrentHashMap<>();
+    }
+
+    private void handOn(Map<Long, Series> series) {
+        Drop drop = nextDrop;
+        drop.series = series;
+        nextDrop = new Drop();
+        drop.next = nextDrop;
+    }
+
+    private void insert(Batch batch) {
+        if (batch.count == 0) return;
+        version++;
+        batch.sortByTime();
+
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last == null || batch.times[0] >= last.lastTime()) {
+            for (int i = 0; i < batch.count; i++) append(batch, i);
+        } else if (batch.count < MERGE_BATCH) {
+            for (int i = 0; i < batch.count; i++) insertOne(batch, i);
+        } else {
+            merge(batch);
+        }
+    }
+
+    // In place, past the end of the last segment where no snapshot looks
+    private void append(Batch batch, int i) {
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last == null || last.count == SEGMENT_SIZE) {
+            if (last != null) last.summarize(majors.count);
+            last = new Segment();
+            segments.add(last);
+        }
+        last.append(batch, i);
+    }
+
+    // Copies the one segment the entry lands in; a full one is split in two halves
+    private void insertOne(Batch batch, int i) {
+        long time = batch.times[i];
+        int s = firstSegmentAfter(time);
+        if (s == segments.size()) {
+            append(batch, i);
+            return;
+        }
+        Segment segment = segments.get(s);
+        int at = firstAfter(segment.times, segment.count, time);
+        SegmentWriter out = new SegmentWriter(segment.count < SEGMENT_SIZE ? SEGMENT_SIZE : SEGMENT_SIZE / 2 + 1);
+        out.copy(segment, 0, at);
+        out.add(batch, i);
+        out.copy(segment, at, segment.count);
+        replace(s, s + 1, out.finish());
+    }
+
+    // Rewrites everything from the first segment the batch reaches into, in one pass
+    private void merge(Batch batch) {
+        int first = firstSegmentAfter(batch.times[0]);
+        SegmentWriter out = new SegmentWriter(SEGMENT_SIZE);
+        int i = 0;
+        for (int s = first; s < segments.size(); s++) {
+            Segment segment = segments.get(s);
+            for (int row = 0; row < segment.count; row++) {
+                // Entries with equal times keep the order they were added in
+                while (i < batch.count && batch.times[i] < segment.times[row]) out.add(batch, i++);
+                out.copy(segment, row);
+            }
+        }
+        while (i < batch.count) out.add(batch, i++);
+        replace(first, segments.size(), out.finish());
+    }
+
+    private void replace(int from, int to, List<Segment> written) {
+        segments.subList(from, to).clear();
+        segments.addAll(from, written);
+    }
+
+    // Marks every segment that may hold an entry at this time
+    private void touch(BitSet touched, long time) {
+        for (int s = firstSegmentReaching(time); s < segments.size() && segments.get(s).times[0] <= time; s++) {
+            touched.set(s);
+        }
+    }
+
+    // First segment whose last entry is later than time, or the segment count
+    private int firstSegmentAfter(long time) {
+        int low = 0;
+        int high = segments.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid).lastTime() > time) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    // First segment whose last entry is at or after time, or the segment count
+    private int firstSegmentReaching(long time) {
+        int low = 0;
+        int high = segments.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid).lastTime() >= time) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    // First of times[0, count) later than time
+    private static int firstAfter(long[] times, int count, long time) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] > time) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    // First of times[0, count) at or after time
+    private static int firstReaching(long[] times, int count, long time) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] >= time) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    /**
+     * Up to SEGMENT_SIZE entries in time order. Entries below {@code count}
+     * never change; new ones are only written past it.
+     */
+    private static final class Segment {
+        final long[] times = new long[SEGMENT_SIZE];
+        final long[] ids = new long[SEGMENT_SIZE];
+        final double[] grades = new double[SEGMENT_SIZE];
+        final int[] courses = new int[SEGMENT_SIZE];
+        final int[] terms = new int[SEGMENT_SIZE];
+        final int[] majors = new int[SEGMENT_SIZE];
+        int count;
+        // Totals of the first totals.rows entries; replaced, never edited, so snapshots may read it
+        Totals totals;
+
+        long lastTime() {
+            return times[count - 1];
+        }
+
+        void append(Batch batch, int i) {
+            write(batch.times[i], batch.ids[i], batch.grades[i], batch.courses[i], batch.terms[i], batch.majors[i]);
+        }
+
+        void copy(Segment source, int row) {
+            write(source.times[row], source.ids[row], source.grades[row], source.courses[row], source.terms[row],
+                    source.majors[row]);
+        }
+
+        // Rows [from, to) of another segment, column by column
+        void copy(Segment source, int from, int to) {
+            int length = to - from;
+            System.arraycopy(source.times, from, times, count, length);
+            System.arraycopy(source.ids, from, ids, count, length);
+            System.arraycopy(source.grades, from, grades, count, length);
+            System.arraycopy(source.courses, from, courses, count, length);
+            System.arraycopy(source.terms, from, terms, count, length);
+            System.arraycopy(source.majors, from, majors, count, length);
+            count += length;
+        }
+
+        private void write(long time, long id, double grade, int course, int term, int major) {
+            times[count] = time;
+            ids[count] = id;
+            grades[count] = grade;
+            courses[count] = course;
+            terms[count] = term;
+            majors[count] = major;
+            count++;
+        }
+
+        void summarize(int majorCount) {
+            totals = new Totals(this, majorCount);
+        }
+    }
+
+    private static final class Totals {
+        final int rows;
+        final double sum;
+        final int[] countByMajor;
+        final double[] sumByMajor;
+
+        Totals(Segment segment, int majorCount) {
+            rows = segment.count;
+            countByMajor = new int[majorCount];
+            sumByMajor = new double[majorCount];
+            double total = 0;
+            for (int row = 0; row < rows; row++) {
+                double grade = segment.grades[row];
+                total += grade;
+                countByMajor[segment.majors[row]]++;
+                sumByMajor[segment.majors[row]] += grade;
+            }
+            sum = total;
+        }
+    }
+
+    // Fills new segments up to a limit and totals them once done
+    private final class SegmentWriter {
+        private final int limit;
+        private final List<Segment> written = new ArrayList<>();
+        private Segment current;
+
+        SegmentWriter(int limit) {
+            this.limit = limit;
+        }
+
+        void copy(Segment source, int row) {
+            room().copy(source, row);
+        }
+
+        void copy(Segment source, int from, int to) {
+            while (from < to) {
+                Segment target = room();
+                int length = Math.min(to - from, limit - target.count);
+                target.copy(source, from, from + length);
+                from += length;
+            }
+        }
+
+        void add(Batch batch, int i) {
+            room().append(batch, i);
+        }
+
+        private Segment room() {
+            if (current == null || current.count == limit) {
+                current = new Segment();
+                written.add(current);
+            }
+            return current;
+        }
+
+        List<Segment> finish() {
+            for (Segment segment : written) segment.summarize(majors.count);
+            return written;
+        }
+    }
+
+    /** Entries on their way in, as columns. */
+    private static final class Batch {
+        long[] times;
+        long[] ids;
+        double[] grades;
+        int[] courses;
+        int[] terms;
+        int[] majors;
+        int count;
+
+        Batch(int capacity) {
+            times = new long[capacity];
+            ids = new long[capacity];
+            grades = new double[capacity];
+            courses = new int[capacity];
+            terms = new int[capacity];
+            majors = new int[capacity];
+        }
+
+        void add(long time, long id, double grade, int course, int term, int major) {
+            if (count == times.length) grow();
+            times[count] = time;
+            ids[count] = id;
+            grades[count] = grade;
+            courses[count] = course;
+            terms[count] = term;
+            majors[count] = major;
+            count++;
+        }
+
+        private void grow() {
+            int capacity = Math.max(16, count * 2);
+            times = Arrays.copyOf(times, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+            courses = Arrays.copyOf(courses, capacity);
+            terms = Arrays.copyOf(terms, capacity);
+            majors = Arrays.copyOf(majors, capacity);
+        }
+
+        // Stable, so equal times keep their order; batches nearly always arrive sorted already
+        void sortByTime() {
+            int i = 1;
+            while (i < count && times[i] >= times[i - 1]) i++;
+            if (i >= count) return;
+
+            Integer[] order = new Integer[count];
+            for (int j = 0; j < count; j++) order[j] = j;
+            Arrays.sort(order, Comparator.comparingLong(j -> times[j]));
+            long[] sortedTimes = new long[count];
+            long[] sortedIds = new long[count];
+            double[] sortedGrades = new double[count];
+            int[] sortedCourses = new int[count];
+            int[] sortedTerms = new int[count];
+            int[] sortedMajors = new int[count];
+            for (int j = 0; j < count; j++) {
+                int from = order[j];
+                sortedTimes[j] = times[from];
+                sortedIds[j] = ids[from];
+                sortedGrades[j] = grades[from];
+                sortedCourses[j] = courses[from];
+                sortedTerms[j] = terms[from];
+                sortedMajors[j] = majors[from];
+            }
+            times = sortedTimes;
+            ids = sortedIds;
+            grades = sortedGrades;
+            courses = sortedCourses;
+            terms = sortedTerms;
+            majors = sortedMajors;
+        }
+    }
+
+    /**
+     * Entries taken out by {@link #removeAll}, still coded against the
+     * history's own labels, so only that history can take them back.
+     */
+    static final class Dropped {
+        private final Batch entries = new Batch(0);
+        private final Map<Long, Series> series = new HashMap<>();
+    }
+
+    /**
+     * Series one removal or clear dropped, for the snapshots taken before it.
+     * Filled in before {@link #next} is set, and only read once it is; the
+     * history holds just the unfilled last one, so a drop goes as soon as the
+     * snapshots that saw what it holds do.
+     */
+    private static final class Drop {
+        Map<Long, Series> series;
+        volatile Drop next;
+    }
+
+    /**
+     * One student's entries after their first, in the order they were given,
+     * each with the history version it came in at. Never changes once made:
+     * {@link #with} writes the new entry past this one's end, where no reader
+     * of it looks, and hands back a longer series over the same arrays.
+     */
+    private static final class Series {
+        static final Series EMPTY = new Series(new long[0], new double[0], new long[0], 0);
+
+        final long[] times;
+        final double[] grades;
+        final long[] versions;
+        final int count;
+
+        private Series(long[] times, double[] grades, long[] versions, int count) {
+            this.times = times;
+            this.grades = grades;
+            this.versions = versions;
+            this.count = count;
+        }
+
+        Series with(long time, double grade, long version) {
+            long[] newTimes = times;
+            double[] newGrades = grades;
+            long[] newVersions = versions;
+            if (count == times.length) {
+                int capacity = Math.max(4, count * 2);
+                newTimes = Arrays.copyOf(times, capacity);
+                newGrades = Arrays.copyOf(grades, capacity);
+                newVersions = Arrays.copyOf(versions, capacity);
+            }
+            newTimes[count] = time;
+            newGrades[count] = grade;
+            newVersions[count] = version;
+            return new Series(newTimes, newGrades, newVersions, count + 1);
+        }
+
+        // How many entries had come in by the given version; versions only go up along the series
+        int countAt(long version) {
+            int at = count;
+            while (at > 0 && versions[at - 1] > version) at--;
+            return at;
+        }
+    }
+
+    /** Strings stored once each, by code; code 0 is the empty string. */
+    private static final class Labels {
+        // Snapshots keep the array they saw; new labels go past their end or into a copy
+        String[] values = new String[16];
+        int count;
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        Labels() {
+            code("");
+        }
+
+        int code(String label) {
+            if (label == null) label = "";
+            Integer code = codes.get(label);
+            if (code != null) return code;
+            if (count == values.length) values = Arrays.copyOf(values, count * 2);
+            values[count] = label;
+            codes.put(label, count);
+            return count++;
+        }
+    }
+
+    /** Entries counted and summed; the average is 0 when there are none. */
+    static final class Tally {
+        private long count;
+        private double sum;
+
+        long count() {
+            return count;
+        }
+
+        double sum() {
+            return sum;
+        }
+
+        double average() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        private void add(double grade) {
+            count++;
+            sum += grade;
+        }
+
+        private void add(long count, double sum) {
+            this.count += count;
+            this.sum += sum;
+        }
+    }
+
+    /** The history cut into equal stretches of time, from the first entry to the last. */
+    static final class Timeline {
+        private final long from;
+        private final long bucketNanos;
+        private final long[] counts;
+        private final double[] sums;
+
+        private Timeline(long from, long bucketNanos, int buckets) {
+            this.from = from;
+            this.bucketNanos = bucketNanos;
+            this.counts = new long[buckets];
+            this.sums = new double[buckets];
+        }
+
+        int buckets() {
+            return counts.length;
+        }
+
+        /** Epoch nanoseconds at which the bucket starts. */
+        long start(int bucket) {
+            return from + bucket * bucketNanos;
+        }
+
+        long bucketNanos() {
+            return bucketNanos;
+        }
+
+        long count(int bucket) {
+            return counts[bucket];
+        }
+
+        double average(int bucket) {
+            return counts[bucket] == 0 ? 0 : sums[bucket] / counts[bucket];
+        }
+
+        long estimatedBytes() {
+            return 16L * counts.length + 64;
+        }
+    }
+
+    /** Frozen view of the history at one moment. */
+    static final class Snapshot {
+        private final Map<Long, Series> seriesOfId;
+        private final Drop drops;
+        private final Segment[] segments;
+        private final int[] lengths;
+        private final String[] majors;
+        private final int majorCount;
+        private final long version;
+        private final int size;
+
+        private Snapshot(Map<Long, Series> seriesOfId, Drop drops, Segment[] segments, int[] lengths, String[] majors,
+                         int majorCount, long version) {
+            this.seriesOfId = seriesOfId;
+            this.drops = drops;
+            this.segments = segments;
+            this.lengths = lengths;
+            this.majors = majors;
+            this.majorCount = majorCount;
+            this.version = version;
+            int total = 0;
+            for (int length : lengths) total += length;
+            this.size = total;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long version() {
+            return version;
+        }
+
+        /**
+         * Every entry of one student as of this snapshot, bucketed by
+         * {@code bucketNanos}, like {@link GradeHistory#trend}, even after the
+         * history has dropped them.
+         */
+        GradeTrend trend(Student student, long bucketNanos) {
+            long id = student.getId();
+            Series own = seriesOfId.get(id);
+            for (Drop drop = drops; own == null && drop.next != null; drop = drop.next) own = drop.series.get(id);
+            return GradeHistory.trend(own, version, student, bucketNanos);
+        }
+
+        /**
+         * Entries of one major, or of everyone when {@code major} is null, given
+         * at or after {@code from} and before {@code to}, in epoch nanoseconds.
+         */
+        Tally between(String major, long from, long to) {
+            Tally tally = new Tally();
+            int code = major == null ? -1 : majorCode(major);
+            if (major != null && code < 0) return tally;
+
+            for (int s = firstReaching(from); s < segments.length && segments[s].times[0] < to; s++) {
+                Segment segment = segments[s];
+                int length = lengths[s];
+                Totals totals = segment.totals;
+                if (totals != null && totals.rows == length
+                        && segment.times[0] >= from && segment.times[length - 1] < to) {
+                    // Wholly inside the range: the totals answer for it
+                    if (code < 0) tally.add(length, totals.sum);
+                    else if (code < totals.countByMajor.length) tally.add(totals.countByMajor[code], totals.sumByMajor[code]);
+                    continue;
+                }
+                int end = GradeHistory.firstReaching(segment.times, length, to);
+                for (int row = GradeHistory.firstReaching(segment.times, length, from); row < end; row++) {
+                    if (code < 0 || segment.majors[row] == code) tally.add(segment.grades[row]);
+                }
+            }
+            return tally;
+        }
+
+        /**
+         * Everyone's entries cut into at most {@code buckets} equal stretches of
+         * time. Segments that fall inside one stretch are added from their totals.
+         */
+        Timeline timeline(int buckets) {
+            if (size == 0) return new Timeline(0, 1, 0);
+            long first = segments[0].times[0];
+            Segment lastSegment = segments[segments.length - 1];
+            long last = lastSegment.times[lengths[segments.length - 1] - 1];
+            long span = last - first + 1;
+            long bucketNanos = Math.max(1, (span + buckets - 1) / buckets);
+            Timeline timeline = new Timeline(first, bucketNanos, (int) ((span + bucketNanos - 1) / bucketNanos));
+
+            for (int s = 0; s < segments.length; s++) {
+                Segment segment = segments[s];
+                int length = lengths[s];
+                Totals totals = segment.totals;
+                int firstBucket = (int) ((segment.times[0] - first) / bucketNanos);
+                int lastBucket = (int) ((segment.times[length - 1] - first) / bucketNanos);
+                if (totals != null && totals.rows == length && firstBucket == lastBucket) {
+                    timeline.counts[firstBucket] += length;
+                    timeline.sums[firstBucket] += totals.sum;
+                    continue;
+                }
+                for (int row = 0; row < length; row++) {
+                    int bucket = (int) ((segment.times[row] - first) / bucketNanos);
+                    timeline.counts[bucket]++;
+                    timeline.sums[bucket] += segment.grades[row];
+                }
+            }
+            return timeline;
+        }
+
+        private int majorCode(String major) {
+            for (int code = 0; code < majorCount; code++) {
+                if (majors[code].equals(major)) return code;
+            }
+            return -1;
+        }
+
+        // First segment whose last entry is at or after time, or the segment count
+        private int firstReaching(long time) {
+            int low = 0;
+            int high = segments.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (segments[mid].times[lengths[mid] - 1] >= time) high = mid;
+                else low = mid + 1;
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.Arrays;
+
+/**
+ * Running aggregate over every grade in the tracker.
+ *
+ * Grades are added and removed one at a time as the roster changes, so the
+ * stats panel and pie chart can read their numbers without rescanning the
+ * students. Count, sum and sum of squares are kept directly; min, max,
+ * median and other percentiles come from a Fenwick tree over grades rounded
+ * down to 0.01 (or another resolution), which gives O(log n) updates,
+ * order-statistic lookups and counts below any grade, so a histogram of any
+ * bin width is one prefix count per bin boundary.
+ *
+ * Band counts and the pass rate come from counts per letter of a
+ * {@link GradingScheme}, kept by the letter ordinal each grade was given.
+ */
+final class GradeStatistics {
+
+    // By default 0.00 .. 100.00 in steps of 0.01
+    static final int DEFAULT_SCALE = 100;
+    // Majors count grades to 0.1, a tenth of the memory of the overall 0.01
+    static final int MAJOR_SCALE = 10;
+
+    private final int scale;
+    private final int slots;
+    private final long[] tree;
+    private GradingScheme scheme;
+    private long[] letterCounts;
+    private long count;
+    private double sum;
+    private double sumOfSquares;
+
+    GradeStatistics() {
+        this(DEFAULT_SCALE, GradingScheme.DEFAULT);
+    }
+
+    GradeStatistics(GradingScheme scheme) {
+        this(DEFAULT_SCALE, scheme);
+    }
+
+    /** Grades are counted rounded down to 1/{@code scale}; 10 keeps 8 KB of counts, 100 keeps 80 KB. */
+    GradeStatistics(int scale, GradingScheme scheme) {
+        this.scale = scale;
+        this.slots = 100 * scale + 1;
+        this.tree = new long[slots + 1];
+        this.scheme = scheme;
+        this.letterCounts = new long[scheme.letterCount()];
+    }
+
+    void add(double grade) {
+        update(grade, scheme.letterOf(grade), 1);
+    }
+
+    /** Adds a grade whose letter ordinal under this scheme is already known. */
+    void add(double grade, int letter) {
+        update(grade, letter, 1);
+    }
+
+    void remove(double grade) {
+        update(grade, scheme.letterOf(grade), -1);
+    }
+
+    void remove(double grade, int letter) {
+        update(grade, letter, -1);
+    }
+
+    void clear() {
+        Arrays.fill(tree, 0);
+        Arrays.fill(letterCounts, 0);
+        count = 0;
+        sum = 0;
+        sumOfSquares = 0;
+    }
+
+    /** Switches to {@code scheme}, with the counts per letter the grades have under it. */
+    void regrade(GradingScheme scheme, long[] letterCounts) {
+        this.scheme = scheme;
+        this.letterCounts = letterCounts.clone();
+    }
+
+    private void update(double grade, int letter, int delta) {
+        count += delta;
+        sum += delta * grade;
+        sumOfSquares += delta * grade * grade;
+        letterCounts[letter] += delta;
+
+        for (int i = slotOf(grade, scale) + 1; i <= slots; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    long count() { return count; }
+
+    boolean isEmpty() { return count == 0; }
+
+    double average() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    double standardDeviation() {
+        if (count == 0) return 0;
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+    }
+
+    double highest() {
+        return count == 0 ? 0 : select(count);
+    }
+
+    double lowest() {
+        return count == 0 ? 0 : select(1);
+    }
+
+    double median() {
+        if (count == 0) return 0;
+        if ((count & 1) == 1) return select(count / 2 + 1);
+        return (select(count / 2) + select(count / 2 + 1)) / 2;
+    }
+
+    /** Nearest-rank percentile, 0 < p <= 100. */
+    double percentile(double p) {
+        if (count == 0) return 0;
+        return select(Math.max(1, (long) Math.ceil(p / 100 * count)));
+    }
+
+    /**
+     * Grades counted in bins of {@code binWidth} from 0 upwards; the last bin
+     * also takes 100, and may be narrower when the width does not divide 100.
+     */
+    long[] histogram(double binWidth) {
+        int binCount = (int) Math.ceil(100 / binWidth - 1e-9);
+        long[] bins = new long[binCount];
+        long below = 0;
+        for (int bin = 0; bin < binCount; bin++) {
+            // Slots below the bin's upper edge; a slot holds grades from its value up to the next
+            int end = bin == binCount - 1 ? slots : Math.min(slots, (int) Math.ceil((bin + 1) * binWidth * scale - 1e-6));
+            long upTo = countBelowSlot(end);
+            bins[bin] = upTo - below;
+            below = upTo;
+        }
+        return bins;
+    }
+
+    double passRate() {
+        if (count == 0) return 0;
+        long passing = 0;
+        for (int letter = 0; letter < letterCounts.length; letter++) {
+            if (scheme.isPassing(letter)) passing += letterCounts[letter];
+        }
+        return passing * 100.0 / count;
+    }
+
+    GradingScheme gradingScheme() {
+        return scheme;
+    }
+
+    long letterCount(int letter) {
+        return letterCounts[letter];
+    }
+
+    long bandCount(int band) {
+        long total = 0;
+        for (int letter = 0; letter < letterCounts.length; letter++) {
+            if (scheme.bandOfLetter(letter) == band) total += letterCounts[letter];
+        }
+        return total;
+    }
+
+    // Grade of the k-th smallest entry (1-based), found by descending the Fenwick tree
+    private double select(long k) {
+        int position = 0;
+        for (int step = Integer.highestOneBit(slots); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= slots && tree[next] < k) {
+                position = next;
+                k -= tree[next];
+            }
+        }
+        return (double) position / scale;
+    }
+
+    // Entries in slots 0 .. slot - 1
+    private long countBelowSlot(int slot) {
+        long total = 0;
+        for (int i = slot; i > 0; i -= i & -i) total += tree[i];
+        return total;
+    }
+
+    /**
+     * The slot of 0 .. 100 * {@code scale} a grade is counted in at
+     * 1/{@code scale}, for every histogram of grades to share. Rounded down, so
+     * a grade never lands in the bin above its own; the epsilon keeps
+     * 79.99 * 100 = 7998.999... in slot 7999.
+     */
+    static int slotOf(double grade, int scale) {
+        return (int) Math.floor(Math.min(100, Math.max(0, grade)) * scale + 1e-6);
+    }
+}
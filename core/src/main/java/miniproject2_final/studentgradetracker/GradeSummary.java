@@ -0,0 +1,63 @@
+package miniproject2_final.studentgradetracker;
+
+/**
+ * The class statistics at one moment, as returned by {@link GradeBook#statistics()}.
+ * Unlike the running aggregate it is read from, it never changes, so it can be
+ * handed to any thread.
+ */
+public final class GradeSummary {
+
+    private final long count;
+    private final double average;
+    private final double standardDeviation;
+    private final double highest;
+    private final double lowest;
+    private final double median;
+    private final double passRate;
+    private final GradingScheme scheme;
+    private final long[] bandCounts;
+    private final long[] letterCounts;
+
+    private GradeSummary(GradeStatistics statistics) {
+        count = statistics.count();
+        average = statistics.average();
+        standardDeviation = statistics.standardDeviation();
+        highest = statistics.highest();
+        lowest = statistics.lowest();
+        median = statistics.median();
+        passRate = statistics.passRate();
+        scheme = statistics.gradingScheme();
+        bandCounts = new long[scheme.bandCount()];
+        for (int band = 0; band < bandCounts.length; band++) bandCounts[band] = statistics.bandCount(band);
+        letterCounts = new long[scheme.letterCount()];
+        for (int letter = 0; letter < letterCounts.length; letter++) letterCounts[letter] = statistics.letterCount(letter);
+    }
+
+    static GradeSummary of(GradeStatistics statistics) {
+        return new GradeSummary(statistics);
+    }
+
+    public long getCount() { return count; }
+    public boolean isEmpty() { return count == 0; }
+    public double getAverage() { return average; }
+    public double getStandardDeviation() { return standardDeviation; }
+    public double getHighest() { return highest; }
+    public double getLowest() { return lowest; }
+    public double getMedian() { return median; }
+    public double getPassRate() { return passRate; }
+
+    /** The scheme the band and letter counts are by. */
+    public GradingScheme getGradingScheme() {
+        return scheme;
+    }
+
+    /** Students in a band of {@link #getGradingScheme()}, 0 for the best. */
+    public long getBandCount(int band) {
+        return bandCounts[band];
+    }
+
+    /** Students with a letter of {@link #getGradingScheme()}, 0 for the best. */
+    public long getLetterCount(int letter) {
+        return letterCounts[letter];
+    }
+}
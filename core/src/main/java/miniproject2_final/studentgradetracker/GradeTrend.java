@@ -0,0 +1,94 @@
+package miniproject2_final.studentgradetracker;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * How one student's grades have moved over time, as returned by
+ * {@link GradeBook#trend}: every entry of their history, averaged per time
+ * bucket, and the straight line that fits them best. It never changes once
+ * made.
+ */
+public final class GradeTrend {
+
+    private static final double NANOS_PER_DAY = 86_400e9;
+
+    private final int count;
+    private final double average;
+    private final double firstGrade;
+    private final double latestGrade;
+    private final double changePerDay;
+    private final long[] bucketStarts;
+    private final double[] bucketAverages;
+    private final int[] bucketCounts;
+
+    private GradeTrend(int count, double average, double firstGrade, double latestGrade, double changePerDay,
+                       long[] bucketStarts, double[] bucketAverages, int[] bucketCounts) {
+        this.count = count;
+        this.average = average;
+        this.firstGrade = firstGrade;
+        this.latestGrade = latestGrade;
+        this.changePerDay = changePerDay;
+        this.bucketStarts = bucketStarts;
+        this.bucketAverages = bucketAverages;
+        this.bucketCounts = bucketCounts;
+    }
+
+    /** From entries in time order; buckets are {@code bucketNanos} wide, counted from the epoch, empty ones left out. */
+    static GradeTrend of(long[] times, double[] grades, long bucketNanos) {
+        int count = times.length;
+        double sum = 0;
+        for (double grade : grades) sum += grade;
+        double average = sum / count;
+
+        // Least squares over days since the first entry
+        double meanDay = 0;
+        for (long time : times) meanDay += (time - times[0]) / NANOS_PER_DAY;
+        meanDay /= count;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < count; i++) {
+            double day = (times[i] - times[0]) / NANOS_PER_DAY - meanDay;
+            covariance += day * (grades[i] - average);
+            variance += day * day;
+        }
+        double changePerDay = variance == 0 ? 0 : covariance / variance;
+
+        long[] starts = new long[count];
+        double[] sums = new double[count];
+        int[] counts = new int[count];
+        int buckets = 0;
+        for (int i = 0; i < count; i++) {
+            long start = Math.floorDiv(times[i], bucketNanos) * bucketNanos;
+            if (buckets == 0 || starts[buckets - 1] != start) starts[buckets++] = start;
+            sums[buckets - 1] += grades[i];
+            counts[buckets - 1]++;
+        }
+        double[] averages = new double[buckets];
+        for (int b = 0; b < buckets; b++) averages[b] = sums[b] / counts[b];
+
+        return new GradeTrend(count, average, grades[0], grades[count - 1], changePerDay,
+                Arrays.copyOf(starts, buckets), averages, Arrays.copyOf(counts, buckets));
+    }
+
+    public int getCount() { return count; }
+    public double getAverage() { return average; }
+    public double getFirstGrade() { return firstGrade; }
+    public double getLatestGrade() { return latestGrade; }
+
+    /** Slope of the best-fit line, in grade points per 30 days; 0 while every entry has the same time. */
+    public double getChangePerMonth() {
+        return changePerDay * 30;
+    }
+
+    public int getBucketCount() { return bucketStarts.length; }
+
+    public LocalDateTime getBucketStart(int bucket) {
+        return Student.dateTime(bucketStarts[bucket]);
+    }
+
+    public double getBucketAverage(int bucket) { return bucketAverages[bucket]; }
+
+    /** How many entries the bucket holds. */
+    public int getBucketEntries(int bucket) { return bucketCounts[bucket]; }
+}
@@ -0,0 +1,239 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How grades are classified: letter grades, each from its cut-off up to the
+ * next one above, grouped into the bands that the pie chart, the student
+ * cards and the report count, and each passing or not.
+ *
+ * A student's letter is looked up once, when the row is added, and kept in
+ * the roster as a small ordinal ({@link StudentTable}); counts, styling, the
+ * report and the pass rate read that ordinal instead of comparing the grade
+ * with every cut-off again. Switching a grade book to another scheme looks
+ * every row up again in one parallel pass ({@link GradeBook#setGradingScheme}).
+ *
+ * Schemes never change once built, so any thread may read one.
+ */
+public final class GradingScheme {
+
+    /** One letter grade: {@code name} for grades from {@code from} up to the next letter's cut-off. */
+    public static final class Letter {
+        private final String name;
+        private final double from;
+        private final String band;
+        private final boolean passing;
+
+        public Letter(String name, double from, String band, boolean passing) {
+            this.name = name;
+            this.from = from;
+            this.band = band;
+            this.passing = passing;
+        }
+
+        public String getName() { return name; }
+        public double getFrom() { return from; }
+        public String getBand() { return band; }
+        public boolean isPassing() { return passing; }
+    }
+
+    /** The tracker's own: four bands, with a pass from 60. */
+    public static final GradingScheme DEFAULT = of(
+            new Letter("A", 90, "Excellent", true),
+            new Letter("B", 80, "Good", true),
+            new Letter("C", 70, "Average", true),
+            new Letter("D", 60, "Needs Improvement", true),
+            new Letter("F", 0, "Needs Improvement", false));
+
+    // Cards and report lines come in this many looks, best first; schemes with more bands share them
+    static final int TONES = 4;
+    // Ordinals are kept in a byte per row
+    private static final int MAX_LETTERS = Byte.MAX_VALUE;
+
+    // Best first; cutOffs[i] == letters[i].from
+    private final Letter[] letters;
+    private final double[] cutOffs;
+    private final int[] bandOfLetter;
+    private final String[] bandLabels;
+
+    private GradingScheme(Letter[] letters) {
+        this.letters = letters;
+        cutOffs = new double[letters.length];
+        bandOfLetter = new int[letters.length];
+        List<String> labels = new ArrayList<>();
+        for (int letter = 0; letter < letters.length; letter++) {
+            cutOffs[letter] = letters[letter].from;
+            boolean sameBand = letter > 0 && letters[letter].band.equals(letters[letter - 1].band);
+            if (!sameBand) labels.add(letters[letter].band);
+            bandOfLetter[letter] = labels.size() - 1;
+        }
+
+        // "Good (80-89)": each band runs from its lowest letter's cut-off to the band above
+        bandLabels = new String[labels.size()];
+        double upper = 100;
+        for (int letter = 0; letter < letters.length; letter++) {
+            int band = bandOfLetter[letter];
+            if (letter + 1 < letters.length && bandOfLetter[letter + 1] == band) continue;
+            double lower = cutOffs[letter];
+            String range;
+            if (band == 0) range = format(lower) + "-100";
+            else if (lower == 0) range = "<" + format(upper);
+            else if (upper == Math.rint(upper)) range = format(lower) + "-" + format(upper - 1);
+            else range = format(lower) + "-<" + format(upper);
+            bandLabels[band] = labels.get(band) + " (" + range + ")";
+            upper = lower;
+        }
+    }
+
+    /**
+     * A scheme of {@code letters}, best first. Cut-offs must go down strictly
+     * and the last one must be 0, letters of one band must be next to each
+     * other, and names must be unique. Throws IllegalArgumentException with a
+     * message for the user otherwise.
+     */
+    public static GradingScheme of(Letter... letters) {
+        if (letters.length == 0) throw new IllegalArgumentException("A grading scheme needs at least one letter.");
+        if (letters.length > MAX_LETTERS) {
+            throw new IllegalArgumentException("A grading scheme can have at most " + MAX_LETTERS + " letters.");
+        }
+        List<String> names = new ArrayList<>();
+        List<String> closedBands = new ArrayList<>();
+        for (int i = 0; i < letters.length; i++) {
+            Letter letter = letters[i];
+            if (letter.name == null || letter.name.isBlank() || letter.band == null || letter.band.isBlank()) {
+                throw new IllegalArgumentException("Every letter needs a name and a band.");
+            }
+            if (names.contains(letter.name)) throw new IllegalArgumentException("Letter " + letter.name + " appears twice.");
+            names.add(letter.name);
+            if (!(letter.from >= 0 && letter.from <= 100)) {
+                throw new IllegalArgumentException("Cut-off of " + letter.name + " must be between 0 and 100.");
+            }
+            if (i > 0 && !(letter.from < letters[i - 1].from)) {
+                throw new IllegalArgumentException("Cut-offs must go down: " + letter.name + " is not below "
+                        + letters[i - 1].name + ".");
+            }
+            if (closedBands.contains(letter.band)) {
+                throw new IllegalArgumentException("Letters of band " + letter.band + " must be next to each other.");
+            }
+            if (i > 0 && !letter.band.equals(letters[i - 1].band)) closedBands.add(letters[i - 1].band);
+        }
+        if (letters[letters.length - 1].from != 0) {
+            throw new IllegalArgumentException("The last letter must start at 0, so every grade gets one.");
+        }
+        return new GradingScheme(letters.clone());
+    }
+
+    /**
+     * Reads a scheme written one letter per line as {@code letter, cut-off,
+     * band, pass|fail}, best first, the way {@link #toString()} writes it.
+     * Blank lines and lines starting with # are skipped. Throws
+     * IllegalArgumentException with a message for the user.
+     */
+    public static GradingScheme parse(String text) {
+        List<Letter> letters = new ArrayList<>();
+        String[] lines = text.split("\\R");
+        for (int number = 1; number <= lines.length; number++) {
+            String line = lines[number - 1].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split(",");
+            if (fields.length != 4) {
+                throw new IllegalArgumentException("Line " + number + ": expected letter, cut-off, band, pass or fail.");
+            }
+            double from;
+            try {
+                from = Double.parseDouble(fields[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + number + ": cut-off is not a number.");
+            }
+            String passing = fields[3].trim().toLowerCase(Locale.ROOT);
+            if (!passing.equals("pass") && !passing.equals("fail")) {
+                throw new IllegalArgumentException("Line " + number + ": expected pass or fail.");
+            }
+            letters.add(new Letter(fields[0].trim(), from, fields[2].trim(), passing.equals("pass")));
+        }
+        return of(letters.toArray(new Letter[0]));
+    }
+
+    // ---- Classifying ----
+
+    /** Ordinal of the letter a grade gets, 0 for the best. */
+    int letterOf(double grade) {
+        int last = cutOffs.length - 1;
+        for (int letter = 0; letter < last; letter++) {
+            if (grade >= cutOffs[letter]) return letter;
+        }
+        return last;
+    }
+
+    /** The band a grade falls in, 0 for the best. Rows of the roster have theirs already ({@link StudentTable.Snapshot#bandAt}). */
+    int bandOf(double grade) {
+        return bandOfLetter[letterOf(grade)];
+    }
+
+    int bandOfLetter(int letter) {
+        return bandOfLetter[letter];
+    }
+
+    /**
+     * Whether a grade of {@code letter} is in the upper half of the best
+     * letter, which the report marks with a trophy: 95 and up by default.
+     */
+    boolean isTopOfBest(int letter, double grade) {
+        return letter == 0 && grade >= (cutOffs[0] + 100) / 2;
+    }
+
+    boolean isPassing(int letter) {
+        return letters[letter].passing;
+    }
+
+    /** Which of the {@value #TONES} looks a band is shown with, 0 for the best. */
+    int toneOf(int band) {
+        return band * TONES / bandLabels.length;
+    }
+
+    // ---- Describing ----
+
+    public int letterCount() {
+        return letters.length;
+    }
+
+    public Letter letter(int letter) {
+        return letters[letter];
+    }
+
+    public int bandCount() {
+        return bandLabels.length;
+    }
+
+    /** The band's name with its range of grades, such as "Good (80-89)". */
+    public String bandLabel(int band) {
+        return bandLabels[band];
+    }
+
+    /** One line per letter, best first, in the form {@link #parse} reads. */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Letter letter : letters) {
+            text.append(letter.name).append(", ").append(format(letter.from)).append(", ")
+                    .append(letter.band).append(", ").append(letter.passing ? "pass" : "fail").append('\n');
+        }
+        return text.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GradingScheme && toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,622 @@
+package miniproject2_final.studentgradetracker;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the roster as a compacted snapshot plus append-only journals.
+ *
+ * Every add, remove and clear, and every grade recorded for a student after
+ * the one they were added with, is appended to the current journal as one
+ * checksummed record, so a crash can at worst leave a torn record at the very
+ * end, which is dropped on the next load. Once the journals grow past the
+ * size of the roster they are folded into a new snapshot: the journal is
+ * rolled first so writes carry on, then the snapshot is written to a temporary
+ * file, synced and moved over the old one, and only then are the journals it
+ * covers deleted. Each journal and snapshot carries a generation number so a
+ * crash at any point in that sequence still loads the right data.
+ *
+ * Recorded grades belong to the student record they were given to, matched
+ * by value like removals. They stay in memory for as long as the repository
+ * is open, so a student put back by an undo gets theirs back too; a snapshot
+ * keeps only those of the students in it.
+ *
+ * Files are read back through memory-mapped buffers, so each file must stay
+ * under 2 GB.
+ */
+final class JournalStudentRepository implements StudentRepository {
+
+    private static final int JOURNAL_MAGIC = 0x53474A4C;   // "SGJL"
+    private static final int SNAPSHOT_MAGIC = 0x5347534E;  // "SGSN"
+    private static final int VERSION = 1;
+    // Version 2 snapshots end with the recorded grades
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int JOURNAL_HEADER_SIZE = 16;
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte CLEAR = 3;
+    private static final byte GRADE = 4;
+
+    private static final long MIN_COMPACTION_RECORDS = 100_000;
+    private static final String SNAPSHOT_FILE = "students.snapshot";
+    private static final String JOURNAL_PREFIX = "students-";
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel journal;
+    private long generation;
+    private long journalRecords;
+    private long liveCount;
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(256);
+    // Every grade recorded for each student record seen since the load, oldest first; arrays are replaced, never changed
+    private Map<RecordKey, Grade[]> grades = new HashMap<>();
+    private List<RecordedGrade> loadedGrades = new ArrayList<>();
+    // Why the last background snapshot failed, until compact or close reports it
+    private IOException snapshotFailure;
+
+    JournalStudentRepository(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized List<Student> load() throws IOException {
+        Files.createDirectories(directory);
+
+        Replay replay = new Replay();
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        long snapshotGeneration = Files.exists(snapshot) ? readSnapshot(snapshot, replay) : 0;
+
+        generation = snapshotGeneration;
+        journalRecords = 0;
+        for (long journalGeneration : journalGenerations()) {
+            Path path = journalPath(journalGeneration);
+            if (journalGeneration < snapshotGeneration) {
+                // Already folded into the snapshot before the last shutdown
+                Files.deleteIfExists(path);
+                continue;
+            }
+            journalRecords += replayJournal(path, journalGeneration, replay);
+            generation = journalGeneration;
+        }
+
+        List<Student> students = replay.result();
+        grades = replay.grades;
+        loadedGrades = replay.recordedGrades(students);
+        liveCount = students.size();
+        journal = openJournal(generation);
+        return students;
+    }
+
+    @Override
+    public synchronized List<RecordedGrade> loadedGrades() {
+        return loadedGrades;
+    }
+
+    @Override
+    public synchronized void add(Student student) throws IOException {
+        append(ADD, student);
+        liveCount++;
+    }
+
+    @Override
+    public synchronized void addAll(List<? extends Student> students) throws IOException {
+        if (students.size() == 1) {
+            add(students.get(0));
+            return;
+        }
+        ByteBuffer batch = ByteBuffer.allocate(Math.max(1 << 16, Math.min(1 << 24, students.size() * 64)));
+        for (Student student : students) {
+            encode(ADD, student, null);
+            if (batch.remaining() < recordBuffer.remaining()) {
+                writeFully(batch.flip());
+                batch.clear();
+            }
+            if (batch.remaining() < recordBuffer.remaining()) writeFully(recordBuffer);
+            else batch.put(recordBuffer);
+        }
+        writeFully(batch.flip());
+        journalRecords += students.size();
+        liveCount += students.size();
+    }
+
+    @Override
+    public synchronized void remove(Student student) throws IOException {
+        append(REMOVE, student);
+        liveCount--;
+    }
+
+    @Override
+    public synchronized void clear() throws IOException {
+        append(CLEAR, null);
+        liveCount = 0;
+    }
+
+    @Override
+    public synchronized void recordGrade(RecordedGrade grade) throws IOException {
+        Grade saved = new Grade(grade.getCourse(), grade.getTerm(), grade.getGrade(), grade.getAt());
+        encode(GRADE, grade.getStudent(), saved);
+        writeFully(recordBuffer);
+        journalRecords++;
+        grades.merge(new RecordKey(grade.getStudent()), new Grade[] {saved}, Grade::concat);
+    }
+
+    @Override
+    public synchronized boolean needsCompaction() {
+        return journalRecords > Math.max(MIN_COMPACTION_RECORDS, liveCount);
+    }
+
+    @Override
+    public synchronized void compact(List<Student> current) throws IOException {
+        reportSnapshotFailure();
+        // Roll the journal now so later writes land after the snapshot's cut-off
+        long snapshotGeneration = generation + 1;
+        journal.close();
+        journal = openJournal(snapshotGeneration);
+        generation = snapshotGeneration;
+        journalRecords = 0;
+        liveCount = current.size();
+        // Later grades go to the new journal, so the snapshot takes the map as it is now
+        Map<RecordKey, Grade[]> gradesNow = grades.isEmpty() ? Map.of() : new HashMap<>(grades);
+
+        snapshotWriter.execute(() -> {
+            try {
+                writeSnapshot(snapshotGeneration, current, gradesNow);
+            } catch (IOException e) {
+                // The journals are still there, so nothing is lost; the next compact or close says so
+                synchronized (this) {
+                    snapshotFailure = e;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotWriter.shutdown();
+        try {
+            snapshotWriter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (journal != null) {
+                journal.force(true);
+                journal.close();
+                journal = null;
+            }
+            reportSnapshotFailure();
+        }
+    }
+
+    // Throws a background snapshot failure once, so the next compaction tries again
+    private void reportSnapshotFailure() throws IOException {
+        IOException failure = snapshotFailure;
+        if (failure == null) return;
+        snapshotFailure = null;
+        throw new IOException("Could not write student snapshot: " + failure.getMessage(), failure);
+    }
+
+    // ---- Journal ----
+
+    private void append(byte type, Student student) throws IOException {
+        encode(type, student, null);
+        writeFully(recordBuffer);
+        journalRecords++;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) journal.write(buffer);
+    }
+
+    // Leaves one complete record, ready to read, in recordBuffer; a grade record is its student's then the grade
+    private void encode(byte type, Student student, Grade grade) {
+        byte[] name = student == null ? null : student.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] major = student == null ? null : student.getMajor().getBytes(StandardCharsets.UTF_8);
+        byte[] course = grade == null ? null : grade.course.getBytes(StandardCharsets.UTF_8);
+        byte[] term = grade == null ? null : grade.term.getBytes(StandardCharsets.UTF_8);
+        int payload = student == null ? 0 : 8 + 4 + 8 + 4 + name.length + 4 + major.length;
+        if (grade != null) payload += 8 + 4 + 8 + 4 + course.length + 4 + term.length;
+
+        int size = 1 + 4 + payload + 4;
+        if (recordBuffer.capacity() < size) recordBuffer = ByteBuffer.allocate(Math.max(size, recordBuffer.capacity() * 2));
+
+        ByteBuffer buffer = recordBuffer;
+        buffer.clear();
+        buffer.put(type).putInt(payload);
+        if (student != null) {
+            LocalDateTime timestamp = student.getTimestamp();
+            buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC)).putInt(timestamp.getNano());
+            buffer.putDouble(student.getGrade());
+            buffer.putInt(name.length).put(name);
+            buffer.putInt(major.length).put(major);
+        }
+        if (grade != null) {
+            buffer.putLong(grade.at.toEpochSecond(ZoneOffset.UTC)).putInt(grade.at.getNano());
+            buffer.putDouble(grade.grade);
+            buffer.putInt(course.length).put(course);
+            buffer.putInt(term.length).put(term);
+        }
+        crc.reset();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+    }
+
+    private FileChannel openJournal(long journalGeneration) throws IOException {
+        Path path = journalPath(journalGeneration);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() < JOURNAL_HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+            header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(journalGeneration).flip();
+            while (header.hasRemaining()) channel.write(header);
+            channel.force(true);
+        }
+        channel.position(channel.size());
+        return channel;
+    }
+
+    // Applies one journal and returns how many records it held
+    private long replayJournal(Path path, long journalGeneration, Replay replay) throws IOException {
+        long validEnd;
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel);
+            if (buffer.limit() < JOURNAL_HEADER_SIZE) {
+                // Crashed while creating it; openJournal writes a fresh header
+                return 0;
+            }
+            if (buffer.getInt() != JOURNAL_MAGIC
+                    || buffer.getInt() != VERSION
+                    || buffer.getLong() != journalGeneration) {
+                throw new IOException("Not a student journal: " + path);
+            }
+
+            validEnd = buffer.position();
+            while (buffer.remaining() >= 1 + 4) {
+                int start = buffer.position();
+                byte type = buffer.get();
+                int payload = buffer.getInt();
+                if (payload < 0 || buffer.remaining() < payload + 4) break;
+
+                ByteBuffer checked = buffer.duplicate();
+                checked.position(start).limit(start + 1 + 4 + payload);
+                crc.reset();
+                crc.update(checked);
+                buffer.position(start + 1 + 4 + payload);
+                if (buffer.getInt() != (int) crc.getValue()) break;
+
+                buffer.position(start + 1 + 4);
+                switch (type) {
+                    case ADD: replay.add(readJournalStudent(buffer)); break;
+                    case REMOVE: replay.remove(readJournalStudent(buffer)); break;
+                    case CLEAR: replay.clear(); break;
+                    case GRADE: replay.grade(readJournalStudent(buffer), readGrade(buffer)); break;
+                    default: throw new IOException("Unknown journal record " + type + " in " + path);
+                }
+                buffer.position(start + 1 + 4 + payload + 4);
+                validEnd = buffer.position();
+                records++;
+            }
+        }
+
+        // Drop a record torn by a crash so new appends follow the last good one
+        if (validEnd < Files.size(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+            }
+        }
+        return records;
+    }
+
+    private static Student readJournalStudent(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        double grade = buffer.getDouble();
+        String name = readString(buffer);
+        String major = readString(buffer);
+        return new Student(name, grade, major, LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+    }
+
+    private static Grade readGrade(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        double grade = buffer.getDouble();
+        String course = readString(buffer);
+        String term = readString(buffer);
+        return new Grade(course, term, grade, LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, JOURNAL_PREFIX + "*" + JOURNAL_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(JOURNAL_PREFIX.length(), name.length() - JOURNAL_SUFFIX.length());
+                try {
+                    generations.add(Long.parseLong(number));
+                } catch (NumberFormatException ignored) {
+                    // Not one of ours
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path journalPath(long journalGeneration) {
+        return directory.resolve(JOURNAL_PREFIX + journalGeneration + JOURNAL_SUFFIX);
+    }
+
+    // ---- Snapshot ----
+
+    private void writeSnapshot(long snapshotGeneration, List<Student> students, Map<RecordKey, Grade[]> grades)
+            throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+
+        // Majors repeat heavily, so each record stores a code into this table
+        Map<String, Integer> majorCodes = new LinkedHashMap<>();
+        for (Student student : students) {
+            majorCodes.putIfAbsent(student.getMajor(), majorCodes.size());
+        }
+
+        CRC32 checksum = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(file, checksum), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(snapshotGeneration);
+
+            out.writeInt(majorCodes.size());
+            for (String major : majorCodes.keySet()) writeString(out, major);
+
+            out.writeLong(students.size());
+            for (Student student : students) {
+                LocalDateTime timestamp = student.getTimestamp();
+                out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(timestamp.getNano());
+                out.writeDouble(student.getGrade());
+                out.writeInt(majorCodes.get(student.getMajor()));
+                writeString(out, student.getName());
+            }
+
+            // Each student's grades after their first, under their row in the list above
+            Grade[][] byRow = new Grade[grades.isEmpty() ? 0 : students.size()][];
+            long gradeCount = 0;
+            for (int row = 0; row < byRow.length; row++) {
+                byRow[row] = grades.get(new RecordKey(students.get(row)));
+                if (byRow[row] != null) gradeCount += byRow[row].length;
+            }
+            out.writeLong(gradeCount);
+            for (int row = 0; row < byRow.length; row++) {
+                Grade[] own = byRow[row];
+                if (own == null) continue;
+                for (Grade grade : own) {
+                    out.writeInt(row);
+                    out.writeLong(grade.at.toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(grade.at.getNano());
+                    out.writeDouble(grade.grade);
+                    writeString(out, grade.course);
+                    writeString(out, grade.term);
+                }
+            }
+            out.flush();
+
+            int value = (int) checksum.getValue();
+            file.write(new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+            file.getChannel().force(true);
+        }
+
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long journalGeneration : journalGenerations()) {
+            if (journalGeneration < snapshotGeneration) Files.deleteIfExists(journalPath(journalGeneration));
+        }
+    }
+
+    // Reads the snapshot into the replay and returns its generation
+    private long readSnapshot(Path path, Replay replay) throws IOException {
+        ArrayList<Student> students = replay.students;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel);
+            int bodyEnd = buffer.limit() - 4;
+            if (bodyEnd < 0) throw new IOException("Student snapshot is truncated: " + path);
+
+            ByteBuffer body = buffer.duplicate();
+            body.limit(bodyEnd);
+            CRC32 checksum = new CRC32();
+            checksum.update(body);
+            if (buffer.getInt(bodyEnd) != (int) checksum.getValue()) {
+                throw new IOException("Student snapshot is corrupt: " + path);
+            }
+
+            int version = buffer.getInt() == SNAPSHOT_MAGIC ? buffer.getInt() : -1;
+            if (version != VERSION && version != SNAPSHOT_VERSION) {
+                throw new IOException("Not a student snapshot: " + path);
+            }
+            long snapshotGeneration = buffer.getLong();
+
+            String[] majors = new String[buffer.getInt()];
+            for (int i = 0; i < majors.length; i++) majors[i] = readString(buffer);
+
+            long count = buffer.getLong();
+            students.ensureCapacity((int) count);
+            for (long i = 0; i < count; i++) {
+                long epochSecond = buffer.getLong();
+                int nano = buffer.getInt();
+                double grade = buffer.getDouble();
+                String major = majors[buffer.getInt()];
+                String name = readString(buffer);
+                students.add(new Student(name, grade, major, LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC)));
+            }
+            long gradeCount = version == VERSION ? 0 : buffer.getLong();
+            for (long i = 0; i < gradeCount; i++) {
+                Student student = students.get(buffer.getInt());
+                replay.grade(student, readGrade(buffer));
+            }
+            return snapshotGeneration;
+        }
+    }
+
+    // ---- Encoding helpers ----
+
+    private static MappedByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) throw new IOException("Student data file is larger than 2 GB");
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private static void writeString(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Rebuilds the roster from journal records, finding removed students by value
+    private static final class Replay {
+        final ArrayList<Student> students = new ArrayList<>();
+        // Kept through removals and clears, like the repository's own, for a student added back later
+        final Map<RecordKey, Grade[]> grades = new HashMap<>();
+        private final BitSet removed = new BitSet();
+        private Map<RecordKey, ArrayDeque<Integer>> positions;
+
+        void add(Student student) {
+            if (positions != null) {
+                positions.computeIfAbsent(new RecordKey(student), k -> new ArrayDeque<>()).add(students.size());
+            }
+            students.add(student);
+        }
+
+        void remove(Student student) {
+            if (positions == null) {
+                // Only built once a journal actually removes someone
+                positions = new HashMap<>();
+                for (int i = 0; i < students.size(); i++) {
+                    if (removed.get(i)) continue;
+                    positions.computeIfAbsent(new RecordKey(students.get(i)), k -> new ArrayDeque<>()).add(i);
+                }
+            }
+            ArrayDeque<Integer> matches = positions.get(new RecordKey(student));
+            if (matches != null && !matches.isEmpty()) removed.set(matches.poll());
+        }
+
+        void clear() {
+            students.clear();
+            removed.clear();
+            positions = null;
+        }
+
+        void grade(Student student, Grade grade) {
+            grades.merge(new RecordKey(student), new Grade[] {grade}, Grade::concat);
+        }
+
+        // The grades of the students left, each under the student as loaded
+        List<RecordedGrade> recordedGrades(List<Student> remaining) {
+            List<RecordedGrade> recorded = new ArrayList<>();
+            if (grades.isEmpty()) return recorded;
+            for (Student student : remaining) {
+                Grade[] own = grades.get(new RecordKey(student));
+                if (own == null) continue;
+                for (Grade grade : own) recorded.add(new RecordedGrade(student, grade.course, grade.term, grade.grade, grade.at));
+            }
+            return recorded;
+        }
+
+        List<Student> result() {
+            if (removed.isEmpty()) return students;
+            List<Student> remaining = new ArrayList<>(students.size() - removed.cardinality());
+            for (int i = 0; i < students.size(); i++) {
+                if (!removed.get(i)) remaining.add(students.get(i));
+            }
+            return remaining;
+        }
+    }
+
+    // A recorded grade as saved, without its student
+    private static final class Grade {
+        final String course;
+        final String term;
+        final double grade;
+        final LocalDateTime at;
+
+        Grade(String course, String term, double grade, LocalDateTime at) {
+            this.course = course;
+            this.term = term;
+            this.grade = grade;
+            this.at = at;
+        }
+
+        static Grade[] concat(Grade[] earlier, Grade[] later) {
+            Grade[] all = Arrays.copyOf(earlier, earlier.length + later.length);
+            System.arraycopy(later, 0, all, earlier.length, later.length);
+            return all;
+        }
+    }
+
+    // Two records with the same fields are interchangeable when replaying a removal
+    private static final class RecordKey {
+        private final Student student;
+
+        RecordKey(Student student) {
+            this.student = student;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RecordKey)) return false;
+            Student other = ((RecordKey) o).student;
+            return Double.compare(student.getGrade(), other.getGrade()) == 0
+                    && student.getTimestamp().equals(other.getTimestamp())
+                    && student.getName().equals(other.getName())
+                    && student.getMajor().equals(other.getMajor());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(student.getName(), student.getGrade(), student.getMajor(), student.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in log-linear buckets, the way HdrHistogram does: each
+ * power of two is split into 32 equal buckets, so every percentile read back
+ * is within about 3% of the true value, from nanoseconds to hours, in one
+ * fixed 15 KB array.
+ *
+ * Recording is an increment of one array slot and never allocates or locks,
+ * so any thread may record while another reads. A read concurrent with
+ * recording may miss the latest few values.
+ */
+final class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below 32 are exact; then 32 buckets per power of two up to 2^63
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        total.addAndGet(value);
+        if (value > max.get()) max.accumulateAndGet(value, Math::max);
+    }
+
+    // Summed when read, so recording touches one counter less
+    long count() {
+        long n = 0;
+        for (int index = 0; index < BUCKETS; index++) n += counts.get(index);
+        return n;
+    }
+
+    double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /** Nearest-rank percentile, 0 < p <= 100: the highest value in the bucket it falls in, at most the max. */
+    long percentile(double p) {
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * n));
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) return Math.min(highestOf(index), max.get());
+        }
+        return max.get();
+    }
+
+    void reset() {
+        for (int index = 0; index < BUCKETS; index++) counts.set(index, 0);
+        total.set(0);
+        max.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        if (index == BUCKETS - 1) return Long.MAX_VALUE;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,99 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.Arrays;
+
+/**
+ * A map from long keys to non-negative ints in two flat arrays, without a
+ * boxed Long, Integer or entry object per key. Open addressing with linear
+ * probing; removals shift the following entries back, so there are no
+ * tombstones and lookups stay short however many keys come and go.
+ */
+final class LongIntMap {
+
+    private static final int ABSENT = -1;
+
+    private long[] keys = new long[16];
+    private int[] values = newValues(16);
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** The value for {@code key}, or -1 if there is none. */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = indexFor(key, mask); values[i] != ABSENT; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return ABSENT;
+    }
+
+    void put(long key, int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+        int mask = keys.length - 1;
+        int i = indexFor(key, mask);
+        for (; values[i] != ABSENT; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        // Kept at most half full
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+    }
+
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int i = indexFor(key, mask);
+        while (values[i] != ABSENT && keys[i] != key) i = (i + 1) & mask;
+        if (values[i] == ABSENT) return;
+        size--;
+
+        // Pull back any later entry of the same run that would otherwise become unreachable
+        int hole = i;
+        for (int j = (hole + 1) & mask; values[j] != ABSENT; j = (j + 1) & mask) {
+            int home = indexFor(keys[j], mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = ABSENT;
+    }
+
+    void clear() {
+        keys = new long[16];
+        values = newValues(16);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = newValues(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == ABSENT) continue;
+            int j = indexFor(oldKeys[i], mask);
+            while (values[j] != ABSENT) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+
+    private static int indexFor(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int[] newValues(int capacity) {
+        int[] values = new int[capacity];
+        Arrays.fill(values, ABSENT);
+        return values;
+    }
+}
@@ -0,0 +1,172 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.Arrays;
+
+/**
+ * A map from long keys to non-negative ints, like {@link LongIntMap}, that
+ * can hand out a frozen copy of itself in O(1).
+ *
+ * Keys go into 65,536 small buckets of sorted keys, reached through two
+ * levels of 256-way branches. {@link #freeze()} returns a read-only map
+ * sharing every node; the writable one then copies a node the first time it
+ * changes it, so a write after a freeze copies one bucket and the two
+ * branches above it, never the whole map, and a batch of writes between two
+ * freezes copies each node at most once. Frozen maps may be read by any
+ * thread while the writable one moves on.
+ */
+final class LongIntTrie {
+
+    private static final int ABSENT = -1;
+    private static final int FANOUT = 256;
+
+    // Nodes made since the last freeze carry the current epoch and are changed in place
+    private long epoch;
+    private Branch root;
+    private int size;
+    private final boolean frozen;
+
+    LongIntTrie() {
+        root = new Branch(0);
+        frozen = false;
+    }
+
+    private LongIntTrie(Branch root, int size) {
+        this.root = root;
+        this.size = size;
+        this.frozen = true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** The value for {@code key}, or -1 if there is none. */
+    int get(long key) {
+        int bucketOf = bucketOf(key);
+        Branch middle = (Branch) root.children[bucketOf >>> 8];
+        if (middle == null) return ABSENT;
+        Bucket bucket = (Bucket) middle.children[bucketOf & (FANOUT - 1)];
+        if (bucket == null) return ABSENT;
+        int at = Arrays.binarySearch(bucket.keys, 0, bucket.size, key);
+        return at < 0 ? ABSENT : bucket.values[at];
+    }
+
+    void put(long key, int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+        Bucket bucket = writableBucket(bucketOf(key), true);
+        int at = Arrays.binarySearch(bucket.keys, 0, bucket.size, key);
+        if (at >= 0) {
+            bucket.values[at] = value;
+            return;
+        }
+        at = -at - 1;
+        if (bucket.size == bucket.keys.length) bucket.grow();
+        System.arraycopy(bucket.keys, at, bucket.keys, at + 1, bucket.size - at);
+        System.arraycopy(bucket.values, at, bucket.values, at + 1, bucket.size - at);
+        bucket.keys[at] = key;
+        bucket.values[at] = value;
+        bucket.size++;
+        size++;
+    }
+
+    void remove(long key) {
+        Bucket bucket = writableBucket(bucketOf(key), false);
+        if (bucket == null) return;
+        int at = Arrays.binarySearch(bucket.keys, 0, bucket.size, key);
+        if (at < 0) return;
+        System.arraycopy(bucket.keys, at + 1, bucket.keys, at, bucket.size - at - 1);
+        System.arraycopy(bucket.values, at + 1, bucket.values, at, bucket.size - at - 1);
+        bucket.size--;
+        size--;
+    }
+
+    /** The map as it is now, read-only; later writes to this one do not show up in it. */
+    LongIntTrie freeze() {
+        if (frozen) return this;
+        LongIntTrie copy = new LongIntTrie(root, size);
+        epoch++;
+        return copy;
+    }
+
+    // The bucket, copied into the current epoch along with the branches above it
+    private Bucket writableBucket(int bucketOf, boolean create) {
+        if (frozen) throw new UnsupportedOperationException("Frozen map");
+        int top = bucketOf >>> 8;
+        int low = bucketOf & (FANOUT - 1);
+        if (!create) {
+            Branch middle = (Branch) root.children[top];
+            if (middle == null || middle.children[low] == null) return null;
+        }
+        if (root.epoch != epoch) root = root.copy(epoch);
+        Branch middle = (Branch) root.children[top];
+        if (middle == null) {
+            middle = new Branch(epoch);
+            root.children[top] = middle;
+        } else if (middle.epoch != epoch) {
+            middle = middle.copy(epoch);
+            root.children[top] = middle;
+        }
+        Bucket bucket = (Bucket) middle.children[low];
+        if (bucket == null) {
+            bucket = new Bucket(epoch, new long[4], new int[4], 0);
+            middle.children[low] = bucket;
+        } else if (bucket.epoch != epoch) {
+            bucket = bucket.copy(epoch);
+            middle.children[low] = bucket;
+        }
+        return bucket;
+    }
+
+    /*
+     * Ids are handed out in sequence, so runs of 16 share a bucket and the
+     * runs after them go to the buckets next to it: reading ids in order
+     * reads the map in order. Each block of 2^20 ids is moved elsewhere by
+     * the same mix as LongIntMap, so ids far apart still spread out.
+     */
+    private static int bucketOf(long key) {
+        long h = (key >>> 20) * 0x9E3779B97F4A7C15L;
+        return (int) ((key >>> 4) ^ h ^ (h >>> 32)) & 0xFFFF;
+    }
+
+    private static final class Branch {
+        final long epoch;
+        final Object[] children;
+
+        Branch(long epoch) {
+            this(epoch, new Object[FANOUT]);
+        }
+
+        private Branch(long epoch, Object[] children) {
+            this.epoch = epoch;
+            this.children = children;
+        }
+
+        Branch copy(long epoch) {
+            return new Branch(epoch, children.clone());
+        }
+    }
+
+    // Keys sorted, values alongside; a few dozen entries at most in practice
+    private static final class Bucket {
+        final long epoch;
+        long[] keys;
+        int[] values;
+        int size;
+
+        Bucket(long epoch, long[] keys, int[] values, int size) {
+            this.epoch = epoch;
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+
+        Bucket copy(long epoch) {
+            return new Bucket(epoch, keys.clone(), values.clone(), size);
+        }
+
+        void grow() {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+    }
+}
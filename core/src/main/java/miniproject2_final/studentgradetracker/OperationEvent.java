@@ -0,0 +1,29 @@
+package miniproject2_final.studentgradetracker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One timed tracker operation, for Java Flight Recorder. Committed by
+ * {@link OperationTimer} only while a recording has the event enabled; with
+ * no recording the JIT drops the event entirely.
+ */
+@Name("miniproject2_final.studentgradetracker.Operation")
+@Label("Tracker Operation")
+@Category("Student Grade Tracker")
+@Description("A timed add, search, refresh, chart or report operation")
+@StackTrace(false)
+final class OperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
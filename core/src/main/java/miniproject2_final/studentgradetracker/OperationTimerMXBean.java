@@ -0,0 +1,21 @@
+package miniproject2_final.studentgradetracker;
+
+/**
+ * What JMX clients see of an {@link OperationTimer}, registered as
+ * {@code miniproject2_final.studentgradetracker:type=Operation,name=<operation>}.
+ * Latencies are in milliseconds and cover everything recorded since the last reset.
+ */
+public interface OperationTimerMXBean {
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,12 @@
+package miniproject2_final.studentgradetracker;
+
+/**
+ * Progress callback for long-running background work such as reports and
+ * imports. Implementations may throw CancellationException to stop the work.
+ */
+interface Progress {
+
+    Progress NONE = (done, total) -> { };
+
+    void update(long done, long total);
+}
@@ -0,0 +1,30 @@
+package miniproject2_final.studentgradetracker;
+
+import java.time.LocalDateTime;
+
+/**
+ * One grade given to a student after the one they were added with: an
+ * assessment of a course in a term, as {@link GradeBook#recordGrade} adds it
+ * to the history and a {@link StudentRepository} saves it.
+ */
+final class RecordedGrade {
+    private final Student student;
+    private final String course;
+    private final String term;
+    private final double grade;
+    private final LocalDateTime at;
+
+    RecordedGrade(Student student, String course, String term, double grade, LocalDateTime at) {
+        this.student = student;
+        this.course = course;
+        this.term = term;
+        this.grade = grade;
+        this.at = at;
+    }
+
+    Student getStudent() { return student; }
+    String getCourse() { return course; }
+    String getTerm() { return term; }
+    double getGrade() { return grade; }
+    LocalDateTime getAt() { return at; }
+}
@@ -0,0 +1,174 @@
+package miniproject2_final.studentgradetracker;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the "report by major" one line at a time.
+ *
+ * The report is streamed to a {@link LineSink} instead of being built as one
+ * String, so a viewer can show the first lines while the rest is still being
+ * written and a file can be written without holding the report in memory.
+ * Every figure comes from a {@link RosterAggregate}, computed in parallel
+ * before the first line; writing is then one walk over each major's rows.
+ * Numbers are formatted by hand into a reused buffer rather than through
+ * String.format for every row.
+ */
+final class ReportWriter {
+
+    /** Receives each finished line, without its line terminator. */
+    interface LineSink {
+        void line(CharSequence text) throws IOException;
+    }
+
+    private static final int PROGRESS_INTERVAL = 1024;
+    private static final DateTimeFormatter GENERATED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // One per tone of the grading scheme, best first
+    private static final String[] TONE_EMOJIS = {"🌟", "✅", "📈", "📚"};
+    // Rows in the upper half of the best letter, such as 95 and up
+    private static final String TOP_EMOJI = "🏆";
+
+    private final StudentTable.Snapshot rows;
+    private RosterAggregate aggregate;
+    private final StringBuilder line = new StringBuilder(128);
+
+    ReportWriter(StudentTable.Snapshot rows) {
+        this.rows = rows;
+    }
+
+    /** Uses figures already computed for exactly these rows. */
+    ReportWriter(StudentTable.Snapshot rows, RosterAggregate aggregate) {
+        this.rows = rows;
+        this.aggregate = aggregate;
+    }
+
+    static String bandEmoji(GradingScheme scheme, int band) {
+        return TONE_EMOJIS[scheme.toneOf(band)];
+    }
+
+    void write(LineSink sink, Progress progress) throws IOException {
+        writeFigures(sink, progress);
+        if (!rows.isEmpty()) writeGenerated(sink);
+    }
+
+    /** The report without its closing "generated at" line, so the same rows always give the same lines. */
+    void writeFigures(LineSink sink, Progress progress) throws IOException {
+        if (rows.isEmpty()) {
+            sink.line("📄 No student data available for report generation.");
+            return;
+        }
+        if (aggregate == null) aggregate = RosterAggregate.of(rows);
+        GradingScheme scheme = rows.gradingScheme();
+
+        sink.line("🎓 COMPREHENSIVE STUDENT GRADE REPORT BY MAJOR");
+        sink.line("=".repeat(55));
+        sink.line("");
+
+        long total = rows.size();
+        long done = 0;
+        for (RosterAggregate.Group major : aggregate.majors()) {
+            line.setLength(0);
+            line.append("🏛️ ").append(major.name()).append(" (").append(major.count()).append(" students)");
+            sink.line(line);
+            sink.line("-".repeat(40));
+
+            for (int row : aggregate.rowsOf(major)) {
+                double grade = rows.gradeAt(row);
+                line.setLength(0);
+                line.append("  • ").append(rows.nameAt(row)).append(": ");
+                appendFixed(line, grade, 1);
+                int letter = rows.letterAt(row);
+                line.append(' ').append(scheme.letter(letter).getName()).append(' ')
+                        .append(scheme.isTopOfBest(letter, grade) ? TOP_EMOJI : bandEmoji(scheme, scheme.bandOfLetter(letter)));
+                sink.line(line);
+
+                if (++done % PROGRESS_INTERVAL == 0) progress.update(done, total);
+            }
+
+            line.setLength(0);
+            line.append("  📊 Major Average: ");
+            appendFixed(line, major.average(), 2);
+            sink.line(line);
+            sink.line(spread(major));
+            sink.line("");
+        }
+
+        RosterAggregate.Group overall = aggregate.overall();
+        sink.line("🏆 PERFORMANCE SUMMARY");
+        sink.line("=".repeat(30));
+        line.setLength(0);
+        line.append("📊 Overall Class Average: ");
+        appendFixed(line, overall.average(), 2);
+        sink.line(line);
+        sink.line(spread(overall));
+        line.setLength(0);
+        line.append("📐 Percentiles: P10 ");
+        appendFixed(line, overall.percentile(10), 1);
+        line.append(" | P25 ");
+        appendFixed(line, overall.percentile(25), 1);
+        line.append(" | P75 ");
+        appendFixed(line, overall.percentile(75), 1);
+        line.append(" | P90 ");
+        appendFixed(line, overall.percentile(90), 1);
+        sink.line(line);
+        for (int band = 0; band < scheme.bandCount(); band++) {
+            sink.line(bandEmoji(scheme, band) + " " + scheme.bandLabel(band) + ": " + overall.bandCount(band) + " students");
+        }
+        line.setLength(0);
+        line.append("🔤 Letters:");
+        for (int letter = 0; letter < scheme.letterCount(); letter++) {
+            line.append(letter == 0 ? " " : " | ").append(scheme.letter(letter).getName())
+                    .append(' ').append(overall.letterCount(letter));
+        }
+        sink.line(line);
+        line.setLength(0);
+        line.append("🎯 Pass Rate: ");
+        appendFixed(line, overall.passRate(), 1);
+        sink.line(line.append('%'));
+        progress.update(total, total);
+    }
+
+    /** The closing lines of a report, stamped with the current time. */
+    static void writeGenerated(LineSink sink) throws IOException {
+        sink.line("");
+        sink.line("📅 Report Generated: " + LocalDateTime.now().format(GENERATED_FORMAT));
+    }
+
+    // "  📏 Range: 55.0 - 98.5 | Median: 78.0 | Std Dev: 10.21"
+    private CharSequence spread(RosterAggregate.Group group) {
+        line.setLength(0);
+        line.append("  📏 Range: ");
+        appendFixed(line, group.lowest(), 1);
+        line.append(" - ");
+        appendFixed(line, group.highest(), 1);
+        line.append(" | Median: ");
+        appendFixed(line, group.median(), 1);
+        line.append(" | Std Dev: ");
+        appendFixed(line, group.standardDeviation(), 2);
+        return line;
+    }
+
+    // Appends value rounded half-up to the given number of decimals, like %.Nf
+    static void appendFixed(StringBuilder sb, double value, int decimals) {
+        long scale = decimals == 1 ? 10 : decimals == 2 ? 100 : (long) Math.pow(10, decimals);
+        double exact = Math.abs(value) * scale;
+        long scaled = Math.round(exact);
+        // %.Nf rounds the shortest decimal form, so 1.005 gives 1.01 though 1.005 * 100 is just under 100.5
+        if (Math.abs(exact - Math.floor(exact) - 0.5) < 1e-6) {
+            scaled = new BigDecimal(Double.toString(Math.abs(value))).movePointRight(decimals)
+                    .setScale(0, RoundingMode.HALF_UP).longValueExact();
+        }
+        if (value < 0 && scaled != 0) sb.append('-');
+        sb.append(scaled / scale);
+        if (decimals == 0) return;
+
+        sb.append('.');
+        long fraction = scaled % scale;
+        for (long digit = scale / 10; digit > 0; digit /= 10) {
+            sb.append((char) ('0' + fraction / digit % 10));
+        }
+    }
+}
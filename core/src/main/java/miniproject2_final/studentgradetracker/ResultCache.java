@@ -0,0 +1,97 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Results computed from the roster, kept until the roster changes.
+ *
+ * Each result is filed under what it is (the variant: "report", a search
+ * query, ...) and the table version it was computed from. A write bumps the
+ * version, so older entries simply stop matching; nothing has to be
+ * invalidated by hand. Entries carry an estimated size in bytes and the least
+ * recently used ones are dropped once the total passes the budget, so a
+ * burst of edits or searches cannot pile up stale results.
+ */
+final class ResultCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    ResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized <T> T get(String variant, long version) {
+        Entry entry = entries.get(new Key(variant, version));
+        return entry == null ? null : (T) entry.value;
+    }
+
+    /** Keeps the value unless it alone is larger than the whole budget. */
+    synchronized void put(String variant, long version, Object value, long bytes) {
+        if (bytes > maxBytes) return;
+        Entry old = entries.put(new Key(variant, version), new Entry(value, bytes));
+        if (old != null) usedBytes -= old.bytes;
+        usedBytes += bytes;
+
+        for (Iterator<Entry> it = entries.values().iterator(); usedBytes > maxBytes && it.hasNext(); ) {
+            usedBytes -= it.next().bytes;
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the cached value or computes and caches it. The computation runs
+     * outside the cache's lock, so two threads may occasionally both compute
+     * the same value; the result is the same either way.
+     */
+    <T> T get(String variant, long version, Supplier<T> compute, ToLongFunction<T> bytes) {
+        T value = get(variant, version);
+        if (value != null) return value;
+        value = compute.get();
+        put(variant, version, value, bytes.applyAsLong(value));
+        return value;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    private static final class Key {
+        final String variant;
+        final long version;
+
+        Key(String variant, long version) {
+            this.variant = variant;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return version == other.version && variant.equals(other.variant);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(variant, version);
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long bytes;
+
+        Entry(Object value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
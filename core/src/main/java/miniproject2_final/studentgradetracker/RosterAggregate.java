@@ -0,0 +1,308 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Every per-major and overall figure the reports need, from one pass over a
+ * snapshot.
+ *
+ * The rows are split into ranges that fork/join workers scan in parallel,
+ * each filling its own per-major accumulators: count, sum, sum of squares,
+ * min, max, counts per letter and a histogram of grades, from which
+ * percentiles are read. The histograms count grades exactly as
+ * {@link GradeStatistics} does, to 0.01 overall and 0.1 per major, so the
+ * report's medians and percentiles match the stats panel's. The ranges are
+ * merged once they are all done, so no accumulator is ever shared between
+ * threads.
+ *
+ * The same ranges also give, for free, the rows of each major in roster
+ * order ({@link #rowsOf}), which is what the report lists under each major.
+ */
+final class RosterAggregate {
+
+    private static final int MIN_RANGE = 16 * 1024;
+
+    /** The figures for one major, or for the whole roster. */
+    static final class Group {
+        private final String name;
+        private final GradingScheme scheme;
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+        private double lowest = Double.MAX_VALUE;
+        private double highest = -Double.MAX_VALUE;
+        private final long[] letterCounts;
+        // Percentiles come from a histogram of 0 .. 100 in steps of 1/scale
+        private final int scale;
+        private final int[] histogram;
+        private int firstRow = Integer.MAX_VALUE;
+
+        private Group(String name, GradingScheme scheme, int scale) {
+            this.name = name;
+            this.scheme = scheme;
+            this.letterCounts = new long[scheme.letterCount()];
+            this.scale = scale;
+            this.histogram = new int[100 * scale + 1];
+        }
+
+        // The letter is the row's own, looked up when it was added
+        private void add(int row, double grade, int letter) {
+            count++;
+            sum += grade;
+            sumOfSquares += grade * grade;
+            if (grade < lowest) lowest = grade;
+            if (grade > highest) highest = grade;
+            letterCounts[letter]++;
+            histogram[GradeStatistics.slotOf(grade, scale)]++;
+            if (row < firstRow) firstRow = row;
+        }
+
+        private void merge(Group other) {
+            count += other.count;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+            lowest = Math.min(lowest, other.lowest);
+            highest = Math.max(highest, other.highest);
+            for (int letter = 0; letter < letterCounts.length; letter++) letterCounts[letter] += other.letterCounts[letter];
+            for (int slot = 0; slot < histogram.length; slot++) histogram[slot] += other.histogram[slot];
+            firstRow = Math.min(firstRow, other.firstRow);
+        }
+
+        String name() { return name; }
+        long count() { return count; }
+        long letterCount(int letter) { return letterCounts[letter]; }
+
+        long passing() {
+            long passing = 0;
+            for (int letter = 0; letter < letterCounts.length; letter++) {
+                if (scheme.isPassing(letter)) passing += letterCounts[letter];
+            }
+            return passing;
+        }
+
+        long bandCount(int band) {
+            long total = 0;
+            for (int letter = 0; letter < letterCounts.length; letter++) {
+                if (scheme.bandOfLetter(letter) == band) total += letterCounts[letter];
+            }
+            return total;
+        }
+        double lowest() { return count == 0 ? 0 : lowest; }
+        double highest() { return count == 0 ? 0 : highest; }
+
+        double average() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        double standardDeviation() {
+            if (count == 0) return 0;
+            double mean = sum / count;
+            return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+        }
+
+        double passRate() {
+            return count == 0 ? 0 : passing() * 100.0 / count;
+        }
+
+        /** Nearest-rank percentile, 0 < p <= 100, like {@link GradeStatistics#percentile}. */
+        double percentile(double p) {
+            if (count == 0) return 0;
+            return kth(Math.max(1, (long) Math.ceil(p / 100 * count)));
+        }
+
+        /** Middle grade, or the mean of the two middle grades, like the stats panel. */
+        double median() {
+            if (count == 0) return 0;
+            if ((count & 1) == 1) return kth(count / 2 + 1);
+            return (kth(count / 2) + kth(count / 2 + 1)) / 2;
+        }
+
+        // Grade of the k-th smallest entry (1-based)
+        private double kth(long k) {
+            long seen = 0;
+            for (int slot = 0; slot < histogram.length; slot++) {
+                seen += histogram[slot];
+                if (seen >= k) return (double) slot / scale;
+            }
+            return highest;
+        }
+    }
+
+    private final Group overall;
+    private final List<Group> majors;
+    private final List<String> majorTable;
+    private final int[] groupedRows;
+    private final int[] groupStarts;
+
+    private RosterAggregate(Group overall, List<Group> majors, List<String> majorTable,
+                            int[] groupedRows, int[] groupStarts) {
+        this.overall = overall;
+        this.majors = majors;
+        this.majorTable = majorTable;
+        this.groupedRows = groupedRows;
+        this.groupStarts = groupStarts;
+    }
+
+    static RosterAggregate of(StudentTable.Snapshot rows) {
+        return of(rows, ForkJoinPool.commonPool());
+    }
+
+    static RosterAggregate of(StudentTable.Snapshot rows, ForkJoinPool pool) {
+        List<String> majorTable = rows.majorTable();
+        int size = rows.size();
+        int rangeSize = Math.max(MIN_RANGE, size / (pool.getParallelism() * 4) + 1);
+
+        // Pass 1: every range aggregates its own rows
+        List<Range> ranges = new ArrayList<>();
+        for (int from = 0; from < size; from += rangeSize) {
+            ranges.add(new Range(rows, from, Math.min(size, from + rangeSize), majorTable.size()));
+        }
+        pool.invoke(new Aggregate(ranges, 0, ranges.size()));
+
+        GradingScheme scheme = rows.gradingScheme();
+        Group overall = new Group("All students", scheme, GradeStatistics.DEFAULT_SCALE);
+        Group[] byCode = new Group[majorTable.size()];
+        for (int code = 0; code < byCode.length; code++) {
+            byCode[code] = new Group(majorTable.get(code), scheme, GradeStatistics.MAJOR_SCALE);
+        }
+        for (Range range : ranges) {
+            overall.merge(range.all);
+            for (int code = 0; code < byCode.length; code++) {
+                if (range.groups[code] != null) byCode[code].merge(range.groups[code]);
+            }
+        }
+
+        // Majors in the order they first appear in the roster
+        List<Group> majors = new ArrayList<>();
+        for (Group group : byCode) {
+            if (group.count > 0) majors.add(group);
+        }
+        majors.sort(Comparator.comparingInt(group -> group.firstRow));
+
+        // Pass 2: each range writes its rows into its own slice of every major's block
+        int[] groupStarts = new int[byCode.length + 1];
+        for (int code = 0; code < byCode.length; code++) groupStarts[code + 1] = groupStarts[code] + (int) byCode[code].count;
+        int[] next = Arrays.copyOf(groupStarts, byCode.length);
+        for (Range range : ranges) {
+            range.offsets = new int[byCode.length];
+            for (int code = 0; code < byCode.length; code++) {
+                range.offsets[code] = next[code];
+                if (range.groups[code] != null) next[code] += (int) range.groups[code].count;
+            }
+        }
+        int[] groupedRows = new int[size];
+        pool.invoke(new Scatter(ranges, 0, ranges.size(), groupedRows));
+
+        return new RosterAggregate(overall, majors, majorTable, groupedRows, groupStarts);
+    }
+
+    Group overall() {
+        return overall;
+    }
+
+    /** Majors with at least one student, in the order they first appear in the roster. */
+    List<Group> majors() {
+        return majors;
+    }
+
+    /** Row numbers of the snapshot's students in this major, in roster order. */
+    int[] rowsOf(Group major) {
+        int code = majorTable.indexOf(major.name);
+        return Arrays.copyOfRange(groupedRows, groupStarts[code], groupStarts[code + 1]);
+    }
+
+    /** Rough heap footprint, for the result cache. */
+    long estimatedBytes() {
+        long perGroup = 8L * overall.letterCounts.length + 96;
+        long histograms = 4L * overall.histogram.length + 4L * (100 * GradeStatistics.MAJOR_SCALE + 1) * majors.size();
+        return 4L * groupedRows.length + perGroup * (majors.size() + 1) + histograms + 64;
+    }
+
+    // ---- Fork/join ----
+
+    private static final class Range {
+        final StudentTable.Snapshot rows;
+        final int from;
+        final int to;
+        final Group all;
+        final Group[] groups;
+        int[] offsets;
+
+        Range(StudentTable.Snapshot rows, int from, int to, int majorCount) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.all = new Group(null, rows.gradingScheme(), GradeStatistics.DEFAULT_SCALE);
+            this.groups = new Group[majorCount];
+        }
+
+        void aggregate() {
+            rows.scan(from, to, (index, grade, majorCode, letter) -> {
+                Group group = groups[majorCode];
+                if (group == null) group = groups[majorCode] = new Group(null, rows.gradingScheme(), GradeStatistics.MAJOR_SCALE);
+                group.add(index, grade, letter);
+                all.add(index, grade, letter);
+            });
+        }
+
+        void scatter(int[] groupedRows) {
+            int[] next = offsets.clone();
+            rows.scan(from, to, (index, grade, majorCode, letter) -> groupedRows[next[majorCode]++] = index);
+        }
+    }
+
+    private static final class Aggregate extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Range> ranges;
+        private final int from;
+        private final int to;
+
+        Aggregate(List<Range> ranges, int from, int to) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) ranges.get(from).aggregate();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Aggregate(ranges, from, middle), new Aggregate(ranges, middle, to));
+        }
+    }
+
+    private static final class Scatter extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Range> ranges;
+        private final int from;
+        private final int to;
+        private final int[] groupedRows;
+
+        Scatter(List<Range> ranges, int from, int to, int[] groupedRows) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.groupedRows = groupedRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) ranges.get(from).scatter(groupedRows);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Scatter(ranges, from, middle, groupedRows), new Scatter(ranges, middle, to, groupedRows));
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The roster sorted by one key, kept up to date as students come and go
+ * instead of being re-sorted, and without disturbing the roster's own order.
+ *
+ * Students are held in a treap ordered by (key, id) whose nodes also count
+ * their subtree, so an add, a remove, the i-th student and a student's rank
+ * each take O(log n). A node's priority is a hash of the student's id, which
+ * keeps the tree balanced without storing anything extra.
+ *
+ * Every RosterOrder is frozen: an update copies the O(log n) nodes on its
+ * path and shares the rest, so, like a table snapshot, an order can be read
+ * from any thread while the grade book moves on. {@link #ascending()},
+ * {@link #descending()} and the top/bottom-K lists are views, never copies.
+ */
+final class RosterOrder {
+
+    /** What the roster can be ordered by; ties are broken by id, i.e. by who was added first. */
+    enum Key {
+        GRADE("Grade", Comparator.comparingDouble(Student::getGrade)),
+        NAME("Name", Comparator.comparing(Student::getName, String.CASE_INSENSITIVE_ORDER)),
+        MAJOR("Major", Comparator.comparing(Student::getMajor)),
+        ADDED("Date added", Comparator.comparingLong(Student::getEpochNanos));
+
+        private final String label;
+        private final Comparator<Student> comparator;
+
+        Key(String label, Comparator<Student> byKey) {
+            this.label = label;
+            this.comparator = byKey.thenComparingLong(Student::getId);
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final class Node {
+        final Student student;
+        // Only written while a new tree is being built, before anyone can see it
+        Node left;
+        Node right;
+        int size;
+
+        Node(Student student, Node left, Node right) {
+            this.student = student;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+    }
+
+    private final Key key;
+    private final Node root;
+    private final long version;
+
+    private RosterOrder(Key key, Node root, long version) {
+        this.key = key;
+        this.root = root;
+        this.version = version;
+    }
+
+    static RosterOrder empty(Key key) {
+        return new RosterOrder(key, null, 0);
+    }
+
+    static RosterOrder of(Key key, Collection<? extends Student> students) {
+        Student[] sorted = students.toArray(new Student[0]);
+        Arrays.parallelSort(sorted, key.comparator);
+        return new RosterOrder(key, build(sorted), 0);
+    }
+
+    Key key() {
+        return key;
+    }
+
+    /** The version of the roster snapshot this order was published with. */
+    long version() {
+        return version;
+    }
+
+    RosterOrder at(long version) {
+        return version == this.version ? this : new RosterOrder(key, root, version);
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    // ---- Updates ----
+
+    RosterOrder with(Student student) {
+        return new RosterOrder(key, insert(root, student), version);
+    }
+
+    /** Adds a batch; a batch that is large next to the order rebuilds it in one sort instead. */
+    RosterOrder withAll(Collection<? extends Student> students) {
+        if (students.size() > size() / 8 + 64) {
+            Student[] all = new Student[size() + students.size()];
+            int filled = copyInto(root, all, 0);
+            for (Student student : students) all[filled++] = student;
+            Arrays.parallelSort(all, key.comparator);
+            return new RosterOrder(key, build(all), version);
+        }
+        Node next = root;
+        for (Student student : students) next = insert(next, student);
+        return new RosterOrder(key, next, version);
+    }
+
+    /** Removes the student with the same id and key; returns this order unchanged if there is none. */
+    RosterOrder without(Student student) {
+        Node next = remove(root, student);
+        return next == root ? this : new RosterOrder(key, next, version);
+    }
+
+    RosterOrder cleared() {
+        return new RosterOrder(key, null, version);
+    }
+
+    // ---- Reads ----
+
+    /** The student at {@code rank}, counting from the lowest key. */
+    Student get(int rank) {
+        if (rank < 0 || rank >= size()) throw new IndexOutOfBoundsException("Rank: " + rank + ", Size: " + size());
+        Node node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (rank < leftSize) {
+                node = node.left;
+            } else if (rank > leftSize) {
+                rank -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.student;
+            }
+        }
+    }
+
+    /** How many students sort before this one, or -1 if it is not in the order. */
+    int rankOf(Student student) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int c = key.comparator.compare(student, node.student);
+            if (c < 0) {
+                node = node.left;
+            } else if (c > 0) {
+                rank += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + sizeOf(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /** Lowest key first. */
+    List<Student> ascending() {
+        return new View(false);
+    }
+
+    /** Highest key first. */
+    List<Student> descending() {
+        return new View(true);
+    }
+
+    /** The {@code k} students with the lowest keys, lowest first. */
+    List<Student> bottom(int k) {
+        return ascending().subList(0, Math.min(k, size()));
+    }
+
+    /** The {@code k} students with the highest keys, highest first. */
+    List<Student> top(int k) {
+        return descending().subList(0, Math.min(k, size()));
+    }
+
+    private final class View extends AbstractList<Student> implements RandomAccess {
+        private final boolean reversed;
+
+        View(boolean reversed) {
+            this.reversed = reversed;
+        }
+
+        @Override
+        public Student get(int index) {
+            return RosterOrder.this.get(reversed ? size() - 1 - index : index);
+        }
+
+        @Override
+        public int size() {
+            return RosterOrder.this.size();
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (!(o instanceof Student)) return -1;
+            int rank = rankOf((Student) o);
+            return rank < 0 || !reversed ? rank : size() - 1 - rank;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return indexOf(o);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) >= 0;
+        }
+    }
+
+    // ---- Treap ----
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // SplitMix64 finalizer: ids are sequential, priorities must look random
+    private static long priority(Student student) {
+        long z = student.getId() + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private Node insert(Node node, Student student) {
+        if (node == null) return new Node(student, null, null);
+        if (priority(student) > priority(node.student)) {
+            Node[] parts = split(node, student);
+            return new Node(student, parts[0], parts[1]);
+        }
+        if (key.comparator.compare(student, node.student) < 0) {
+            return new Node(node.student, insert(node.left, student), node.right);
+        }
+        return new Node(node.student, node.left, insert(node.right, student));
+    }
+
+    // Copies of the students below and above the given one
+    private Node[] split(Node node, Student student) {
+        if (node == null) return new Node[2];
+        if (key.comparator.compare(student, node.student) < 0) {
+            Node[] parts = split(node.left, student);
+            parts[1] = new Node(node.student, parts[1], node.right);
+            return parts;
+        }
+        Node[] parts = split(node.right, student);
+        parts[0] = new Node(node.student, node.left, parts[0]);
+        return parts;
+    }
+
+    private Node remove(Node node, Student student) {
+        if (node == null) return null;
+        int c = key.comparator.compare(student, node.student);
+        if (c == 0) return merge(node.left, node.right);
+        if (c < 0) {
+            Node left = remove(node.left, student);
+            return left == node.left ? node : new Node(node.student, left, node.right);
+        }
+        Node right = remove(node.right, student);
+        return right == node.right ? node : new Node(node.student, node.left, right);
+    }
+
+    private static Node merge(Node low, Node high) {
+        if (low == null) return high;
+        if (high == null) return low;
+        if (priority(low.student) > priority(high.student)) {
+            return new Node(low.student, low.left, merge(low.right, high));
+        }
+        return new Node(high.student, merge(low, high.left), high.right);
+    }
+
+    // Cartesian tree over sorted students in one left-to-right pass
+    private static Node build(Student[] sorted) {
+        Deque<Node> spine = new ArrayDeque<>();
+        for (Student student : sorted) {
+            Node node = new Node(student, null, null);
+            Node last = null;
+            while (!spine.isEmpty() && priority(spine.peek().student) < priority(student)) last = spine.pop();
+            node.left = last;
+            if (!spine.isEmpty()) spine.peek().right = node;
+            spine.push(node);
+        }
+        Node root = spine.peekLast();
+        fixSizes(root);
+        return root;
+    }
+
+    private static int fixSizes(Node node) {
+        if (node == null) return 0;
+        node.size = 1 + fixSizes(node.left) + fixSizes(node.right);
+        return node.size;
+    }
+
+    private static int copyInto(Node node, Student[] out, int at) {
+        if (node == null) return at;
+        at = copyInto(node.left, out, at);
+        out[at++] = node.student;
+        return copyInto(node.right, out, at);
+    }
+}
@@ -0,0 +1,386 @@
+package miniproject2_final.studentgradetracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Trigram index used by the search box.
+ *
+ * Every distinct name is lower-cased once, when its first student goes in,
+ * and filed under each run of three characters it contains, with an edge
+ * marker at both ends so every one- or two-character fragment is inside some
+ * trigram too. A query of three characters or more only looks at the names
+ * under its rarest trigram and keeps those that contain it; a shorter one
+ * looks through the trigram dictionary, a few thousand entries however long
+ * the roster is. Majors are filed the same way as names, by their lower-case
+ * text. Either way the answer is a set of ids, which the snapshot turns into
+ * rows through its id map; no row is looked at unless it matches.
+ *
+ * The grade book writes under its lock while searches run on other threads
+ * without it, so the dictionaries are concurrent maps and each list guards
+ * itself. Searches usually look at a roster snapshot taken a little earlier.
+ * Students added since then are not in the snapshot's id map, so they drop
+ * out by themselves. Students removed since then are the problem: they are
+ * still in the snapshot but no longer in the index. So every removal first
+ * raises {@link #coversFrom()}, and a search trusts the index only for
+ * snapshots at least that new; for older ones it checks every row
+ * ({@link #scan}).
+ */
+final class SearchIndex {
+
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+    private static final int GRAM = 3;
+    // Pads names at both ends; cannot be typed into the search box
+    private static final char EDGE = '\u0000';
+    // Names left without students are swept out once they are this many and half of all names
+    private static final int SWEEP_MIN = 1024;
+
+    private final Map<String, Name> names = new ConcurrentHashMap<>();
+    private final Map<String, NameList> grams = new ConcurrentHashMap<>();
+    private final Map<String, IdList> majors = new ConcurrentHashMap<>();
+    private int emptyNames;
+    // Roster version from which on every snapshot's rows are all in the index
+    private volatile long coversFrom;
+
+    /**
+     * The oldest roster version whose snapshots the index still holds every
+     * row of. It only goes up, and goes up before any id is removed, so a
+     * check once a search is done also catches removals made during it.
+     */
+    long coversFrom() {
+        return coversFrom;
+    }
+
+    /**
+     * From {@code version} on, snapshots may be searched through this index:
+     * called before ids are removed, with the roster version right after the
+     * removal, and whenever the index takes over a roster it did not follow.
+     */
+    void coverFrom(long version) {
+        if (version > coversFrom) coversFrom = version;
+    }
+
+    void add(Student student) {
+        String text = Student.normalize(student.getName());
+        Name name = names.get(text);
+        if (name == null) {
+            name = new Name(text);
+            for (String gram : grams(text)) grams.computeIfAbsent(gram, k -> new NameList()).add(name);
+            names.put(text, name);
+        } else if (name.ids.isEmpty()) {
+            emptyNames--;
+        }
+        name.ids.add(student.getId());
+        majors.computeIfAbsent(Student.normalize(student.getMajor()), k -> new IdList()).add(student.getId());
+    }
+
+    void remove(Student student) {
+        Name name = names.get(Student.normalize(student.getName()));
+        if (name != null && name.ids.remove(student.getId()) && name.ids.isEmpty()) emptied(1);
+        majors.computeIfPresent(Student.normalize(student.getMajor()),
+                (k, ids) -> ids.remove(student.getId()) && ids.isEmpty() ? null : ids);
+    }
+
+    /** Forgets many students at once; each id list is compacted once, not once per student. */
+    void removeAll(List<Student> students) {
+        if (students.size() == 1) {
+            remove(students.get(0));
+            return;
+        }
+        Map<String, LongIntMap> idsByName = new HashMap<>();
+        Map<String, LongIntMap> idsByMajor = new HashMap<>();
+        for (Student student : students) {
+            idsByName.computeIfAbsent(Student.normalize(student.getName()), k -> new LongIntMap()).put(student.getId(), 0);
+            idsByMajor.computeIfAbsent(Student.normalize(student.getMajor()), k -> new LongIntMap()).put(student.getId(), 0);
+        }
+        int emptied = 0;
+        for (Map.Entry<String, LongIntMap> entry : idsByName.entrySet()) {
+            Name name = names.get(entry.getKey());
+            if (name != null && name.ids.removeAll(entry.getValue()) && name.ids.isEmpty()) emptied++;
+        }
+        emptied(emptied);
+        idsByMajor.forEach((major, removed) ->
+                majors.computeIfPresent(major, (k, ids) -> ids.removeAll(removed) && ids.isEmpty() ? null : ids));
+    }
+
+    /**
+     * Returns the indexes, ascending, of the roster's students whose name or
+     * major contains the query. Throws CancellationException as soon as
+     * {@code cancelled} reports true.
+     */
+    int[] search(String normalizedQuery, StudentTable.Snapshot roster, BooleanSupplier cancelled) {
+        List<long[]> matches = new ArrayList<>();
+        int total = 0;
+        for (Name name : namesContaining(normalizedQuery, cancelled)) total += add(matches, name.ids.toArray());
+        for (Map.Entry<String, IdList> major : majors.entrySet()) {
+            if (major.getKey().contains(normalizedQuery)) total += add(matches, major.getValue().toArray());
+        }
+
+        // Ids in order find their rows in order, the id map's included
+        long[] ids = ascending(matches, total);
+        long[] found = new long[(roster.size() + 63) >>> 6];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0) checkCancelled(cancelled);
+            if (i > 0 && ids[i] == ids[i - 1]) continue;
+            int row = roster.indexOfId(ids[i]);
+            if (row < 0) continue;
+            found[row >>> 6] |= 1L << row;
+            count++;
+        }
+        return rows(found, count);
+    }
+
+    /** The same answer as {@link #search}, from the rows alone, for snapshots the index no longer covers. */
+    static int[] scan(String normalizedQuery, StudentTable.Snapshot roster, BooleanSupplier cancelled) {
+        // Majors: decide once per dictionary entry, then it is a code lookup per row
+        List<String> majorTable = roster.majorTable();
+        boolean[] majorMatches = new boolean[majorTable.size()];
+        for (int code = 0; code < majorTable.size(); code++) {
+            majorMatches[code] = Student.normalize(majorTable.get(code)).contains(normalizedQuery);
+        }
+        // Names repeat, so each distinct one is lower-cased once per scan
+        Map<String, Boolean> nameMatches = new HashMap<>();
+        long[] found = new long[(roster.size() + 63) >>> 6];
+        int[] count = new int[1];
+        roster.scanIds((row, id, majorCode) -> {
+            if (row % CANCEL_CHECK_INTERVAL == 0) checkCancelled(cancelled);
+            if (majorMatches[majorCode] || nameMatches.computeIfAbsent(roster.nameAt(row),
+                    name -> Student.normalize(name).contains(normalizedQuery))) {
+                found[row >>> 6] |= 1L << row;
+                count[0]++;
+            }
+        });
+        return rows(found, count[0]);
+    }
+
+    // The names holding the query, each once
+    private List<Name> namesContaining(String query, BooleanSupplier cancelled) {
+        List<Name> found = new ArrayList<>();
+        if (query.indexOf(EDGE) >= 0) return found;
+        if (query.length() >= GRAM) {
+            NameList rarest = null;
+            for (int i = 0; i + GRAM <= query.length(); i++) {
+                NameList withGram = grams.get(query.substring(i, i + GRAM));
+                if (withGram == null) return found;
+                if (rarest == null || withGram.size() < rarest.size()) rarest = withGram;
+            }
+            int checked = 0;
+            for (Name name : rarest.toArray()) {
+                if (++checked % CANCEL_CHECK_INTERVAL == 0) checkCancelled(cancelled);
+                if (name.text.contains(query)) found.add(name);
+            }
+            return found;
+        }
+        // Shorter than a trigram: every trigram holding it, and every name under those
+        Set<Name> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        int checked = 0;
+        for (Map.Entry<String, NameList> entry : grams.entrySet()) {
+            if (++checked % CANCEL_CHECK_INTERVAL == 0) checkCancelled(cancelled);
+            if (!entry.getKey().contains(query)) continue;
+            for (Name name : entry.getValue().toArray()) {
+                if (seen.add(name)) found.add(name);
+            }
+        }
+        return found;
+    }
+
+    private static int add(List<long[]> matches, long[] ids) {
+        if (ids.length > 0) matches.add(ids);
+        return ids.length;
+    }
+
+    // All the ids, ascending and each once; a student may match by both name and major
+    private static long[] ascending(List<long[]> matches, int total) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long[] some : matches) {
+            for (long id : some) {
+                min = Math.min(min, id);
+                max = Math.max(max, id);
+            }
+        }
+        if (total == 0) return new long[0];
+        if (matches.size() == 1 && isSorted(matches.get(0))) return matches.get(0);
+
+        // Ids are handed out in sequence, so they usually fit a bitset a few words per id at most
+        if (max - min < 256L * total) {
+            long[] bits = new long[(int) ((max - min) >>> 6) + 1];
+            for (long[] some : matches) {
+                for (long id : some) bits[(int) ((id - min) >>> 6)] |= 1L << (id - min);
+            }
+            long[] ids = new long[total];
+            int count = 0;
+            for (int word = 0; word < bits.length; word++) {
+                for (long set = bits[word]; set != 0; set &= set - 1) {
+                    ids[count++] = min + ((long) word << 6) + Long.numberOfTrailingZeros(set);
+                }
+            }
+            return Arrays.copyOf(ids, count);
+        }
+        long[] ids = new long[total];
+        int count = 0;
+        for (long[] some : matches) {
+            System.arraycopy(some, 0, ids, count, some.length);
+            count += some.length;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static boolean isSorted(long[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] < ids[i - 1]) return false;
+        }
+        return true;
+    }
+
+    // Each name's trigrams once, edges included
+    private static Set<String> grams(String text) {
+        String padded = EDGE + text + EDGE;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= padded.length(); i++) grams.add(padded.substring(i, i + GRAM));
+        return grams;
+    }
+
+    private void emptied(int count) {
+        emptyNames += count;
+        if (emptyNames < SWEEP_MIN || emptyNames * 2 < names.size()) return;
+        // Kept until now so a name that comes back finds its trigrams already filed
+        names.values().removeIf(name -> name.ids.isEmpty());
+        grams.values().removeIf(NameList::sweep);
+        emptyNames = 0;
+    }
+
+    private static int[] rows(long[] found, int count) {
+        int[] rows = new int[count];
+        int next = 0;
+        for (int word = 0; word < found.length; word++) {
+            for (long bits = found[word]; bits != 0; bits &= bits - 1) {
+                rows[next++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return rows;
+    }
+
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) throw new CancellationException();
+    }
+
+    // A distinct lower-case name and the students who have it
+    private static final class Name {
+        final String text;
+        final IdList ids = new IdList();
+
+        Name(String text) {
+            this.text = text;
+        }
+    }
+
+    // The names under one trigram, in no particular order
+    private static final class NameList {
+        private Name[] names = new Name[1];
+        private int size;
+
+        synchronized void add(Name name) {
+            if (size == names.length) names = Arrays.copyOf(names, size * 2);
+            names[size++] = name;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized Name[] toArray() {
+            return Arrays.copyOf(names, size);
+        }
+
+        // Drops the names nobody has any more; true if none are left
+        synchronized boolean sweep() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!names[i].ids.isEmpty()) names[kept++] = names[i];
+            }
+            Arrays.fill(names, kept, size, null);
+            size = kept;
+            return size == 0;
+        }
+    }
+
+    // Growable list of student ids; most names only ever hold a few. Removals from a
+    // long list are only noted, then swept out together once they make up a quarter of it
+    private static final class IdList {
+        private static final int SCAN_LIMIT = 64;
+
+        private long[] ids = new long[1];
+        private int size;
+        // Ids still in the array that have been removed
+        private LongIntMap removed;
+
+        synchronized void add(long id) {
+            if (removed != null && removed.get(id) >= 0) {
+                removed.remove(id);
+                return;
+            }
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        /** The id must be in the list. */
+        synchronized boolean remove(long id) {
+            if (size > SCAN_LIMIT) {
+                if (removed == null) removed = new LongIntMap();
+                removed.put(id, 0);
+                if (removed.size() * 4 > size) removeAll(new LongIntMap());
+                return true;
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // One pass, keeping the survivors in place
+        synchronized boolean removeAll(LongIntMap gone) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (gone.get(ids[i]) < 0 && !isRemoved(ids[i])) ids[kept++] = ids[i];
+            }
+            boolean changed = kept < size;
+            size = kept;
+            removed = null;
+            return changed;
+        }
+
+        synchronized boolean isEmpty() {
+            return size == (removed == null ? 0 : removed.size());
+        }
+
+        synchronized long[] toArray() {
+            if (removed == null) return Arrays.copyOf(ids, size);
+            long[] live = new long[size - removed.size()];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (!isRemoved(ids[i])) live[count++] = ids[i];
+            }
+            return live;
+        }
+
+        private boolean isRemoved(long id) {
+            return removed != null && removed.get(id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package miniproject2_final.studentgradetracker;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One student's record.
+ *
+ * Students handed out by {@link StudentTable} are short-lived views of a
+ * row, so two Student objects are the same student when their ids match.
+ */
+public class Student {
+    /** The majors offered by the entry form. */
+    static final List<String> MAJORS = List.of(
+            "Computer Science", "Engineering", "Business Administration", "Medicine",
+            "Law", "Psychology", "Biology", "Mathematics", "Physics", "Chemistry",
+            "Economics", "Political Science", "Literature", "History", "Philosophy",
+            "Architecture", "Fine Arts", "Music", "Education", "Nursing"
+    );
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long id;
+    private final String name;
+    private final double grade;
+    private final String major;
+    private final long epochNanos;
+
+    public Student(String name, double grade, String major) {
+        this(name, grade, major, LocalDateTime.now());
+    }
+
+    public Student(String name, double grade, String major, LocalDateTime timestamp) {
+        this(NEXT_ID.getAndIncrement(), name, grade, major, epochNanos(timestamp));
+    }
+
+    Student(long id, String name, double grade, String major, long epochNanos) {
+        this.id = id;
+        this.name = name;
+        this.grade = grade;
+        this.major = major;
+        this.epochNanos = epochNanos;
+    }
+
+    public String getName() { return name; }
+    public double getGrade() { return grade; }
+    public String getMajor() { return major; }
+
+    public LocalDateTime getTimestamp() {
+        return dateTime(epochNanos);
+    }
+
+    public long getId() { return id; }
+
+    // Timestamp as nanoseconds since the epoch, read as UTC
+    long getEpochNanos() { return epochNanos; }
+
+    static long epochNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + time.getNano();
+    }
+
+    static LocalDateTime dateTime(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    // Same rule the search box has always used: name or major contains the query
+    boolean matches(String normalizedQuery) {
+        return normalize(name).contains(normalizedQuery) || normalize(major).contains(normalizedQuery);
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Student && ((Student) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
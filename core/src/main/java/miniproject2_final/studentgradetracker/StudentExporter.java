@@ -0,0 +1,208 @@
+package miniproject2_final.studentgradetracker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes the roster, or a per-major summary of it, to CSV or JSON.
+ *
+ * Rows go straight through a buffered writer as they are formatted, so the
+ * output is never held in memory as a whole. The exporter works on a
+ * snapshot, so later edits do not show up halfway through a file, and counts
+ * passing students by the letter each row already has.
+ */
+final class StudentExporter {
+
+    enum Format {
+        STUDENTS_CSV, MAJORS_CSV, JSON
+    }
+
+    private static final int PROGRESS_INTERVAL = 4096;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final StudentTable.Snapshot students;
+
+    StudentExporter(StudentTable.Snapshot students) {
+        this.students = students;
+    }
+
+    void export(Path file, Format format, Progress progress) throws IOException {
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            switch (format) {
+                case STUDENTS_CSV: writeStudentsCsv(out, progress); break;
+                case MAJORS_CSV: writeMajorsCsv(out, summarize(progress)); break;
+                case JSON: writeJson(out, progress); break;
+            }
+        }
+        progress.update(students.size(), students.size());
+    }
+
+    // ---- CSV ----
+
+    private void writeStudentsCsv(Writer out, Progress progress) throws IOException {
+        out.write("name,grade,major,timestamp\n");
+        long done = 0;
+        for (Student student : students) {
+            writeCsvField(out, student.getName());
+            out.write(',');
+            out.write(Double.toString(student.getGrade()));
+            out.write(',');
+            writeCsvField(out, student.getMajor());
+            out.write(',');
+            out.write(student.getTimestamp().toString());
+            out.write('\n');
+            if (++done % PROGRESS_INTERVAL == 0) progress.update(done, students.size());
+        }
+    }
+
+    private void writeMajorsCsv(Writer out, Map<String, MajorSummary> majors) throws IOException {
+        out.write("major,students,average,lowest,highest,passing\n");
+        for (MajorSummary major : majors.values()) {
+            writeCsvField(out, major.name);
+            out.write(',');
+            out.write(Long.toString(major.count));
+            out.write(',');
+            out.write(Double.toString(major.average()));
+            out.write(',');
+            out.write(Double.toString(major.lowest));
+            out.write(',');
+            out.write(Double.toString(major.highest));
+            out.write(',');
+            out.write(Long.toString(major.passing));
+            out.write('\n');
+        }
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    // ---- JSON ----
+
+    // Students are written as they are read; the major summary is gathered on the way
+    private void writeJson(Writer out, Progress progress) throws IOException {
+        Map<String, MajorSummary> majors = new LinkedHashMap<>();
+
+        out.write("{\n  \"students\": [");
+        long done = 0;
+        for (Student student : students) {
+            out.write(done == 0 ? "\n    {\"name\": " : ",\n    {\"name\": ");
+            writeJsonString(out, student.getName());
+            out.write(", \"grade\": ");
+            out.write(Double.toString(student.getGrade()));
+            out.write(", \"major\": ");
+            writeJsonString(out, student.getMajor());
+            out.write(", \"timestamp\": \"");
+            out.write(student.getTimestamp().toString());
+            out.write("\"}");
+
+            majors.computeIfAbsent(student.getMajor(), MajorSummary::new)
+                    .add(student.getGrade(), students.gradingScheme().isPassing(students.letterAt((int) done)));
+            if (++done % PROGRESS_INTERVAL == 0) progress.update(done, students.size());
+        }
+        out.write(done == 0 ? "],\n" : "\n  ],\n");
+
+        out.write("  \"majors\": [");
+        boolean first = true;
+        for (MajorSummary major : majors.values()) {
+            out.write(first ? "\n    {\"major\": " : ",\n    {\"major\": ");
+            first = false;
+            writeJsonString(out, major.name);
+            out.write(", \"students\": ");
+            out.write(Long.toString(major.count));
+            out.write(", \"average\": ");
+            out.write(Double.toString(major.average()));
+            out.write(", \"lowest\": ");
+            out.write(Double.toString(major.lowest));
+            out.write(", \"highest\": ");
+            out.write(Double.toString(major.highest));
+            out.write(", \"passing\": ");
+            out.write(Long.toString(major.passing));
+            out.write('}');
+        }
+        out.write(first ? "]\n}\n" : "\n  ]\n}\n");
+    }
+
+    static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    // ---- Per-major summary ----
+
+    private Map<String, MajorSummary> summarize(Progress progress) {
+        Map<String, MajorSummary> majors = new LinkedHashMap<>();
+        long done = 0;
+        for (Student student : students) {
+            majors.computeIfAbsent(student.getMajor(), MajorSummary::new)
+                    .add(student.getGrade(), students.gradingScheme().isPassing(students.letterAt((int) done)));
+            if (++done % PROGRESS_INTERVAL == 0) progress.update(done, students.size());
+        }
+        return majors;
+    }
+
+    private static final class MajorSummary {
+        final String name;
+        long count;
+        long passing;
+        double sum;
+        double lowest = Double.MAX_VALUE;
+        double highest = -Double.MAX_VALUE;
+
+        MajorSummary(String name) {
+            this.name = name;
+        }
+
+        void add(double grade, boolean passes) {
+            count++;
+            sum += grade;
+            lowest = Math.min(lowest, grade);
+            highest = Math.max(highest, grade);
+            if (passes) passing++;
+        }
+
+        double average() {
+            return sum / count;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package miniproject2_final.studentgradetracker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams students in from a CSV or TSV file.
+ *
+ * The file is read through a FileChannel in blocks that end on a line break.
+ * Each block is decoded, split and validated on a worker pool using the same
+ * rules as the entry form, and finished blocks are handed to the caller in
+ * file order as one batch each. Rows that fail validation are counted and
+ * described in the result instead of stopping the import.
+ *
+ * Columns are taken from a header row naming "name", "grade" and "major" when
+ * there is one, otherwise they are read in that order. Quoted fields may
+ * contain the delimiter but not line breaks.
+ */
+final class StudentImporter {
+
+    /** Receives each batch of valid students, in file order. */
+    interface BatchSink {
+        void accept(List<Student> batch);
+    }
+
+    /** What happened during an import. */
+    static final class Result {
+        private final long imported;
+        private final long rejected;
+        private final List<String> errors;
+
+        Result(long imported, long rejected, List<String> errors) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.errors = errors;
+        }
+
+        long getImported() { return imported; }
+        long getRejected() { return rejected; }
+
+        /** Descriptions of the first {@link #MAX_REPORTED_ERRORS} rejected rows. */
+        List<String> getErrors() { return errors; }
+    }
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_BLOCKS_IN_FLIGHT = THREADS * 2;
+
+    private final Path file;
+
+    private ByteBuffer buffer;
+    private boolean hasHeader;
+    private char delimiter;
+    private int nameColumn = 0;
+    private int gradeColumn = 1;
+    private int majorColumn = 2;
+
+    StudentImporter(Path file) {
+        this.file = file;
+    }
+
+    Result run(BatchSink sink, Progress progress) throws IOException, InterruptedException {
+        ExecutorService parsers = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread thread = new Thread(r, "student-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long imported = 0;
+        long rejected = 0;
+        long linesBefore = 0;
+        List<String> errors = new ArrayList<>();
+        ArrayDeque<Future<Block>> inFlight = new ArrayDeque<>();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long total = channel.size();
+            buffer = ByteBuffer.allocate(BLOCK_SIZE);
+            long offset = 0;
+            boolean eof = false;
+
+            while (true) {
+                // Keep a bounded number of blocks parsing, then collect the oldest
+                while (!eof && inFlight.size() < MAX_BLOCKS_IN_FLIGHT) {
+                    byte[] bytes = readBlock(channel);
+                    if (bytes == null) {
+                        eof = true;
+                        break;
+                    }
+                    boolean first = offset == 0;
+                    int skip = first ? readHeader(bytes) : 0;
+                    boolean skipHeader = first && hasHeader;
+                    offset += bytes.length;
+                    long endOffset = offset;
+                    inFlight.add(parsers.submit(() -> parseBlock(bytes, skip, skipHeader, endOffset)));
+                }
+                if (inFlight.isEmpty()) break;
+
+                Block parsed = await(inFlight.poll());
+                for (Block.Error error : parsed.errors) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("Line " + (linesBefore + error.line) + ": " + error.message);
+                    }
+                }
+                linesBefore += parsed.lines;
+                if (!parsed.students.isEmpty()) {
+                    imported += parsed.students.size();
+                    sink.accept(parsed.students);
+                }
+                progress.update(parsed.endOffset, total);
+            }
+        } finally {
+            for (Future<Block> pending : inFlight) pending.cancel(true);
+            parsers.shutdownNow();
+        }
+
+        return new Result(imported, rejected, Collections.unmodifiableList(errors));
+    }
+
+    // ---- Reading ----
+
+    // Returns the next run of whole lines, or null at end of file
+    private byte[] readBlock(FileChannel channel) throws IOException {
+        while (true) {
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) read = channel.read(buffer);
+            if (read < 0) {
+                return buffer.position() == 0 ? null : take(buffer.position());
+            }
+
+            int lastNewline = lastIndexOf(buffer.array(), buffer.position(), (byte) '\n');
+            if (lastNewline >= 0) return take(lastNewline + 1);
+
+            // A single line longer than the buffer; make room for it
+            ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+    }
+
+    private byte[] take(int length) {
+        byte[] block = Arrays.copyOf(buffer.array(), length);
+        buffer.flip();
+        buffer.position(length);
+        buffer.compact();
+        return block;
+    }
+
+    private static int lastIndexOf(byte[] bytes, int end, byte value) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (bytes[i] == value) return i;
+        }
+        return -1;
+    }
+
+    // Picks the delimiter and columns from the first line; returns the bytes of BOM to skip
+    private int readHeader(byte[] block) {
+        int end = 0;
+        while (end < block.length && block[end] != '\n') end++;
+        String firstLine = new String(block, 0, end, StandardCharsets.UTF_8);
+        int bom = 0;
+        if (firstLine.startsWith("\uFEFF")) {
+            firstLine = firstLine.substring(1);
+            bom = 3;
+        }
+
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        delimiter = fileName.endsWith(".tsv") || (firstLine.indexOf('\t') >= 0 && firstLine.indexOf(',') < 0)
+                ? '\t' : ',';
+
+        List<String> fields = new ArrayList<>();
+        splitLine(stripCarriageReturn(firstLine), delimiter, fields);
+        int name = -1, grade = -1, major = -1;
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i).trim().toLowerCase(Locale.ROOT);
+            if (field.equals("name")) name = i;
+            else if (field.equals("grade")) grade = i;
+            else if (field.equals("major")) major = i;
+        }
+        hasHeader = name >= 0 && grade >= 0;
+        if (hasHeader) {
+            nameColumn = name;
+            gradeColumn = grade;
+            majorColumn = major;
+        }
+        return bom;
+    }
+
+    // ---- Parsing ----
+
+    private static final class Block {
+        static final class Error {
+            final int line;
+            final String message;
+
+            Error(int line, String message) {
+                this.line = line;
+                this.message = message;
+            }
+        }
+
+        final List<Student> students = new ArrayList<>();
+        final List<Error> errors = new ArrayList<>();
+        final long endOffset;
+        int lines;
+
+        Block(long endOffset) {
+            this.endOffset = endOffset;
+        }
+    }
+
+    private Block parseBlock(byte[] bytes, int skip, boolean skipHeader, long endOffset) {
+        Block block = new Block(endOffset);
+        String text = new String(bytes, skip, bytes.length - skip, StandardCharsets.UTF_8);
+        List<String> fields = new ArrayList<>(4);
+
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) end = text.length();
+            block.lines++;
+            String line = stripCarriageReturn(text.substring(start, end));
+            start = end + 1;
+
+            if (skipHeader && block.lines == 1) continue;
+            if (line.isBlank()) continue;
+
+            fields.clear();
+            splitLine(line, delimiter, fields);
+            try {
+                block.students.add(StudentValidator.parse(
+                        field(fields, nameColumn), field(fields, gradeColumn), field(fields, majorColumn)));
+            } catch (IllegalArgumentException e) {
+                block.errors.add(new Block.Error(block.lines, e.getMessage()));
+            }
+        }
+        return block;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+
+    private static String stripCarriageReturn(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    // Splits one line, honouring double quotes and "" escapes inside them
+    static void splitLine(String line, char delimiter, List<String> out) {
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                out.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        out.add(field.toString());
+    }
+
+    private static Block await(Future<Block> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package miniproject2_final.studentgradetracker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the roster is kept between runs.
+ *
+ * The tracker loads the roster once at startup and then reports every change
+ * as it happens, so implementations only ever see small writes.
+ */
+interface StudentRepository extends Closeable {
+
+    /** Reads the saved roster, in the order it was saved. */
+    List<Student> load() throws IOException;
+
+    /** The grades {@link #recordGrade} saved for the students the last {@link #load} returned. */
+    List<RecordedGrade> loadedGrades();
+
+    void add(Student student) throws IOException;
+
+    /** Saves a batch of new students, e.g. from an import, in one write. */
+    void addAll(List<? extends Student> students) throws IOException;
+
+    void remove(Student student) throws IOException;
+
+    void clear() throws IOException;
+
+    /** Saves one more grade of a saved student, as {@link GradeBook#recordGrade} adds it to their history. */
+    void recordGrade(RecordedGrade grade) throws IOException;
+
+    /** True once enough changes have piled up that {@link #compact} is worth running. */
+    boolean needsCompaction();
+
+    /**
+     * Replaces the saved history with the given roster. The list must include
+     * every change passed to this repository so far and must not be modified
+     * afterwards; the slow part of the work may finish in the background.
+     * If that fails, the next call to compact or {@link #close()} throws the
+     * failure, and the saved history stays as it was.
+     */
+    void compact(List<Student> current) throws IOException;
+}
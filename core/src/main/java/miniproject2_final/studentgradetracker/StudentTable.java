@@ -0,0 +1,793 @@
+package miniproject2_final.studentgradetracker;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * The roster, stored column by column in fixed-size segments.
+ *
+ * Grades, major codes, timestamps and ids live in primitive arrays, majors
+ * are kept once in a dictionary, and names are packed as UTF-8 into a byte
+ * arena per segment. Each row also keeps the ordinal of its letter under the
+ * table's {@link GradingScheme}, looked up once when the row goes in. That
+ * costs a few dozen bytes per student instead of a Student, two Strings and
+ * a LocalDateTime each.
+ *
+ * Segments are copy-on-write: a row is only ever written in place into a
+ * slot past the end of its segment, which no snapshot can see yet. Removing
+ * a row leaves it where it is and sets its bit in the segment's tombstones,
+ * a 128-byte bitset that is replaced rather than edited; a segment is only
+ * rewritten once more than half of it is tombstones, and putting a removed
+ * row back where it was clears its bit again. Inserting before the end copies
+ * the one segment involved, so a {@link #snapshot()} is just the list of
+ * current segments, their lengths and tombstones. It costs one entry per
+ * thousand students, never changes afterwards, and can be read by any thread
+ * while the table moves on.
+ *
+ * Each segment also has a slot number that survives its copies. A map from
+ * student id to slot and row, plus where each slot sits in the segment list,
+ * finds a student by id without looking at any other row. The map is a
+ * {@link LongIntTrie}, so every snapshot keeps the map as it was when it was
+ * taken and finds its students the same way.
+ *
+ * The table itself has a single writer at a time; {@link GradeBook} sees to that.
+ */
+final class StudentTable {
+
+    static final int SEGMENT_SIZE = 1024;
+    private static final int ROW_BITS = Integer.numberOfTrailingZeros(SEGMENT_SIZE);
+    private static final int INITIAL_NAME_BYTES = SEGMENT_SIZE * 16;
+
+    private final List<Segment> segments = new ArrayList<>();
+    // starts[i] is the index of the first live row of segment i; starts[segments.size()] == size
+    private int[] starts = new int[1];
+
+    private String[] majors = new String[16];
+    private int majorCount;
+    private final Map<String, Short> majorDictionary = new HashMap<>();
+
+    // Slot and row of each live id, packed by at(); slots of dropped segments are reused
+    private LongIntTrie rowOfId = new LongIntTrie();
+    private int[] positionOfSlot = new int[16];
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int slotCount;
+
+    // Bumped by every write; snapshots carry it, so results computed from one can be cached
+    private long version;
+
+    private GradingScheme scheme;
+
+    StudentTable() {
+        this(GradingScheme.DEFAULT);
+    }
+
+    StudentTable(GradingScheme scheme) {
+        this.scheme = scheme;
+    }
+
+    // ---- Reads ----
+
+    int size() {
+        return starts[segments.size()];
+    }
+
+    Student get(int index) {
+        int s = segmentOf(index);
+        Segment segment = segments.get(s);
+        return segment.row(segment.rowAt(index - starts[s]), majors);
+    }
+
+    double gradeAt(int index) {
+        int s = segmentOf(index);
+        Segment segment = segments.get(s);
+        return segment.grades[segment.rowAt(index - starts[s])];
+    }
+
+    /** Index of the student with this id, or -1; one map lookup, no scan. */
+    int indexOf(long id) {
+        int at = rowOfId.get(id);
+        if (at < 0) return -1;
+        int s = positionOfSlot[at >>> ROW_BITS];
+        int row = at & (SEGMENT_SIZE - 1);
+        return starts[s] + row - deadBetween(segments.get(s).dead, 0, row);
+    }
+
+    long version() {
+        return version;
+    }
+
+    GradingScheme gradingScheme() {
+        return scheme;
+    }
+
+    /** The current rows, frozen; later writes to the table do not show up in it. */
+    Snapshot snapshot() {
+        int count = segments.size();
+        Segment[] frozen = segments.toArray(new Segment[0]);
+        int[] lengths = new int[count];
+        byte[][] names = new byte[count][];
+        byte[][] letters = new byte[count][];
+        long[][] dead = new long[count][];
+        for (int s = 0; s < count; s++) {
+            lengths[s] = frozen[s].count;
+            names[s] = frozen[s].names;
+            letters[s] = frozen[s].letters;
+            dead[s] = frozen[s].dead;
+        }
+        return new Snapshot(frozen, new int[count], lengths, names, letters, dead, Arrays.copyOf(starts, count + 1),
+                rowOfId.freeze(), Arrays.copyOf(positionOfSlot, slotCount), majors, majorCount, scheme, version);
+    }
+
+    // ---- Writes ----
+
+    /**
+     * Inserts the student at {@code index} and returns the letter ordinal the
+     * row was given. A student put back where they were removed from gets
+     * their old row back instead of a copy of the segment.
+     */
+    int add(int index, Student student) {
+        int size = size();
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        version++;
+
+        int revived = revive(index, student);
+        if (revived >= 0) return revived;
+
+        if (index == size) {
+            // Appends fill the last segment in place
+            Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last == null || last.count == SEGMENT_SIZE) {
+                last = new Segment(newSlot());
+                segments.add(last);
+                positionOfSlot[last.slot] = segments.size() - 1;
+                starts = Arrays.copyOf(starts, segments.size() + 1);
+                starts[segments.size()] = size;
+            }
+            int letter = append(last, student);
+            starts[segments.size()]++;
+            return letter;
+        }
+
+        int s = segmentOf(index);
+        Segment segment = segments.get(s);
+        int row = segment.rowAt(index - starts[s]);
+        Segment copy = new Segment(segment.slot);
+        copyLiveRows(copy, segment, 0, row);
+        int letter = append(copy, student);
+        if (copy.count + segment.count - row - deadBetween(segment.dead, row, segment.count) <= SEGMENT_SIZE) {
+            copyLiveRows(copy, segment, row, segment.count);
+            segments.set(s, copy);
+            shiftStarts(s, 1);
+        } else {
+            // Full: split in two rather than grow
+            Segment rest = new Segment(newSlot());
+            copyLiveRows(rest, segment, row, segment.count);
+            segments.set(s, copy);
+            segments.add(s + 1, rest);
+            recomputeStarts();
+        }
+        return letter;
+    }
+
+    /** Removes the rows and returns them. */
+    Snapshot removeRange(int fromIndex, int toIndex) {
+        int size = size();
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range: " + fromIndex + "-" + toIndex + ", Size: " + size);
+        }
+        if (fromIndex == toIndex) return new StudentTable(scheme).snapshot();
+        if (fromIndex == 0 && toIndex == size) {
+            Snapshot removed = snapshot();
+            version++;
+            segments.clear();
+            forgetSlots();
+            recomputeStarts();
+            return removed;
+        }
+
+        int first = segmentOf(fromIndex);
+        int last = segmentOf(toIndex - 1);
+        Snapshot removed = slice(first, last, fromIndex, toIndex);
+        version++;
+        int[] taken = new int[last - first + 1];
+        for (int s = first; s <= last; s++) {
+            Segment segment = segments.get(s);
+            int from = Math.max(fromIndex, starts[s]) - starts[s];
+            int to = Math.min(toIndex, starts[s + 1]) - starts[s];
+            long[] dead = segment.deadForWrite();
+            for (int row = segment.rowAt(from), left = to - from; left > 0; row++) {
+                if (isDead(dead, row)) continue;
+                rowOfId.remove(segment.ids[row]);
+                dead[row >>> 6] |= 1L << row;
+                left--;
+            }
+            segment.bury(dead, to - from);
+            taken[s - first] = to - from;
+        }
+        settleRemoval(first, taken);
+        return removed;
+    }
+
+    /**
+     * Removes the given rows, ascending and without repeats, and returns them
+     * in that order. Each row is only marked dead in its segment, so removing
+     * one student copies 128 bytes of tombstones and moves the later segments'
+     * starts down, whatever the size of the table.
+     */
+    List<Student> removeRows(int[] rows, int count) {
+        List<Student> removed = new ArrayList<>(count);
+        if (count == 0) return removed;
+        version++;
+
+        int first = segmentOf(rows[0]);
+        int[] taken = new int[segmentOf(rows[count - 1]) - first + 1];
+        int next = 0;
+        for (int s = first; next < count; s++) {
+            int end = starts[s + 1];
+            if (rows[next] >= end) continue;
+            Segment segment = segments.get(s);
+            long[] dead = segment.deadForWrite();
+            int buried = 0;
+            for (; next < count && rows[next] < end; next++, buried++) {
+                int row = segment.rowAt(rows[next] - starts[s]);
+                removed.add(segment.row(row, majors));
+                rowOfId.remove(segment.ids[row]);
+                dead[row >>> 6] |= 1L << row;
+            }
+            segment.bury(dead, buried);
+            taken[s - first] = buried;
+        }
+        settleRemoval(first, taken);
+        return removed;
+    }
+
+    /**
+     * Switches to {@code scheme} and looks up every row's letter again, a
+     * segment per task on the common fork/join pool. Each segment gets a new
+     * letter column, so snapshots keep the letters they were taken with.
+     * Returns how many rows got each letter, per major code.
+     */
+    long[][] regrade(GradingScheme scheme) {
+        version++;
+        this.scheme = scheme;
+        int majorCount = this.majorCount;
+        long[][] counts = new long[majorCount][scheme.letterCount()];
+        long[][][] perSegment = IntStream.range(0, segments.size()).parallel().mapToObj(s -> {
+            Segment segment = segments.get(s);
+            byte[] letters = new byte[SEGMENT_SIZE];
+            long[][] segmentCounts = new long[majorCount][scheme.letterCount()];
+            // Removed rows get a letter too, in case they are put back
+            for (int row = 0; row < segment.count; row++) {
+                int letter = scheme.letterOf(segment.grades[row]);
+                letters[row] = (byte) letter;
+                if (!isDead(segment.dead, row)) segmentCounts[segment.majorCodes[row]][letter]++;
+            }
+            segment.letters = letters;
+            return segmentCounts;
+        }).toArray(long[][][]::new);
+        for (long[][] segmentCounts : perSegment) {
+            for (int code = 0; code < majorCount; code++) {
+                for (int letter = 0; letter < counts[code].length; letter++) counts[code][letter] += segmentCounts[code][letter];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Carries on counting versions from past {@code version}, for a table put
+     * back in place of another, so no two states share a version.
+     */
+    void continueAfter(long version) {
+        this.version = Math.max(this.version, version) + 1;
+    }
+
+    private short majorCode(String major) {
+        Short code = majorDictionary.get(major);
+        if (code != null) return code;
+
+        int next = majorCount;
+        if (next > Short.MAX_VALUE) throw new IllegalStateException("Too many distinct majors");
+        // Snapshots keep the array they saw; new majors go past their end or into a copy
+        if (next == majors.length) majors = Arrays.copyOf(majors, next * 2);
+        majors[next] = major;
+        majorCount++;
+        majorDictionary.put(major, (short) next);
+        return (short) next;
+    }
+
+    private int segmentOf(int index) {
+        int size = size();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return segmentOf(starts, segments.size(), index);
+    }
+
+    /**
+     * Gives the student back the removed row they left between the rows
+     * around {@code index}, if it is still there, and returns its letter;
+     * -1 if it is not.
+     */
+    private int revive(int index, Student student) {
+        if (segments.isEmpty()) return -1;
+        int s = index == size() ? segments.size() - 1 : segmentOf(index);
+        Segment segment = segments.get(s);
+        int local = index - starts[s];
+        int to = local < segment.live() ? segment.rowAt(local) : segment.count;
+        int from = local > 0 ? segment.rowAt(local - 1) + 1 : 0;
+        short majorCode = majorCode(student.getMajor());
+        int row = segment.findDead(student, majorCode, from, to);
+        if (row < 0 && local == 0 && s > 0) {
+            // Right at a segment's start, the row may also be at the end of the one before
+            segment = segments.get(--s);
+            row = segment.findDead(student, majorCode, segment.rowAt(segment.live() - 1) + 1, segment.count);
+        }
+        if (row < 0) return -1;
+
+        long[] dead = segment.dead.clone();
+        dead[row >>> 6] &= ~(1L << row);
+        segment.bury(dead, -1);
+        rowOfId.put(student.getId(), at(segment.slot, row));
+        shiftStarts(s, 1);
+        return segment.letters[row];
+    }
+
+    /**
+     * Moves the starts after the first touched segment down by what each
+     * segment lost, then drops emptied segments and rewrites those left more
+     * than half dead. Only the rare drop or merge renumbers the segments.
+     */
+    private void settleRemoval(int first, int[] taken) {
+        int shift = 0;
+        for (int s = first; s < segments.size(); s++) {
+            if (s - first < taken.length) shift += taken[s - first];
+            starts[s + 1] -= shift;
+        }
+        boolean renumber = false;
+        for (int s = first + taken.length - 1; s >= first; s--) {
+            if (taken[s - first] > 0) renumber |= tidy(s);
+        }
+        if (renumber) recomputeStarts();
+    }
+
+    // True if the segment left the list
+    private boolean tidy(int s) {
+        Segment segment = segments.get(s);
+        int live = segment.live();
+        if (live == 0) {
+            freeSlot(segment.slot);
+            segments.remove(s);
+            return true;
+        }
+        if (segment.deadCount <= live) return false;
+        // Rows only ever go in past a segment's end, so the one before can take in the survivors
+        Segment previous = s > 0 ? segments.get(s - 1) : null;
+        if (previous != null && previous.count + live <= SEGMENT_SIZE) {
+            copyLiveRows(previous, segment, 0, segment.count);
+            freeSlot(segment.slot);
+            segments.remove(s);
+            return true;
+        }
+        Segment compacted = new Segment(segment.slot);
+        copyLiveRows(compacted, segment, 0, segment.count);
+        segments.set(s, compacted);
+        return false;
+    }
+
+    private void shiftStarts(int s, int delta) {
+        for (int i = s + 1; i < starts.length; i++) starts[i] += delta;
+    }
+
+    private void recomputeStarts() {
+        starts = new int[segments.size() + 1];
+        for (int s = 0; s < segments.size(); s++) {
+            Segment segment = segments.get(s);
+            starts[s + 1] = starts[s] + segment.live();
+            positionOfSlot[segment.slot] = s;
+        }
+    }
+
+    // The one place a row's letter is looked up; copies of the row take it along
+    private int append(Segment segment, Student student) {
+        int letter = scheme.letterOf(student.getGrade());
+        segment.append(student, majorCode(student.getMajor()), (byte) letter);
+        rowOfId.put(student.getId(), at(segment.slot, segment.count - 1));
+        return letter;
+    }
+
+    // Copies the live rows of [from, to); rows that end up somewhere else are re-filed there
+    private void copyLiveRows(Segment target, Segment source, int from, int to) {
+        for (int row = from; row < to; row++) {
+            if (isDead(source.dead, row)) continue;
+            target.appendRows(source, row, row + 1);
+            if (target.slot != source.slot || target.count - 1 != row) {
+                rowOfId.put(source.ids[row], at(target.slot, target.count - 1));
+            }
+        }
+    }
+
+    private int newSlot() {
+        if (freeSlotCount > 0) return freeSlots[--freeSlotCount];
+        if (slotCount == positionOfSlot.length) positionOfSlot = Arrays.copyOf(positionOfSlot, slotCount * 2);
+        return slotCount++;
+    }
+
+    private void freeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private void forgetSlots() {
+        rowOfId = new LongIntTrie();
+        freeSlotCount = 0;
+        slotCount = 0;
+    }
+
+    private Snapshot slice(int first, int last, int fromIndex, int toIndex) {
+        int count = last - first + 1;
+        Segment[] sliced = new Segment[count];
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        byte[][] names = new byte[count][];
+        byte[][] letters = new byte[count][];
+        long[][] dead = new long[count][];
+        int[] sliceStarts = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            Segment segment = segments.get(first + i);
+            int from = Math.max(fromIndex, starts[first + i]) - starts[first + i];
+            int to = Math.min(toIndex, starts[first + i + 1]) - starts[first + i];
+            sliced[i] = segment;
+            offsets[i] = segment.rowAt(from);
+            lengths[i] = segment.rowAt(to - 1) + 1 - offsets[i];
+            names[i] = segment.names;
+            letters[i] = segment.letters;
+            dead[i] = segment.dead;
+            sliceStarts[i + 1] = sliceStarts[i] + to - from;
+        }
+        return new Snapshot(sliced, offsets, lengths, names, letters, dead, sliceStarts, null, null,
+                majors, majorCount, scheme, version);
+    }
+
+    private static int at(int slot, int row) {
+        return slot << ROW_BITS | row;
+    }
+
+    // Last segment whose start is <= index
+    private static int segmentOf(int[] starts, int segmentCount, int index) {
+        int low = 0;
+        int high = segmentCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= index) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    private static boolean isDead(long[] dead, int row) {
+        return dead != null && (dead[row >>> 6] & 1L << row) != 0;
+    }
+
+    // How many rows of [from, to) are marked dead
+    private static int deadBetween(long[] dead, int from, int to) {
+        if (dead == null || from >= to) return 0;
+        int count = 0;
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long bits = dead[word];
+            if (word == firstWord) bits &= -1L << from;
+            if (word == lastWord) bits &= -1L >>> (63 - ((to - 1) & 63));
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    // The row of the n-th live row from row {@code from} on; the caller knows there are that many
+    private static int liveRow(long[] dead, int from, int n) {
+        if (dead == null) return from + n;
+        int word = from >>> 6;
+        long live = ~dead[word] & (-1L << from);
+        while (true) {
+            int count = Long.bitCount(live);
+            if (n < count) {
+                for (; n > 0; n--) live &= live - 1;
+                return (word << 6) + Long.numberOfTrailingZeros(live);
+            }
+            n -= count;
+            live = ~dead[++word];
+        }
+    }
+
+    /**
+     * Up to SEGMENT_SIZE rows. Rows below {@code count} never change; new rows
+     * are only written past it, and the name arena is replaced, not edited,
+     * when it has to grow; so is the letter column when the scheme changes,
+     * and the tombstones when a row is removed or put back.
+     */
+    private static final class Segment {
+        final int slot;
+        final long[] ids = new long[SEGMENT_SIZE];
+        final double[] grades = new double[SEGMENT_SIZE];
+        final short[] majorCodes = new short[SEGMENT_SIZE];
+        final long[] timestamps = new long[SEGMENT_SIZE];
+        final int[] nameOffsets = new int[SEGMENT_SIZE];
+        final int[] nameLengths = new int[SEGMENT_SIZE];
+        byte[] letters = new byte[SEGMENT_SIZE];
+        byte[] names = new byte[INITIAL_NAME_BYTES];
+        int namesUsed;
+        int count;
+        // A bit per removed row below count; null while there are none
+        long[] dead;
+        int deadCount;
+
+        Segment(int slot) {
+            this.slot = slot;
+        }
+
+        int live() {
+            return count - deadCount;
+        }
+
+        // Row of the local-th live row
+        int rowAt(int local) {
+            return liveRow(dead, 0, local);
+        }
+
+        long[] deadForWrite() {
+            return dead == null ? new long[SEGMENT_SIZE / 64] : dead.clone();
+        }
+
+        // Installs new tombstones holding {@code buried} more dead rows (fewer if negative)
+        void bury(long[] dead, int buried) {
+            deadCount += buried;
+            this.dead = deadCount == 0 ? null : dead;
+        }
+
+        // A removed row in [from, to) holding exactly this student, or -1
+        int findDead(Student student, short majorCode, int from, int to) {
+            for (int row = from; row < to; row++) {
+                if (isDead(dead, row) && ids[row] == student.getId() && grades[row] == student.getGrade()
+                        && majorCodes[row] == majorCode && timestamps[row] == student.getEpochNanos()
+                        && name(row, names).equals(student.getName())) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+
+        void append(Student student, short majorCode, byte letter) {
+            byte[] name = student.getName().getBytes(StandardCharsets.UTF_8);
+            writeRow(student.getId(), student.getGrade(), majorCode, letter, student.getEpochNanos(), name, 0, name.length);
+        }
+
+        // Copies rows [from, to) of another segment; only live name bytes come along
+        void appendRows(Segment source, int from, int to) {
+            for (int row = from; row < to; row++) {
+                writeRow(source.ids[row], source.grades[row], source.majorCodes[row], source.letters[row],
+                        source.timestamps[row], source.names, source.nameOffsets[row], source.nameLengths[row]);
+            }
+        }
+
+        private void writeRow(long id, double grade, short majorCode, byte letter, long timestamp,
+                              byte[] nameSource, int nameOffset, int nameLength) {
+            if (namesUsed + nameLength > names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, namesUsed + nameLength));
+            }
+            System.arraycopy(nameSource, nameOffset, names, namesUsed, nameLength);
+            ids[count] = id;
+            grades[count] = grade;
+            majorCodes[count] = majorCode;
+            letters[count] = letter;
+            timestamps[count] = timestamp;
+            nameOffsets[count] = namesUsed;
+            nameLengths[count] = nameLength;
+            namesUsed += nameLength;
+            count++;
+        }
+
+        Student row(int row, String[] majors) {
+            return row(row, names, majors);
+        }
+
+        Student row(int row, byte[] names, String[] majors) {
+            return new Student(ids[row], name(row, names), grades[row], majors[majorCodes[row]], timestamps[row]);
+        }
+
+        String name(int row, byte[] names) {
+            return new String(names, nameOffsets[row], nameLengths[row], StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Rows extends AbstractList<Student> implements RandomAccess {
+        private final Snapshot snapshot;
+        private final int[] indexes;
+
+        Rows(Snapshot snapshot, int[] indexes) {
+            this.snapshot = snapshot;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public Student get(int index) {
+            return snapshot.get(indexes[index]);
+        }
+
+        @Override
+        public int size() {
+            return indexes.length;
+        }
+    }
+
+    interface RowVisitor {
+        void visit(int index, double grade, short majorCode, int letter);
+    }
+
+    interface IdVisitor {
+        void visit(int index, long id, short majorCode);
+    }
+
+    /**
+     * Frozen view of some rows at one moment: for each segment, the range it
+     * had and the name arena and tombstones it used then.
+     */
+    static final class Snapshot extends AbstractList<Student> implements RandomAccess {
+        private final Segment[] segments;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final byte[][] names;
+        private final byte[][] letters;
+        private final long[][] dead;
+        private final int[] starts;
+        // The table's id map and slot positions when this was taken; null for a slice
+        private final LongIntTrie rowOfId;
+        private final int[] positionOfSlot;
+        private final String[] majors;
+        private final int majorCount;
+        private final GradingScheme scheme;
+        private final long version;
+
+        private Snapshot(Segment[] segments, int[] offsets, int[] lengths, byte[][] names, byte[][] letters,
+                         long[][] dead, int[] starts, LongIntTrie rowOfId, int[] positionOfSlot,
+                         String[] majors, int majorCount, GradingScheme scheme, long version) {
+            this.segments = segments;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.names = names;
+            this.letters = letters;
+            this.dead = dead;
+            this.starts = starts;
+            this.rowOfId = rowOfId;
+            this.positionOfSlot = positionOfSlot;
+            this.majors = majors;
+            this.majorCount = majorCount;
+            this.scheme = scheme;
+            this.version = version;
+        }
+
+        @Override
+        public Student get(int index) {
+            int s = locate(index);
+            return segments[s].row(rowAt(s, index), names[s], majors);
+        }
+
+        @Override
+        public int size() {
+            return starts[segments.length];
+        }
+
+        long idAt(int index) {
+            int s = locate(index);
+            return segments[s].ids[rowAt(s, index)];
+        }
+
+        double gradeAt(int index) {
+            int s = locate(index);
+            return segments[s].grades[rowAt(s, index)];
+        }
+
+        short majorCodeAt(int index) {
+            int s = locate(index);
+            return segments[s].majorCodes[rowAt(s, index)];
+        }
+
+        String nameAt(int index) {
+            int s = locate(index);
+            return segments[s].name(rowAt(s, index), names[s]);
+        }
+
+        /** Ordinal of the row's letter under {@link #gradingScheme()}. */
+        int letterAt(int index) {
+            int s = locate(index);
+            return letters[s][rowAt(s, index)];
+        }
+
+        int bandAt(int index) {
+            return scheme.bandOfLetter(letterAt(index));
+        }
+
+        /** The scheme the rows' letters were looked up under. */
+        GradingScheme gradingScheme() {
+            return scheme;
+        }
+
+        /** Visits rows [from, to) in order, a segment at a time instead of locating every row. */
+        void scan(int from, int to, RowVisitor visitor) {
+            if (from >= to) return;
+            for (int s = locate(from); s < segments.length && starts[s] < to; s++) {
+                Segment segment = segments[s];
+                byte[] rowLetters = letters[s];
+                long[] rowsDead = dead[s];
+                int last = Math.min(to, starts[s + 1]);
+                for (int index = Math.max(from, starts[s]), row = rowAt(s, index); index < last; row++) {
+                    if (isDead(rowsDead, row)) continue;
+                    visitor.visit(index++, segment.grades[row], segment.majorCodes[row], rowLetters[row]);
+                }
+            }
+        }
+
+        /** Visits every row in order with its id, a segment at a time. */
+        void scanIds(IdVisitor visitor) {
+            for (int s = 0; s < segments.length; s++) {
+                Segment segment = segments[s];
+                long[] rowsDead = dead[s];
+                for (int index = starts[s], row = offsets[s], end = offsets[s] + lengths[s]; row < end; row++) {
+                    if (isDead(rowsDead, row)) continue;
+                    visitor.visit(index++, segment.ids[row], segment.majorCodes[row]);
+                }
+            }
+        }
+
+        /**
+         * Index of the student with this id, or -1: one lookup in the id map
+         * as it was when this snapshot was taken. A slice of removed rows has
+         * no map and scans its rows instead.
+         */
+        int indexOfId(long id) {
+            if (rowOfId == null) {
+                for (int index = 0; index < size(); index++) {
+                    if (idAt(index) == id) return index;
+                }
+                return -1;
+            }
+            int at = rowOfId.get(id);
+            if (at < 0) return -1;
+            int s = positionOfSlot[at >>> ROW_BITS];
+            int row = at & (SEGMENT_SIZE - 1);
+            return starts[s] + row - offsets[s] - deadBetween(dead[s], offsets[s], row);
+        }
+
+        /** The rows at these indexes, in that order, as a list read from this snapshot when asked. */
+        List<Student> rows(int[] indexes) {
+            return new Rows(this, indexes);
+        }
+
+        /** The table's version when this snapshot was taken. */
+        long version() {
+            return version;
+        }
+
+        /** Every major that any row of this snapshot can refer to, indexed by major code. */
+        List<String> majorTable() {
+            return Arrays.asList(majors).subList(0, majorCount);
+        }
+
+        private int locate(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return segmentOf(starts, segments.length, index);
+        }
+
+        // Row, within its segment, of the live row at this index of segment s
+        private int rowAt(int s, int index) {
+            return liveRow(dead[s], offsets[s], index - starts[s]);
+        }
+    }
+}
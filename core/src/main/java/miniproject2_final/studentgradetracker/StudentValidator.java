@@ -0,0 +1,44 @@
+package miniproject2_final.studentgradetracker;
+
+/**
+ * The rules a new student has to pass, shared by the entry form and imports.
+ */
+final class StudentValidator {
+
+    static final String MISSING_FIELDS = "Please fill in all fields.";
+    static final String GRADE_OUT_OF_RANGE = "Grade must be between 0 and 100.";
+    static final String GRADE_NOT_A_NUMBER = "Please enter a valid number for grade.";
+
+    private StudentValidator() {
+    }
+
+    /**
+     * Builds a student from raw text fields.
+     * Throws IllegalArgumentException carrying the message to show the user.
+     */
+    static Student parse(String name, String gradeText, String major) {
+        name = name == null ? "" : name.trim();
+        gradeText = gradeText == null ? "" : gradeText.trim();
+        major = major == null ? null : major.trim();
+
+        if (name.isEmpty() || gradeText.isEmpty() || major == null || major.isEmpty()) {
+            throw new IllegalArgumentException(MISSING_FIELDS);
+        }
+
+        return new Student(name, parseGrade(gradeText), major);
+    }
+
+    /** A grade typed in on its own, such as a recorded one; throws IllegalArgumentException like {@link #parse}. */
+    static double parseGrade(String gradeText) {
+        double grade;
+        try {
+            grade = Double.parseDouble(gradeText.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(GRADE_NOT_A_NUMBER);
+        }
+        if (!(grade >= 0 && grade <= 100)) {
+            throw new IllegalArgumentException(GRADE_OUT_OF_RANGE);
+        }
+        return grade;
+    }
+}
@@ -0,0 +1,433 @@
+package miniproject2_final.studentgradetracker;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The grade book over HTTP, for scripts and batch jobs that cannot click
+ * through the window. Run it headless with
+ * {@code java -cp core.jar miniproject2_final.studentgradetracker.TrackerServer},
+ * or start the tracker with {@code --serve}.
+ *
+ * <pre>
+ * POST   /students        name=..&amp;grade=..&amp;major=..  (form)   add one, returns it with its id
+ * POST   /students/bulk   CSV, as for an import                add many, in batches
+ * GET    /students?q=..&amp;limit=..                            search, all students without q
+ * GET    /students/{id}                                       one student
+ * DELETE /students/{id}                                       remove one
+ * GET    /stats?major=..&amp;binWidth=..                         summary, percentiles and histogram
+ * GET    /report                                              the report by major, as text
+ * </pre>
+ *
+ * Answers are JSON, apart from the report. Search results and the report
+ * are streamed as they are written, so a million rows never sit in memory
+ * as one response. A bulk body is read line by line and added
+ * {@value #BULK_BATCH} students per write, so readers see it arrive in a few
+ * large steps; a body cut off halfway leaves the batches before the cut.
+ *
+ * Requests run on a fixed pool of {@code -Dtracker.serverThreads} threads,
+ * twice the cores by default, over kept-alive connections with Nagle's
+ * algorithm off, so small answers leave at once. Every route is timed as an
+ * {@link OperationTimer} named {@code http.*}. The grade book lives in
+ * memory: nothing the server is sent is saved.
+ */
+public final class TrackerServer {
+
+    static final int DEFAULT_PORT = 8642;
+
+    private static final int BULK_BATCH = 4096;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double DEFAULT_BIN_WIDTH = 10;
+    // Read by the JDK server once, when the first one is created
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private static final OperationTimer ADD_TIMER = OperationTimer.named("http.add");
+    private static final OperationTimer BULK_TIMER = OperationTimer.named("http.bulk");
+    private static final OperationTimer SEARCH_TIMER = OperationTimer.named("http.search");
+    private static final OperationTimer STUDENT_TIMER = OperationTimer.named("http.student");
+    private static final OperationTimer STATS_TIMER = OperationTimer.named("http.stats");
+    private static final OperationTimer REPORT_TIMER = OperationTimer.named("http.report");
+    // The JDK server reports through System.Logger too, so both end up wherever logging is configured to go
+    private static final System.Logger LOG = System.getLogger(TrackerServer.class.getName());
+
+    private final GradeBook book;
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    TrackerServer(GradeBook book, InetSocketAddress address, int threads) throws IOException {
+        this.book = book;
+        if (System.getProperty(NODELAY_PROPERTY) == null) System.setProperty(NODELAY_PROPERTY, "true");
+        server = HttpServer.create(address, 0);
+        AtomicInteger count = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(workers);
+        server.createContext("/students", this::students);
+        server.createContext("/stats", this::stats);
+        server.createContext("/report", this::report);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) port = Integer.parseInt(arg.substring("--port=".length()));
+        }
+        int threads = Integer.getInteger("tracker.serverThreads", 2 * Runtime.getRuntime().availableProcessors());
+
+        TrackerServer server = new TrackerServer(new GradeBook(),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads);
+        server.start();
+        OperationTimer.exposeOverJmx();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "http-shutdown"));
+        System.out.printf("🌐 Serving the grade book on http://localhost:%d with %d threads%n", server.port(), threads);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    /** Stops taking requests, gives those under way a second to finish, then stops the threads. */
+    void stop() {
+        server.stop(1);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    // ---- Routes ----
+
+    private void students(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        try {
+            if (path.equals("/students") || path.equals("/students/")) {
+                if (method.equals("GET")) {
+                    timed(SEARCH_TIMER, exchange, this::search);
+                } else if (method.equals("POST")) {
+                    timed(ADD_TIMER, exchange, this::add);
+                } else {
+                    notAllowed(exchange, "GET, POST");
+                }
+            } else if (path.equals("/students/bulk")) {
+                if (method.equals("POST")) timed(BULK_TIMER, exchange, this::addBulk);
+                else notAllowed(exchange, "POST");
+            } else {
+                long id = parseId(path.substring("/students/".length()));
+                if (id < 0) {
+                    sendError(exchange, 404, "No such resource: " + path);
+                } else if (method.equals("GET")) {
+                    timed(STUDENT_TIMER, exchange, e -> find(e, id));
+                } else if (method.equals("DELETE")) {
+                    timed(STUDENT_TIMER, exchange, e -> delete(e, id));
+                } else {
+                    notAllowed(exchange, "GET, DELETE");
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try {
+            if (exchange.getRequestMethod().equals("GET")) timed(STATS_TIMER, exchange, this::sendStats);
+            else notAllowed(exchange, "GET");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void report(HttpExchange exchange) throws IOException {
+        try {
+            if (exchange.getRequestMethod().equals("GET")) timed(REPORT_TIMER, exchange, this::sendReport);
+            else notAllowed(exchange, "GET");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private interface Route {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    // Rejected input is the client's to fix; anything else is logged, and the client only learns it failed
+    private static void timed(OperationTimer timer, HttpExchange exchange, Route route) throws IOException {
+        long started = timer.start();
+        try {
+            route.handle(exchange);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.log(System.Logger.Level.ERROR, exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed", e);
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            timer.stop(started);
+        }
+    }
+
+    // ---- Handlers ----
+
+    private void add(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseQuery(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        Student student = book.add(form.get("name"), form.get("grade"), form.get("major"));
+        StringWriter json = new StringWriter(128);
+        writeStudent(json, student);
+        send(exchange, 201, json.toString());
+    }
+
+    private void addBulk(HttpExchange exchange) throws IOException {
+        long added = 0;
+        long rejected = 0;
+        List<String> errors = new ArrayList<>();
+        List<Student> batch = new ArrayList<>(BULK_BATCH);
+        List<String> fields = new ArrayList<>(4);
+        int nameColumn = 0, gradeColumn = 1, majorColumn = 2;
+
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        int lineNumber = 0;
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            fields.clear();
+            StudentImporter.splitLine(line, ',', fields);
+            if (lineNumber == 1) {
+                List<String> header = new ArrayList<>();
+                for (String field : fields) header.add(field.trim().toLowerCase(Locale.ROOT));
+                if (header.contains("name") && header.contains("grade")) {
+                    nameColumn = header.indexOf("name");
+                    gradeColumn = header.indexOf("grade");
+                    majorColumn = header.indexOf("major");
+                    continue;
+                }
+            }
+            try {
+                batch.add(StudentValidator.parse(field(fields, nameColumn), field(fields, gradeColumn),
+                        field(fields, majorColumn)));
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                if (errors.size() < StudentImporter.MAX_REPORTED_ERRORS) errors.add("Line " + lineNumber + ": " + e.getMessage());
+            }
+            if (batch.size() == BULK_BATCH) {
+                book.addAll(batch);
+                added += batch.size();
+                batch = new ArrayList<>(BULK_BATCH);
+            }
+        }
+        book.addAll(batch);
+        added += batch.size();
+
+        StringWriter json = new StringWriter();
+        json.write("{\"added\": " + added + ", \"rejected\": " + rejected + ", \"errors\": [");
+        for (int i = 0; i < errors.size(); i++) {
+            if (i > 0) json.write(", ");
+            StudentExporter.writeJsonString(json, errors.get(i));
+        }
+        json.write("]}");
+        send(exchange, 200, json.toString());
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        List<Student> found = book.search(query.getOrDefault("q", ""));
+        int limit = found.size();
+        if (query.containsKey("limit")) limit = Math.min(limit, parseCount(query.get("limit"), "limit"));
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = streamed(exchange)) {
+            out.write("{\"count\": " + found.size() + ", \"students\": [");
+            for (int i = 0; i < limit; i++) {
+                out.write(i == 0 ? "\n  " : ",\n  ");
+                writeStudent(out, found.get(i));
+            }
+            out.write(limit == 0 ? "]}\n" : "\n]}\n");
+        }
+    }
+
+    private void find(HttpExchange exchange, long id) throws IOException {
+        Student student = book.find(id);
+        if (student == null) {
+            sendError(exchange, 404, "No student with id " + id);
+            return;
+        }
+        StringWriter json = new StringWriter(128);
+        writeStudent(json, student);
+        send(exchange, 200, json.toString());
+    }
+
+    private void delete(HttpExchange exchange, long id) throws IOException {
+        Student student = book.find(id);
+        // Someone else may remove it in between, which reads the same to this client
+        if (student == null || !book.remove(student)) {
+            sendError(exchange, 404, "No student with id " + id);
+            return;
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void sendStats(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String major = query.get("major");
+        double binWidth = DEFAULT_BIN_WIDTH;
+        if (query.containsKey("binWidth")) {
+            try {
+                binWidth = Double.parseDouble(query.get("binWidth"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("binWidth is not a number: " + query.get("binWidth"));
+            }
+        }
+        GradeDistribution stats = book.distribution(major, binWidth);
+
+        StringWriter json = new StringWriter(512);
+        json.write("{\"major\": ");
+        if (major == null) json.write("null");
+        else StudentExporter.writeJsonString(json, major);
+        json.write(", \"count\": " + stats.getCount());
+        if (!stats.isEmpty()) {
+            json.write(", \"average\": " + stats.getAverage());
+            json.write(", \"standardDeviation\": " + stats.getStandardDeviation());
+            json.write(", \"lowest\": " + stats.getLowest());
+            json.write(", \"highest\": " + stats.getHighest());
+            json.write(", \"p10\": " + stats.getP10());
+            json.write(", \"p25\": " + stats.getP25());
+            json.write(", \"median\": " + stats.getMedian());
+            json.write(", \"p75\": " + stats.getP75());
+            json.write(", \"p90\": " + stats.getP90());
+            json.write(", \"passRate\": " + stats.getPassRate());
+        }
+        json.write(", \"binWidth\": " + stats.getBinWidth() + ", \"bins\": [");
+        for (int bin = 0; bin < stats.getBinCount(); bin++) {
+            if (bin > 0) json.write(", ");
+            json.write(Long.toString(stats.getBin(bin)));
+        }
+        json.write("]");
+        if (major == null) {
+            json.write(", \"majors\": [");
+            List<String> majors = book.majors();
+            for (int i = 0; i < majors.size(); i++) {
+                if (i > 0) json.write(", ");
+                StudentExporter.writeJsonString(json, majors.get(i));
+            }
+            json.write("]");
+        }
+        json.write("}");
+        send(exchange, 200, json.toString());
+    }
+
+    private void sendReport(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = streamed(exchange)) {
+            book.writeReport(out);
+        }
+    }
+
+    // ---- Helpers ----
+
+    private static void writeStudent(Writer out, Student student) throws IOException {
+        out.write("{\"id\": ");
+        out.write(Long.toString(student.getId()));
+        out.write(", \"name\": ");
+        StudentExporter.writeJsonString(out, student.getName());
+        out.write(", \"grade\": ");
+        out.write(Double.toString(student.getGrade()));
+        out.write(", \"major\": ");
+        StudentExporter.writeJsonString(out, student.getMajor());
+        out.write(", \"timestamp\": \"");
+        out.write(student.getTimestamp().toString());
+        out.write("\"}");
+    }
+
+    // Sent chunked, as it is written
+    private static Writer streamed(HttpExchange exchange) {
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    // Only possible before the first byte of the answer has gone out; after that the connection is just closed
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() != -1) return;
+        StringWriter json = new StringWriter();
+        json.write("{\"error\": ");
+        StudentExporter.writeJsonString(json, message);
+        json.write("}");
+        send(exchange, status, json.toString());
+    }
+
+    private static void notAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, exchange.getRequestMethod() + " is not supported here");
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> values = new HashMap<>();
+        if (query == null || query.isEmpty()) return values;
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            values.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static long parseId(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int parseCount(String text, String name) {
+        try {
+            int value = Integer.parseInt(text);
+            if (value >= 0) return value;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(name + " must be a whole number of at least 0: " + text);
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+}
@@ -0,0 +1,150 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandLogTest {
+
+    // What the commands did, in order: "+a" for a redo of a, "-a" for its undo
+    private final List<String> done = new ArrayList<>();
+
+    @Test
+    void keepsOnlyTheLastCommandsOnceFull() {
+        CommandLog log = new CommandLog(3);
+        for (String name : new String[] {"a", "b", "c", "d", "e"}) log.record(command(name));
+
+        assertEquals("e", log.undoDescription());
+        while (log.undo()) {
+            // Undone down to the oldest kept
+        }
+        assertEquals(List.of("-e", "-d", "-c"), done);
+        assertNull(log.undoDescription());
+        assertEquals("c", log.redoDescription());
+
+        done.clear();
+        while (log.redo()) {
+            // Redone up to the newest
+        }
+        assertEquals(List.of("+c", "+d", "+e"), done);
+        assertNull(log.redoDescription());
+    }
+
+    @Test
+    void dropsTheRedosOnANewCommand() {
+        CommandLog log = new CommandLog(4);
+        log.record(command("a"));
+        log.record(command("b"));
+        assertTrue(log.undo());
+        assertEquals("b", log.redoDescription());
+
+        log.record(command("c"));
+        assertNull(log.redoDescription());
+        assertFalse(log.redo());
+        assertTrue(log.undo());
+        assertTrue(log.undo());
+        assertFalse(log.undo());
+        assertEquals(List.of("-b", "-c", "-a"), done);
+    }
+
+    @Test
+    void wrapsAroundTheRingAfterUndos() {
+        CommandLog log = new CommandLog(3);
+        for (String name : new String[] {"a", "b", "c", "d"}) log.record(command(name));
+        log.undo();
+        log.record(command("e"));
+        log.record(command("f"));
+
+        done.clear();
+        while (log.undo()) {
+            // Back to the oldest kept
+        }
+        assertEquals(List.of("-f", "-e", "-c"), done);
+    }
+
+    @Test
+    void undoesABatchAsOneEntry() {
+        CommandLog log = new CommandLog();
+        log.begin("Import");
+        log.record(command("a"));
+        log.begin("Inner");
+        log.record(command("b"));
+        log.end();
+        log.record(command("c"));
+        log.end();
+
+        assertEquals("Import", log.undoDescription());
+        assertTrue(log.undo());
+        assertEquals(List.of("-c", "-b", "-a"), done);
+        assertFalse(log.undo());
+
+        done.clear();
+        assertTrue(log.redo());
+        assertEquals(List.of("+a", "+b", "+c"), done);
+    }
+
+    @Test
+    void recordsABatchOfOneAsTheCommandItself() {
+        CommandLog log = new CommandLog();
+        log.begin(null);
+        log.record(command("a"));
+        log.end();
+        assertEquals("a", log.undoDescription());
+
+        log.begin("Nothing");
+        log.end();
+        assertEquals("a", log.undoDescription());
+    }
+
+    @Test
+    void replacesABatchThatDidSomething() {
+        CommandLog log = new CommandLog();
+        log.begin("Fill");
+        log.record(command("a"));
+        log.record(command("b"));
+        log.endWith(command("swap"));
+
+        assertTrue(log.undo());
+        assertEquals(List.of("-swap"), done);
+        assertFalse(log.undo());
+    }
+
+    @Test
+    void forgetsEverythingOnClear() {
+        CommandLog log = new CommandLog(2);
+        log.record(command("a"));
+        log.record(command("b"));
+        log.undo();
+        log.clear();
+
+        assertFalse(log.undo());
+        assertFalse(log.redo());
+        log.record(command("c"));
+        assertEquals("c", log.undoDescription());
+    }
+
+    private CommandLog.Command command(String name) {
+        return new CommandLog.Command() {
+            @Override
+            public void undo() {
+                done.add("-" + name);
+            }
+
+            @Override
+            public void redo() {
+                done.add("+" + name);
+            }
+
+            @Override
+            public String description() {
+                return name;
+            }
+        };
+    }
+}
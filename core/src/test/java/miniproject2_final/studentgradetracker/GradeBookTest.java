@@ -0,0 +1,147 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeBookTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+
+    @Test
+    void searchesAnOlderSnapshotAfterRemovals() {
+        GradeBook book = new GradeBook();
+        List<Student> roster = roster(3000);
+        book.addAll(roster);
+        StudentTable.Snapshot before = book.snapshot();
+
+        book.removeAll(roster.subList(0, 2000));
+
+        List<Student> found = book.search("ada", before, () -> false);
+        assertEquals(expectedMatches(before, "ada"), ids(found));
+        assertEquals(expectedMatches(book.snapshot(), "ada"), ids(book.search("Ada")));
+    }
+
+    @Test
+    void searchesAnOlderSnapshotAcrossAClearAndItsUndo() {
+        GradeBook book = new GradeBook();
+        book.addAll(roster(500));
+        StudentTable.Snapshot before = book.snapshot();
+
+        book.clear();
+        assertEquals(expectedMatches(before, "physics"), ids(book.search("physics", before, () -> false)));
+        assertTrue(book.search("physics").isEmpty());
+
+        book.undo();
+        assertEquals(expectedMatches(before, "physics"), ids(book.search("physics")));
+    }
+
+    @Test
+    void findsStudentsFromThePublishedRoster() {
+        GradeBook book = new GradeBook();
+        List<Student> roster = roster(5000);
+        book.addAll(roster);
+        Student kept = roster.get(4321);
+        Student removed = roster.get(17);
+        book.remove(removed);
+
+        assertEquals(kept.getId(), book.find(kept.getId()).getId());
+        assertNull(book.find(removed.getId()));
+    }
+
+    @Test
+    void readsTrendsWhileStudentsAreRemoved() throws Exception {
+        GradeBook book = new GradeBook();
+        List<Student> roster = roster(2000);
+        book.addAll(roster);
+        Student followed = roster.get(1999);
+        for (int i = 1; i <= 20; i++) book.recordGrade(followed, "Physics I", "Fall", 50 + i, START.plusDays(i));
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> removals = writer.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Student student = roster.get(i);
+                    book.recordGrade(student, "Calculus", "Fall", 70, START.plusDays(1));
+                    book.remove(student);
+                }
+            });
+            while (!removals.isDone()) {
+                assertEquals(21, book.trend(followed, Duration.ofDays(1)).getCount());
+            }
+            removals.get(30, TimeUnit.SECONDS);
+        } finally {
+            writer.shutdownNow();
+        }
+        assertEquals(1000, book.size());
+    }
+
+    @Test
+    void keepsEveryWriteOfConcurrentWriters() throws Exception {
+        GradeBook book = new GradeBook();
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                done.add(writers.submit(() -> {
+                    for (Student student : roster(1000)) book.add(student);
+                }));
+            }
+            for (Future<?> writes : done) writes.get(30, TimeUnit.SECONDS);
+        } finally {
+            writers.shutdownNow();
+        }
+        assertEquals(4000, book.size());
+        assertEquals(4000, book.statistics().getCount());
+    }
+
+    @Test
+    void servesACachedDistributionUntilTheRosterChanges() {
+        GradeBook book = new GradeBook();
+        book.addAll(roster(100));
+        GradeDistribution first = book.distribution(null, 10);
+        assertSame(first, book.distribution(null, 10));
+
+        book.add(new Student("Grace Hopper", 95, "Mathematics", START));
+        GradeDistribution second = book.distribution(null, 10);
+        assertEquals(book.version(), second.version());
+        assertEquals(101, second.getCount());
+    }
+
+    static List<Student> roster(int size) {
+        String[] names = {"Ada Lovelace", "Alan Turing", "Grace Hopper", "Edsger Dijkstra", "Barbara Liskov"};
+        String[] majors = {"Computer Science", "Mathematics", "Physics"};
+        List<Student> roster = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            roster.add(new Student(names[i % names.length] + " " + i, i * 37 % 101, majors[i % majors.length],
+                    START.plusMinutes(i)));
+        }
+        return roster;
+    }
+
+    private static List<Long> expectedMatches(List<Student> rows, String query) {
+        List<Long> ids = new ArrayList<>();
+        for (Student student : rows) {
+            if (student.matches(query)) ids.add(student.getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(List<Student> students) {
+        List<Long> ids = new ArrayList<>();
+        for (Student student : students) ids.add(student.getId());
+        return ids;
+    }
+}
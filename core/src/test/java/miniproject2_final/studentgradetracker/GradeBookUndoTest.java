@@ -0,0 +1,138 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeBookUndoTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+    private static final LocalDateTime END = START.plusYears(1);
+
+    @Test
+    void undoesAndRedoesAClear() {
+        GradeBook book = new GradeBook();
+        List<Student> roster = GradeBookTest.roster(3000);
+        book.addAll(roster);
+        book.recordGrade(roster.get(10), "Calculus", "Fall", 64, START.plusDays(3));
+        List<Long> ids = ids(book.students());
+        GradeSummary statistics = book.statistics();
+        OptionalDouble average = book.averageBetween(null, START, END);
+
+        book.clear();
+        assertEquals("Clear 3000 students", book.undoDescription());
+        assertTrue(book.isEmpty());
+        assertEquals(OptionalDouble.empty(), book.averageBetween(null, START, END));
+
+        assertTrue(book.undo());
+        assertEquals(ids, ids(book.students()));
+        assertEquals(statistics.getCount(), book.statistics().getCount());
+        assertEquals(statistics.getAverage(), book.statistics().getAverage(), 1e-9);
+        assertEquals(average, book.averageBetween(null, START, END));
+        assertEquals(List.of("Computer Science", "Mathematics", "Physics"), book.majors());
+        assertEquals(roster.get(10).getId(), book.find(roster.get(10).getId()).getId());
+        assertEquals(600, book.search("ada").size());
+
+        assertTrue(book.redo());
+        assertTrue(book.isEmpty());
+        assertTrue(book.search("ada").isEmpty());
+        assertNull(book.find(roster.get(10).getId()));
+    }
+
+    @Test
+    void putsARemovedStudentBackWithTheirGrades() {
+        GradeBook book = new GradeBook();
+        List<Student> roster = GradeBookTest.roster(100);
+        book.addAll(roster);
+        Student removed = roster.get(42);
+        book.recordGrade(removed, "Optics", "Fall", 91, START.plusDays(2));
+        book.recordGrade(removed, "Optics", "Spring", 73, START.plusDays(120));
+        OptionalDouble average = book.averageBetween(null, START, END);
+
+        book.remove(removed);
+        assertThrows(IllegalArgumentException.class, () -> book.trend(removed, Duration.ofDays(1)));
+
+        assertTrue(book.undo());
+        assertEquals(removed.getId(), book.get(42).getId());
+        assertEquals(average, book.averageBetween(null, START, END));
+        GradeTrend trend = book.trend(removed, Duration.ofDays(1));
+        assertEquals(3, trend.getCount());
+        assertEquals(73, trend.getLatestGrade());
+
+        assertTrue(book.redo());
+        assertEquals(99, book.size());
+        assertTrue(book.undo());
+        assertEquals(3, book.trend(removed, Duration.ofDays(1)).getCount());
+    }
+
+    @Test
+    void putsManyRemovedStudentsBackInTheirRows() {
+        GradeBook book = new GradeBook();
+        List<Student> roster = GradeBookTest.roster(5000);
+        book.addAll(roster);
+        for (int i = 0; i < 5000; i += 250) book.recordGrade(roster.get(i), "Statistics", "Fall", 55, START.plusDays(1));
+        List<Long> ids = ids(book.students());
+        OptionalDouble average = book.averageBetween("Physics", START, END);
+
+        List<Student> removed = new ArrayList<>();
+        for (int i = 0; i < 5000; i += 3) removed.add(roster.get(i));
+        assertEquals(removed.size(), book.removeAll(removed));
+        assertEquals("Remove " + removed.size() + " students", book.undoDescription());
+
+        assertTrue(book.undo());
+        assertEquals(ids, ids(book.students()));
+        assertEquals(average, book.averageBetween("Physics", START, END));
+    }
+
+    @Test
+    void keepsTheGradesOfAnUndoneAdd() {
+        GradeBook book = new GradeBook();
+        book.addAll(GradeBookTest.roster(10));
+        List<Student> added = GradeBookTest.roster(20);
+        book.addAll(added);
+        book.recordGrade(added.get(5), "Optics", "Fall", 12, START.plusDays(9));
+        OptionalDouble average = book.averageBetween(null, START, END);
+
+        assertTrue(book.undo());
+        assertEquals(10, book.size());
+        assertTrue(book.redo());
+        assertEquals(30, book.size());
+        assertEquals(average, book.averageBetween(null, START, END));
+        assertEquals(2, book.trend(added.get(5), Duration.ofDays(1)).getCount());
+    }
+
+    @Test
+    void undoesATransactionInOneStep() {
+        GradeBook book = new GradeBook();
+        book.addAll(GradeBookTest.roster(5));
+        List<Long> before = ids(book.students());
+
+        book.transaction("Import", () -> {
+            book.addAll(GradeBookTest.roster(3));
+            book.remove(book.get(0));
+            return null;
+        });
+        assertEquals("Import", book.undoDescription());
+        assertEquals(7, book.size());
+
+        assertTrue(book.undo());
+        assertEquals(before, ids(book.students()));
+        assertEquals("Add 5 students", book.undoDescription());
+        assertEquals("Import", book.redoDescription());
+    }
+
+    private static List<Long> ids(List<Student> students) {
+        List<Long> ids = new ArrayList<>();
+        for (Student student : students) ids.add(student.getId());
+        return ids;
+    }
+}
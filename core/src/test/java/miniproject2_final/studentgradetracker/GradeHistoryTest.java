@@ -0,0 +1,191 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class GradeHistoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final long MINUTE = 60_000_000_000L;
+    private static final String[] MAJORS = {"Physics", "Mathematics", "History"};
+
+    // Every entry given so far, as the queries should see them
+    private final List<Entry> model = new ArrayList<>();
+
+    @Test
+    void answersRangesAtSegmentEdges() {
+        GradeHistory history = new GradeHistory();
+        List<Student> students = students(3 * GradeHistory.SEGMENT_SIZE + 10, 0);
+        history.addAll(students);
+
+        GradeHistory.Snapshot snapshot = history.snapshot();
+        long first = Student.epochNanos(START);
+        int[] edges = {0, 1, GradeHistory.SEGMENT_SIZE - 1, GradeHistory.SEGMENT_SIZE, GradeHistory.SEGMENT_SIZE + 1,
+                2 * GradeHistory.SEGMENT_SIZE, 3 * GradeHistory.SEGMENT_SIZE, students.size()};
+        for (int from : edges) {
+            for (int to : edges) {
+                if (to < from) continue;
+                long fromTime = first + from * MINUTE;
+                long toTime = first + to * MINUTE;
+                assertTally(null, fromTime, toTime, snapshot);
+                assertTally("Physics", fromTime, toTime, snapshot);
+            }
+        }
+        assertTally("Nobody", first, first + students.size() * MINUTE, snapshot);
+    }
+
+    @Test
+    void mergesBatchesAndSplitsFullSegmentsInThePast() {
+        GradeHistory history = new GradeHistory();
+        history.addAll(students(2 * GradeHistory.SEGMENT_SIZE, 0));
+        Random random = new Random(17);
+
+        // One at a time into full segments, then a batch large enough to be merged in one pass
+        List<Student> late = new ArrayList<>();
+        for (int i = 0; i < 40; i++) late.add(student(random.nextInt(2 * GradeHistory.SEGMENT_SIZE), 1_000_000 + i));
+        for (Student student : late) history.addAll(List.of(student));
+        List<Student> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) batch.add(student(random.nextInt(2 * GradeHistory.SEGMENT_SIZE), 2_000_000 + i));
+        history.addAll(batch);
+
+        assertEquals(model.size(), history.size());
+        assertEveryRange(history.snapshot());
+    }
+
+    @Test
+    void dropsAndRestoresEveryEntryOfAStudent() {
+        GradeHistory history = new GradeHistory();
+        List<Student> students = students(GradeHistory.SEGMENT_SIZE + 200, 0);
+        history.addAll(students);
+        Student followed = students.get(5);
+        for (int i = 0; i < 30; i++) {
+            long time = Student.epochNanos(START) + (i * 97L % 1500) * MINUTE;
+            history.add(followed, "Optics", "Spring", 60 + i, time);
+            model.add(new Entry(followed.getId(), time, followed.getMajor(), 60 + i));
+        }
+        List<Entry> everything = new ArrayList<>(model);
+        GradeHistory.Snapshot before = history.snapshot();
+
+        GradeHistory.Dropped dropped = history.removeAll(List.of(followed, students.get(700)));
+        model.removeIf(entry -> entry.student == followed.getId() || entry.student == students.get(700).getId());
+        assertEquals(model.size(), history.size());
+        assertEveryRange(history.snapshot());
+        // Dropped from under it, the older snapshot still has every entry it saw
+        assertEquals(31, before.trend(followed, MINUTE).getCount());
+
+        history.restore(dropped);
+        model.clear();
+        model.addAll(everything);
+        assertEquals(model.size(), history.size());
+        assertEveryRange(history.snapshot());
+        assertEquals(31, history.snapshot().trend(followed, MINUTE).getCount());
+
+        GradeHistory.Snapshot restored = history.snapshot();
+        history.clear();
+        assertEquals(31, restored.trend(followed, MINUTE).getCount());
+        assertEquals(31, before.trend(followed, MINUTE).getCount());
+    }
+
+    @Test
+    void snapshotsSeeOnlyTheEntriesGivenBeforeThem() {
+        GradeHistory history = new GradeHistory();
+        List<Student> students = students(10, 0);
+        history.addAll(students);
+        Student followed = students.get(3);
+        history.add(followed, "Optics", "Spring", 80, Student.epochNanos(START.plusDays(1)));
+        GradeHistory.Snapshot before = history.snapshot();
+        history.add(followed, "Optics", "Spring", 90, Student.epochNanos(START.plusDays(2)));
+        history.add(followed, "Optics", "Spring", 40, Student.epochNanos(START.minusDays(2)));
+
+        GradeTrend then = before.trend(followed, MINUTE);
+        assertNotNull(then);
+        assertEquals(2, then.getCount());
+        assertEquals(followed.getGrade(), then.getFirstGrade());
+        assertEquals(80, then.getLatestGrade());
+        assertEquals(11, before.size());
+
+        GradeTrend now = history.trend(followed, MINUTE);
+        assertEquals(4, now.getCount());
+        assertEquals(40, now.getFirstGrade());
+        assertEquals(90, now.getLatestGrade());
+    }
+
+    @Test
+    void addsUpTimelinesFromSegmentTotals() {
+        GradeHistory history = new GradeHistory();
+        history.addAll(students(3 * GradeHistory.SEGMENT_SIZE, 0));
+        GradeHistory.Snapshot snapshot = history.snapshot();
+
+        for (int buckets : new int[] {1, 3, 7, 1000}) {
+            GradeHistory.Timeline timeline = snapshot.timeline(buckets);
+            long entries = 0;
+            for (int bucket = 0; bucket < timeline.buckets(); bucket++) {
+                long from = timeline.start(bucket);
+                GradeHistory.Tally tally = snapshot.between(null, from, from + timeline.bucketNanos());
+                assertEquals(tally.count(), timeline.count(bucket));
+                assertEquals(tally.average(), timeline.average(bucket), 1e-9);
+                entries += timeline.count(bucket);
+            }
+            assertEquals(model.size(), entries);
+        }
+    }
+
+    // One student a minute from START, two to a minute every so often so times repeat
+    private List<Student> students(int count, int first) {
+        List<Student> students = new ArrayList<>();
+        for (int i = first; i < first + count; i++) students.add(student(i % 11 == 0 ? i - 1 : i, i));
+        return students;
+    }
+
+    private Student student(int minute, int n) {
+        LocalDateTime at = START.plusMinutes(Math.max(0, minute));
+        Student student = new Student("S" + n, n * 31 % 101, MAJORS[n % MAJORS.length], at);
+        model.add(new Entry(student.getId(), Student.epochNanos(at), student.getMajor(), student.getGrade()));
+        return student;
+    }
+
+    private void assertEveryRange(GradeHistory.Snapshot snapshot) {
+        long first = Student.epochNanos(START);
+        for (int from = 0; from < 2 * GradeHistory.SEGMENT_SIZE; from += 97) {
+            for (int to = from; to < 2 * GradeHistory.SEGMENT_SIZE; to += 331) {
+                assertTally(null, first + from * MINUTE, first + to * MINUTE, snapshot);
+                assertTally("Mathematics", first + from * MINUTE, first + to * MINUTE, snapshot);
+            }
+        }
+    }
+
+    private void assertTally(String major, long from, long to, GradeHistory.Snapshot snapshot) {
+        long count = 0;
+        double sum = 0;
+        for (Entry entry : model) {
+            if (entry.time >= from && entry.time < to && (major == null || major.equals(entry.major))) {
+                count++;
+                sum += entry.grade;
+            }
+        }
+        GradeHistory.Tally tally = snapshot.between(major, from, to);
+        assertEquals(count, tally.count());
+        assertEquals(sum, tally.sum(), 1e-6);
+    }
+
+    private static final class Entry {
+        final long student;
+        final long time;
+        final String major;
+        final double grade;
+
+        Entry(long student, long time, String major, double grade) {
+            this.student = student;
+            this.time = time;
+            this.major = major;
+            this.grade = grade;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradeStatisticsTest {
+
+    private static final double[] PERCENTILES = {0.1, 1, 10, 25, 50, 75, 90, 99, 100};
+
+    @Test
+    void answersLikeASortedListAsGradesComeAndGo() {
+        GradeStatistics statistics = new GradeStatistics();
+        List<Double> model = new ArrayList<>();
+        Random random = new Random(8);
+
+        for (int step = 0; step < 20_000; step++) {
+            if (model.isEmpty() || random.nextInt(3) > 0) {
+                double grade = random.nextInt(10001) / 100.0;
+                statistics.add(grade);
+                model.add(grade);
+            } else {
+                statistics.remove(model.remove(random.nextInt(model.size())));
+            }
+            if (step % 2000 == 0) assertSameAs(model, statistics);
+        }
+        assertSameAs(model, statistics);
+    }
+
+    @Test
+    void countsEveryGradeInTheBinItFallsIn() {
+        GradeStatistics statistics = new GradeStatistics();
+        // On and just below the bin edges, where rounding would move a grade up
+        for (double grade : new double[] {0, 9.99, 10, 79.99, 80, 89.99, 90, 99.99, 100}) statistics.add(grade);
+
+        assertArrayEquals(new long[] {2, 1, 0, 0, 0, 0, 0, 1, 2, 3}, statistics.histogram(10));
+        assertArrayEquals(new long[] {3, 6}, statistics.histogram(50));
+        // 100 / 30 leaves a narrower last bin, which also takes 100
+        assertArrayEquals(new long[] {3, 0, 3, 3}, statistics.histogram(30));
+        long total = 0;
+        for (long bin : statistics.histogram(0.5)) total += bin;
+        assertEquals(9, total);
+    }
+
+    @Test
+    void readsPercentilesToItsScale() {
+        GradeStatistics majors = new GradeStatistics(GradeStatistics.MAJOR_SCALE, GradingScheme.DEFAULT);
+        for (double grade : new double[] {70.06, 70.04, 88.88, 95.55, 95.51}) majors.add(grade);
+
+        assertEquals(70.0, majors.lowest());
+        assertEquals(70.0, majors.percentile(40));
+        assertEquals(88.8, majors.median(), 1e-9);
+        assertEquals(95.5, majors.highest(), 1e-9);
+    }
+
+    @Test
+    void countsLettersBandsAndPassesByTheScheme() {
+        GradeStatistics statistics = new GradeStatistics();
+        for (double grade : new double[] {95, 90, 85, 72, 65, 59.99, 10}) statistics.add(grade);
+        statistics.remove(10);
+
+        assertEquals(2, statistics.letterCount(0));
+        assertEquals(2, statistics.bandCount(3));
+        assertEquals(5 * 100.0 / 6, statistics.passRate(), 1e-9);
+
+        GradingScheme strict = GradingScheme.parse("P, 80, Pass, pass\nF, 0, Fail, fail\n");
+        statistics.regrade(strict, new long[] {3, 3});
+        assertEquals(50, statistics.passRate(), 1e-9);
+        assertEquals(3, statistics.bandCount(1));
+    }
+
+    @Test
+    void readsZeroWhenEmpty() {
+        GradeStatistics statistics = new GradeStatistics();
+        statistics.add(50);
+        statistics.clear();
+
+        assertEquals(0, statistics.count());
+        assertEquals(0, statistics.median());
+        assertEquals(0, statistics.percentile(90));
+        assertEquals(0, statistics.passRate());
+        assertArrayEquals(new long[10], statistics.histogram(10));
+    }
+
+    private static void assertSameAs(List<Double> model, GradeStatistics statistics) {
+        List<Double> sorted = new ArrayList<>(model);
+        Collections.sort(sorted);
+        int n = sorted.size();
+        assertEquals(n, statistics.count());
+        double sum = 0;
+        for (double grade : sorted) sum += grade;
+        assertEquals(sum / n, statistics.average(), 1e-6);
+        assertEquals(sorted.get(0), statistics.lowest(), 1e-9);
+        assertEquals(sorted.get(n - 1), statistics.highest(), 1e-9);
+        double median = n % 2 == 1 ? sorted.get(n / 2) : (sorted.get(n / 2 - 1) + sorted.get(n / 2)) / 2;
+        assertEquals(median, statistics.median(), 1e-9);
+        for (double p : PERCENTILES) {
+            int rank = Math.max(1, (int) Math.ceil(p / 100 * n));
+            assertEquals(sorted.get(rank - 1), statistics.percentile(p), 1e-9, "p" + p);
+        }
+
+        long[] bins = statistics.histogram(10);
+        for (int bin = 0; bin < bins.length; bin++) {
+            long expected = 0;
+            for (double grade : sorted) {
+                if (Math.min(9, (int) Math.floor(grade / 10 + 1e-9)) == bin) expected++;
+            }
+            assertEquals(expected, bins[bin], "bin " + bin);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradingSchemeTest {
+
+    @Test
+    void readsBackWhatItWrites() {
+        GradingScheme scheme = GradingScheme.parse("""
+                # Honours scheme
+                H1, 70, First, pass
+
+                H2, 60, Upper second, pass
+                H3, 50, Lower second, pass
+                P, 40, Third, pass
+                F, 0, Fail, fail
+                """);
+
+        assertEquals(5, scheme.letterCount());
+        assertEquals(5, scheme.bandCount());
+        assertEquals("H2", scheme.letter(1).getName());
+        assertEquals(60, scheme.letter(1).getFrom());
+        assertEquals("First (70-100)", scheme.bandLabel(0));
+        assertEquals("Third (40-49)", scheme.bandLabel(3));
+        assertEquals("Fail (<40)", scheme.bandLabel(4));
+        assertEquals(scheme, GradingScheme.parse(scheme.toString()));
+        assertEquals(GradingScheme.DEFAULT, GradingScheme.parse(GradingScheme.DEFAULT.toString()));
+    }
+
+    @Test
+    void classifiesGradesAtTheirCutOffs() {
+        GradingScheme scheme = GradingScheme.DEFAULT;
+        assertEquals(0, scheme.letterOf(100));
+        assertEquals(0, scheme.letterOf(90));
+        assertEquals(1, scheme.letterOf(89.99));
+        assertEquals(4, scheme.letterOf(0));
+        assertEquals(3, scheme.bandOf(65));
+        assertEquals(3, scheme.bandOf(12));
+        assertTrue(scheme.isPassing(scheme.letterOf(60)));
+        assertFalse(scheme.isPassing(scheme.letterOf(59.9)));
+        assertEquals("Needs Improvement (<70)", scheme.bandLabel(3));
+
+        assertTrue(scheme.isTopOfBest(0, 95));
+        assertFalse(scheme.isTopOfBest(0, 94.9));
+        assertFalse(scheme.isTopOfBest(1, 99));
+    }
+
+    @Test
+    void givesTheLineOfTheFirstMistake() {
+        assertMessage("Line 2: expected letter, cut-off, band, pass or fail.", "A, 50, Pass, pass\nB, 0, Fail\n");
+        assertMessage("Line 1: cut-off is not a number.", "A, fifty, Pass, pass\n");
+        assertMessage("Line 3: expected pass or fail.", "A, 50, Pass, pass\n\nF, 0, Fail, maybe\n");
+    }
+
+    @Test
+    void rejectsSchemesThatDoNotCoverEveryGradeOnce() {
+        assertMessage("A grading scheme needs at least one letter.", "# nothing\n");
+        assertMessage("Cut-offs must go down: B is not below A.", "A, 50, Pass, pass\nB, 50, Pass, pass\nF, 0, Fail, fail\n");
+        assertMessage("The last letter must start at 0, so every grade gets one.", "A, 50, Pass, pass\nF, 10, Fail, fail\n");
+        assertMessage("Letter A appears twice.", "A, 50, Pass, pass\nA, 0, Fail, fail\n");
+        assertMessage("Cut-off of A must be between 0 and 100.", "A, 101, Pass, pass\nF, 0, Fail, fail\n");
+        assertMessage("Letters of band Pass must be next to each other.",
+                "A, 70, Pass, pass\nB, 50, Fail, fail\nC, 0, Pass, pass\n");
+    }
+
+    private static void assertMessage(String message, String text) {
+        assertEquals(message, assertThrows(IllegalArgumentException.class, () -> GradingScheme.parse(text)).getMessage());
+    }
+}
@@ -0,0 +1,177 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalStudentRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsRecordedGradesThroughReloadsAndCompaction() throws IOException {
+        List<Student> roster = GradeBookTest.roster(50);
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            repository.load();
+            repository.addAll(roster);
+            repository.recordGrade(new RecordedGrade(roster.get(3), "Calculus", "Fall", 71.5, START.plusDays(1)));
+            repository.recordGrade(new RecordedGrade(roster.get(3), "Optics", "Spring", 88, START.plusDays(2)));
+            repository.recordGrade(new RecordedGrade(roster.get(9), "Calculus", "Fall", 40, START.plusDays(3)));
+        }
+
+        List<Student> loaded;
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            loaded = repository.load();
+            assertEquals(List.of("3 Calculus Fall 71.5", "3 Optics Spring 88.0", "9 Calculus Fall 40.0"),
+                    describe(loaded, repository.loadedGrades()));
+
+            // Taken off and put back, as an undo does: the grades come back with them
+            repository.remove(loaded.get(9));
+            repository.add(loaded.get(9));
+            repository.recordGrade(new RecordedGrade(loaded.get(20), "Optics", "Spring", 60, START.plusDays(4)));
+            repository.compact(List.copyOf(moveToEnd(loaded, 9)));
+        }
+
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            loaded = repository.load();
+            assertEquals(List.of("19 Optics Spring 60.0", "3 Calculus Fall 71.5", "3 Optics Spring 88.0",
+                    "49 Calculus Fall 40.0"), describe(loaded, repository.loadedGrades()));
+
+            GradeBook book = new GradeBook();
+            book.addAll(loaded);
+            book.recordGrades(repository.loadedGrades());
+            assertEquals(3, book.trend(loaded.get(3), Duration.ofDays(1)).getCount());
+        }
+    }
+
+    @Test
+    void replaysEveryWriteInOrder() throws IOException {
+        List<Student> roster = GradeBookTest.roster(30);
+        List<Student> expected = new ArrayList<>();
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            assertEquals(List.of(), repository.load());
+            repository.addAll(roster.subList(0, 20));
+            repository.add(roster.get(20));
+            repository.remove(roster.get(5));
+            repository.clear();
+            repository.addAll(roster.subList(21, 30));
+            repository.remove(roster.get(25));
+            repository.add(roster.get(3));
+            expected.addAll(roster.subList(21, 30));
+            expected.remove(roster.get(25));
+            expected.add(roster.get(3));
+        }
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            assertEquals(describe(expected), describe(repository.load()));
+
+            // Folded into a snapshot, with more written after it
+            repository.compact(List.copyOf(expected));
+            repository.add(roster.get(0));
+            expected.add(roster.get(0));
+            assertFalse(repository.needsCompaction());
+        }
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            assertEquals(describe(expected), describe(repository.load()));
+        }
+    }
+
+    @Test
+    void dropsARecordThatFailsItsChecksumAndEverythingAfterIt() throws IOException {
+        // Names of one length, so every record is as long as the others
+        List<Student> roster = new ArrayList<>();
+        for (int i = 0; i < 10; i++) roster.add(new Student("Student " + i, 50 + i, "Physics", START.plusMinutes(i)));
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            repository.load();
+            for (Student student : roster) repository.add(student);
+        }
+        // One flipped bit in the name of the eighth record
+        Path journal = directory.resolve("students-0.journal");
+        byte[] bytes = Files.readAllBytes(journal);
+        int recordSize = (bytes.length - 16) / roster.size();
+        bytes[16 + 7 * recordSize + recordSize - 8] ^= 1;
+        Files.write(journal, bytes);
+
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            assertEquals(describe(roster.subList(0, 7)), describe(repository.load()));
+            // Later writes follow the last good record rather than the dropped ones
+            repository.add(roster.get(9));
+        }
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            List<Student> expected = new ArrayList<>(roster.subList(0, 7));
+            expected.add(roster.get(9));
+            assertEquals(describe(expected), describe(repository.load()));
+        }
+    }
+
+    @Test
+    void dropsARecordTornByACrash() throws IOException {
+        List<Student> roster = GradeBookTest.roster(5);
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            repository.load();
+            repository.addAll(roster);
+        }
+        Path journal = directory.resolve("students-0.journal");
+        byte[] bytes = Files.readAllBytes(journal);
+        Files.write(journal, Arrays.copyOf(bytes, bytes.length - 3));
+
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            assertEquals(describe(roster.subList(0, 4)), describe(repository.load()));
+        }
+    }
+
+    @Test
+    void refusesASnapshotThatFailsItsChecksum() throws IOException {
+        try (JournalStudentRepository repository = new JournalStudentRepository(directory)) {
+            repository.load();
+            repository.compact(GradeBookTest.roster(10));
+        }
+        Path snapshot = directory.resolve("students.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+
+        JournalStudentRepository repository = new JournalStudentRepository(directory);
+        IOException failure = assertThrows(IOException.class, repository::load);
+        assertTrue(failure.getMessage().startsWith("Student snapshot is corrupt"));
+    }
+
+    private static List<String> describe(List<Student> students) {
+        List<String> described = new ArrayList<>();
+        for (Student student : students) {
+            described.add(student.getName() + " " + student.getGrade() + " " + student.getMajor() + " " + student.getTimestamp());
+        }
+        return described;
+    }
+
+    private static List<Student> moveToEnd(List<Student> students, int index) {
+        List<Student> moved = new ArrayList<>(students);
+        moved.add(moved.remove(index));
+        return moved;
+    }
+
+    private static List<String> describe(List<Student> roster, List<RecordedGrade> grades) {
+        List<String> described = new ArrayList<>();
+        for (RecordedGrade grade : grades) {
+            described.add(roster.indexOf(grade.getStudent()) + " " + grade.getCourse() + " " + grade.getTerm() + " "
+                    + grade.getGrade());
+        }
+        described.sort(null);
+        return described;
+    }
+}
@@ -0,0 +1,99 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyRecorderTest {
+
+    private static final double[] PERCENTILES = {0.1, 1, 10, 50, 90, 99, 99.9, 100};
+
+    @Test
+    void keepsSmallValuesExactly() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (long nanos = 31; nanos >= 0; nanos--) recorder.record(nanos);
+        recorder.record(-5);
+
+        assertEquals(33, recorder.count());
+        assertEquals(0, recorder.percentile(1));
+        assertEquals(15, recorder.percentile(50));
+        assertEquals(31, recorder.percentile(100));
+        assertEquals(31, recorder.max());
+        assertEquals(496 / 33.0, recorder.mean(), 1e-9);
+    }
+
+    @Test
+    void readsPercentilesWithinABucketOfTheTrueValue() {
+        // Log-normal around 2 ms, like the timings it is fed
+        LatencyRecorder recorder = new LatencyRecorder();
+        Random random = new Random(3);
+        long[] samples = new long[200_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (long) Math.exp(Math.log(2_000_000) + 1.5 * random.nextGaussian());
+            recorder.record(samples[i]);
+        }
+        Arrays.sort(samples);
+
+        for (double p : PERCENTILES) {
+            long exact = samples[Math.max(1, (int) Math.ceil(p / 100 * samples.length)) - 1];
+            long read = recorder.percentile(p);
+            assertTrue(read >= exact && read <= exact + exact / 32, "p" + p + ": " + read + " for " + exact);
+        }
+        assertEquals(samples[samples.length - 1], recorder.max());
+        assertEquals(samples[samples.length - 1], recorder.percentile(100));
+    }
+
+    @Test
+    void takesTheWholeRangeOfALong() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(Long.MAX_VALUE);
+        recorder.record(1L << 62);
+
+        long median = recorder.percentile(50);
+        assertTrue(median >= 1L << 62 && median <= (1L << 62) + (1L << 57), Long.toString(median));
+        assertEquals(Long.MAX_VALUE, recorder.percentile(100));
+    }
+
+    @Test
+    void countsEveryValueRecordedFromManyThreads() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] writers = new Future<?>[4];
+            for (int t = 0; t < writers.length; t++) {
+                long offset = t;
+                writers[t] = pool.submit(() -> {
+                    for (long i = 0; i < 100_000; i++) recorder.record(1_000 + offset);
+                });
+            }
+            for (Future<?> writer : writers) writer.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(400_000, recorder.count());
+        assertEquals(1_001.5, recorder.mean(), 1e-9);
+        assertEquals(1_003, recorder.max());
+    }
+
+    @Test
+    void startsOverOnReset() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(5_000);
+        recorder.reset();
+
+        assertEquals(0, recorder.count());
+        assertEquals(0, recorder.mean());
+        assertEquals(0, recorder.max());
+        assertEquals(0, recorder.percentile(99));
+        recorder.record(7);
+        assertEquals(7, recorder.percentile(50));
+    }
+}
@@ -0,0 +1,99 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntMapTest {
+
+    @Test
+    void behavesLikeAMap() {
+        LongIntMap map = new LongIntMap();
+        Map<Long, Integer> model = new HashMap<>();
+        Random random = new Random(9);
+
+        for (int step = 0; step < 200_000; step++) {
+            long key = random.nextInt(5000) - 100;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                model.remove(key);
+            } else {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                map.put(key, value);
+                model.put(key, value);
+            }
+        }
+        assertEquals(model.size(), map.size());
+        for (long key = -100; key < 4900; key++) {
+            assertEquals(model.getOrDefault(key, -1).intValue(), map.get(key));
+        }
+    }
+
+    @Test
+    void findsTheRestOfARunAfterARemoval() {
+        // Eight keys that all hash to the last slot of the initial table, so their run wraps around
+        List<Long> run = keysWithHome(15, 16, 8);
+        LongIntMap map = new LongIntMap();
+        for (int i = 0; i < run.size(); i++) map.put(run.get(i), i);
+
+        for (int removed = 0; removed < run.size(); removed += 2) {
+            map.remove(run.get(removed));
+        }
+        assertEquals(4, map.size());
+        for (int i = 0; i < run.size(); i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, map.get(run.get(i)));
+        }
+
+        // Holes left behind must not hide keys put again afterwards
+        for (int i = 0; i < run.size(); i += 2) map.put(run.get(i), 100 + i);
+        for (int i = 0; i < run.size(); i++) {
+            assertEquals(i % 2 == 0 ? 100 + i : i, map.get(run.get(i)));
+        }
+    }
+
+    @Test
+    void pullsBackEntriesFromOtherRuns() {
+        // A run from slot 3 followed by keys at home in slot 4 that it pushed along
+        List<Long> atThree = keysWithHome(3, 16, 3);
+        List<Long> atFour = keysWithHome(4, 16, 2);
+        LongIntMap map = new LongIntMap();
+        for (long key : atThree) map.put(key, 3);
+        for (long key : atFour) map.put(key, 4);
+
+        map.remove(atThree.get(0));
+        map.remove(atThree.get(2));
+        for (long key : atFour) assertEquals(4, map.get(key));
+        assertEquals(3, map.get(atThree.get(1)));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void ignoresMissingKeysAndRejectsNegativeValues() {
+        LongIntMap map = new LongIntMap();
+        map.put(1, 1);
+        map.remove(2);
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(3, -1));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(1));
+    }
+
+    // The first keys whose home slot in a table of this capacity is the given one
+    private static List<Long> keysWithHome(int slot, int capacity, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 0; keys.size() < count; key++) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & (capacity - 1)) == slot) keys.add(key);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,83 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntTrieTest {
+
+    @Test
+    void behavesLikeAMap() {
+        LongIntTrie map = new LongIntTrie();
+        Map<Long, Integer> model = new HashMap<>();
+        Random random = new Random(9);
+
+        for (int step = 0; step < 200_000; step++) {
+            long key = random.nextInt(50_000) - 100;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                model.remove(key);
+            } else {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                map.put(key, value);
+                model.put(key, value);
+            }
+            if (step % 1000 == 0) map.freeze();
+        }
+        assertEquals(model.size(), map.size());
+        for (long key = -100; key < 49_900; key++) {
+            assertEquals(model.getOrDefault(key, -1).intValue(), map.get(key));
+        }
+    }
+
+    @Test
+    void frozenCopiesKeepWhatTheySaw() {
+        LongIntTrie map = new LongIntTrie();
+        Random random = new Random(4);
+        Map<Long, Integer> model = new HashMap<>();
+        List<LongIntTrie> frozen = new ArrayList<>();
+        List<Map<Long, Integer>> seen = new ArrayList<>();
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 500; i++) {
+                long key = random.nextInt(3000);
+                if (random.nextBoolean()) {
+                    map.remove(key);
+                    model.remove(key);
+                } else {
+                    map.put(key, round);
+                    model.put(key, round);
+                }
+            }
+            frozen.add(map.freeze());
+            seen.add(new HashMap<>(model));
+        }
+        for (int round = 0; round < frozen.size(); round++) {
+            assertEquals(seen.get(round).size(), frozen.get(round).size());
+            for (long key = 0; key < 3000; key++) {
+                assertEquals(seen.get(round).getOrDefault(key, -1).intValue(), frozen.get(round).get(key));
+            }
+        }
+    }
+
+    @Test
+    void rejectsWritesToAFrozenCopyAndNegativeValues() {
+        LongIntTrie map = new LongIntTrie();
+        map.put(1, 1);
+        LongIntTrie frozen = map.freeze();
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> map.put(3, -1));
+
+        map.remove(1);
+        map.remove(7);
+        assertEquals(0, map.size());
+        assertEquals(1, frozen.get(1));
+    }
+}
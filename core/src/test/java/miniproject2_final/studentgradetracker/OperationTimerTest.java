@@ -0,0 +1,59 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationTimerTest {
+
+    @Test
+    void sharesOneTimerPerName() {
+        OperationTimer first = OperationTimer.named("test.shared");
+        OperationTimer second = OperationTimer.named("test.other");
+
+        assertSame(first, OperationTimer.named("test.shared"));
+        assertTrue(OperationTimer.all().indexOf(first) < OperationTimer.all().indexOf(second));
+    }
+
+    @Test
+    void reportsInMilliseconds() {
+        OperationTimer timer = OperationTimer.named("test.millis");
+        timer.reset();
+        timer.record(1_000_000);
+        timer.record(3_000_000);
+
+        assertEquals(2, timer.getCount());
+        assertEquals(2.0, timer.getMeanMillis(), 1e-9);
+        assertEquals(1.0, timer.getP50Millis(), 1.0 / 32);
+        assertEquals(3.0, timer.getP99Millis(), 1e-9);
+        assertEquals(3.0, timer.getMaxMillis(), 1e-9);
+
+        long started = timer.start();
+        timer.stop(started);
+        assertEquals(OperationTimer.ENABLED ? 3 : 2, timer.getCount());
+    }
+
+    @Test
+    void showsEveryTimerOverJmxIncludingLaterOnes() throws Exception {
+        OperationTimer before = OperationTimer.named("test.jmx.before");
+        before.record(4_000_000);
+        OperationTimer.exposeOverJmx();
+        OperationTimer.exposeOverJmx();
+        OperationTimer.named("test.jmx.after");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("miniproject2_final.studentgradetracker:type=Operation,name=\"test.jmx.before\"");
+        assertEquals(1L, server.getAttribute(name, "Count"));
+        assertEquals(4.0, (Double) server.getAttribute(name, "MaxMillis"), 1e-9);
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, before.getCount());
+        assertTrue(server.isRegistered(
+                new ObjectName("miniproject2_final.studentgradetracker:type=Operation,name=\"test.jmx.after\"")));
+    }
+}
@@ -0,0 +1,101 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportWriterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+    private static final String[] MAJORS = {"Mathematics", "Physics", "History", "Computer Science", "Art"};
+
+    @Test
+    void writesTheSameLinesHoweverManyThreadsAggregate() throws IOException {
+        Random random = new Random(23);
+        StudentTable table = new StudentTable();
+        for (int row = 0; row < 60_000; row++) {
+            table.add(row, new Student("Student " + row, random.nextInt(10001) / 100.0,
+                    MAJORS[random.nextInt(MAJORS.length)], START.plusSeconds(row)));
+        }
+        StudentTable.Snapshot rows = table.snapshot();
+
+        List<String> sequential = figures(rows, RosterAggregate.of(rows, new ForkJoinPool(1)));
+        List<String> parallel = figures(rows, RosterAggregate.of(rows, new ForkJoinPool(4)));
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequential, figures(rows, null));
+    }
+
+    @Test
+    void marksEachRowWithItsLetterAndBand() throws IOException {
+        StudentTable table = new StudentTable();
+        table.add(0, new Student("Ada", 95, "Mathematics", START));
+        table.add(1, new Student("Alan", 85.25, "Physics", START));
+        table.add(2, new Student("Grace", 61, "Mathematics", START));
+        table.add(3, new Student("Edsger", 94.9, "Mathematics", START));
+        table.add(4, new Student("Barbara", 12, "Physics", START));
+
+        List<String> lines = figures(table.snapshot(), null);
+
+        assertEquals(List.of("🏛️ Mathematics (3 students)", "-".repeat(40),
+                "  • Ada: 95.0 A 🏆",
+                "  • Grace: 61.0 D 📚",
+                "  • Edsger: 94.9 A 🌟",
+                "  📊 Major Average: 83.63"), lines.subList(3, 9));
+        assertEquals(List.of("🏛️ Physics (2 students)", "-".repeat(40),
+                "  • Alan: 85.3 B ✅",
+                "  • Barbara: 12.0 F 📚",
+                "  📊 Major Average: 48.63"), lines.subList(11, 16));
+        assertTrue(lines.containsAll(List.of(
+                "🌟 Excellent (90-100): 2 students",
+                "✅ Good (80-89): 1 students",
+                "📈 Average (70-79): 0 students",
+                "📚 Needs Improvement (<70): 2 students",
+                "🔤 Letters: A 2 | B 1 | C 0 | D 1 | F 1",
+                "🎯 Pass Rate: 80.0%")), lines.toString());
+    }
+
+    @Test
+    void saysSoWhenThereAreNoStudents() throws IOException {
+        List<String> lines = new ArrayList<>();
+        new ReportWriter(new StudentTable().snapshot()).write(text -> lines.add(text.toString()), Progress.NONE);
+
+        assertEquals(List.of("📄 No student data available for report generation."), lines);
+    }
+
+    @Test
+    void roundsHalfUpLikeFormat() {
+        for (double value : new double[] {0, 0.05, 0.049, 1.005, 2.675, 79.95, 82.345, 99.999, 100}) {
+            assertFormatted(value);
+        }
+        // Averages and deviations of grades to 0.01, many of them ending in a 5
+        Random random = new Random(5);
+        for (int i = 0; i < 20_000; i++) {
+            assertFormatted(random.nextInt(100_001) / 1000.0);
+            assertFormatted(random.nextInt(10_001) / 100.0 / (1 + random.nextInt(7)));
+        }
+    }
+
+    private static void assertFormatted(double value) {
+        for (int decimals = 0; decimals <= 3; decimals++) {
+            StringBuilder sb = new StringBuilder();
+            ReportWriter.appendFixed(sb, value, decimals);
+            assertEquals(String.format("%." + decimals + "f", value), sb.toString(), value + " to " + decimals);
+        }
+    }
+
+    private static List<String> figures(StudentTable.Snapshot rows, RosterAggregate aggregate) throws IOException {
+        List<String> lines = new ArrayList<>();
+        ReportWriter writer = aggregate == null ? new ReportWriter(rows) : new ReportWriter(rows, aggregate);
+        writer.writeFigures(text -> lines.add(text.toString()), Progress.NONE);
+        return lines;
+    }
+}
@@ -0,0 +1,69 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResultCacheTest {
+
+    @Test
+    void dropsTheLeastRecentlyUsedOnceOverBudget() {
+        ResultCache cache = new ResultCache(100);
+        cache.put("a", 1, "A", 40);
+        cache.put("b", 1, "B", 40);
+        assertEquals("A", cache.get("a", 1));
+
+        cache.put("c", 1, "C", 40);
+        assertNull(cache.get("b", 1));
+        assertEquals("A", cache.get("a", 1));
+        assertEquals("C", cache.get("c", 1));
+    }
+
+    @Test
+    void filesResultsUnderTheirVersion() {
+        ResultCache cache = new ResultCache(100);
+        cache.put("report", 1, "old", 10);
+        cache.put("report", 2, "new", 10);
+
+        assertEquals("old", cache.get("report", 1));
+        assertEquals("new", cache.get("report", 2));
+        assertNull(cache.get("report", 3));
+    }
+
+    @Test
+    void countsAReplacedEntryOnce() {
+        ResultCache cache = new ResultCache(100);
+        cache.put("a", 1, "first", 60);
+        cache.put("a", 1, "second", 60);
+        cache.put("b", 1, "B", 40);
+
+        assertEquals("second", cache.get("a", 1));
+        assertEquals("B", cache.get("b", 1));
+    }
+
+    @Test
+    void skipsAResultLargerThanTheBudget() {
+        ResultCache cache = new ResultCache(100);
+        cache.put("a", 1, "A", 50);
+        cache.put("huge", 1, "H", 101);
+
+        assertNull(cache.get("huge", 1));
+        assertEquals("A", cache.get("a", 1));
+    }
+
+    @Test
+    void computesOnlyOnAMiss() {
+        ResultCache cache = new ResultCache(100);
+        AtomicInteger computed = new AtomicInteger();
+
+        assertEquals("x", cache.get("q", 4, () -> computed.incrementAndGet() > 0 ? "x" : null, value -> 8));
+        assertEquals("x", cache.get("q", 4, () -> computed.incrementAndGet() > 0 ? "y" : null, value -> 8));
+        assertEquals(1, computed.get());
+
+        cache.clear();
+        assertNull(cache.get("q", 4));
+    }
+}
@@ -0,0 +1,77 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RosterAggregateTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+    private static final String[] MAJORS = {"Computer Science", "Mathematics", "Physics", "History", "Économie"};
+    private static final double[] PERCENTILES = {1, 10, 25, 50, 75, 90, 99, 100};
+
+    @Test
+    void agreesWithTheStatisticsKeptOneGradeAtATime() {
+        // Enough rows for several ranges, grades to 0.01 with many on slot edges
+        Random random = new Random(17);
+        StudentTable table = new StudentTable();
+        GradeStatistics overall = new GradeStatistics();
+        Map<String, GradeStatistics> byMajor = new LinkedHashMap<>();
+        Map<String, List<Integer>> rowsOfMajor = new LinkedHashMap<>();
+        for (int row = 0; row < 100_000; row++) {
+            String major = MAJORS[random.nextInt(row < 10 ? 2 : MAJORS.length)];
+            double grade = random.nextInt(4) == 0 ? random.nextInt(1001) / 10.0 : random.nextInt(10001) / 100.0;
+            table.add(row, new Student("Student " + row, grade, major, START.plusSeconds(row)));
+            overall.add(grade);
+            byMajor.computeIfAbsent(major, k -> new GradeStatistics(GradeStatistics.MAJOR_SCALE, GradingScheme.DEFAULT))
+                    .add(grade);
+            rowsOfMajor.computeIfAbsent(major, k -> new ArrayList<>()).add(row);
+        }
+
+        RosterAggregate aggregate = RosterAggregate.of(table.snapshot(), new ForkJoinPool(4));
+        assertSame(overall, aggregate.overall());
+        assertEquals(new ArrayList<>(byMajor.keySet()), names(aggregate.majors()));
+        for (RosterAggregate.Group major : aggregate.majors()) {
+            assertSame(byMajor.get(major.name()), major);
+            assertArrayEquals(rowsOfMajor.get(major.name()).stream().mapToInt(Integer::intValue).toArray(),
+                    aggregate.rowsOf(major));
+        }
+    }
+
+    @Test
+    void countsAnEmptyRosterAsZero() {
+        RosterAggregate aggregate = RosterAggregate.of(new StudentTable().snapshot());
+        assertEquals(0, aggregate.overall().count());
+        assertEquals(0, aggregate.overall().median());
+        assertEquals(0, aggregate.majors().size());
+    }
+
+    private static void assertSame(GradeStatistics expected, RosterAggregate.Group group) {
+        assertEquals(expected.count(), group.count());
+        assertEquals(expected.average(), group.average(), 1e-9);
+        // The statistics read these off their slots too; the aggregate keeps them exact
+        assertEquals(expected.lowest(), group.lowest(), 0.1);
+        assertEquals(expected.highest(), group.highest(), 0.1);
+        assertEquals(expected.median(), group.median(), 1e-9);
+        for (double p : PERCENTILES) assertEquals(expected.percentile(p), group.percentile(p), 1e-9, "p" + p);
+        assertEquals(expected.passRate(), group.passRate(), 1e-9);
+        for (int letter = 0; letter < GradingScheme.DEFAULT.letterCount(); letter++) {
+            assertEquals(expected.letterCount(letter), group.letterCount(letter));
+        }
+    }
+
+    private static List<String> names(List<RosterAggregate.Group> groups) {
+        List<String> names = new ArrayList<>();
+        for (RosterAggregate.Group group : groups) names.add(group.name());
+        return names;
+    }
+}
@@ -0,0 +1,126 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RosterOrderTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+    private static final Comparator<Student> BY_GRADE =
+            Comparator.comparingDouble(Student::getGrade).thenComparingLong(Student::getId);
+
+    @Test
+    void staysSortedThroughAddsAndRemoves() {
+        Random random = new Random(5);
+        List<Student> model = new ArrayList<>();
+        RosterOrder order = RosterOrder.empty(RosterOrder.Key.GRADE);
+
+        for (int step = 0; step < 4000; step++) {
+            if (model.isEmpty() || random.nextInt(3) > 0) {
+                // Few distinct grades, so ties are broken by id
+                Student student = new Student("S" + step, random.nextInt(20) * 5, "Physics", START.plusMinutes(step));
+                order = order.with(student);
+                model.add(student);
+            } else {
+                Student student = model.remove(random.nextInt(model.size()));
+                order = order.without(student);
+            }
+        }
+        model.sort(BY_GRADE);
+        assertOrder(model, order);
+    }
+
+    @Test
+    void addsLargeAndSmallBatches() {
+        List<Student> model = students(100, 0);
+        RosterOrder order = RosterOrder.of(RosterOrder.Key.GRADE, model);
+
+        List<Student> few = students(10, 100);
+        order = order.withAll(few);
+        model.addAll(few);
+        List<Student> many = students(1000, 110);
+        order = order.withAll(many);
+        model.addAll(many);
+
+        model.sort(BY_GRADE);
+        assertOrder(model, order);
+    }
+
+    @Test
+    void leavesEarlierOrdersAsTheyWere() {
+        List<Student> students = students(200, 0);
+        RosterOrder before = RosterOrder.of(RosterOrder.Key.GRADE, students);
+        List<Student> frozen = new ArrayList<>(before.ascending());
+
+        RosterOrder after = before.without(students.get(3)).with(new Student("Late", 42, "Physics", START));
+
+        assertEquals(frozen, new ArrayList<>(before.ascending()));
+        assertEquals(200, before.size());
+        assertEquals(200, after.size());
+        assertFalse(after.ascending().contains(students.get(3)));
+    }
+
+    @Test
+    void answersRanksAndTopLists() {
+        List<Student> students = students(50, 0);
+        RosterOrder order = RosterOrder.of(RosterOrder.Key.GRADE, students);
+        List<Student> sorted = new ArrayList<>(students);
+        sorted.sort(BY_GRADE);
+
+        Student outsider = new Student("Outsider", 50, "Physics", START);
+        assertEquals(-1, order.rankOf(outsider));
+        assertEquals(-1, order.descending().indexOf(outsider));
+        assertSame(order, order.without(outsider));
+
+        List<Student> reversed = new ArrayList<>(sorted);
+        Collections.reverse(reversed);
+        assertEquals(reversed.subList(0, 10), order.top(10));
+        assertEquals(sorted.subList(0, 10), order.bottom(10));
+        assertEquals(50, order.top(100).size());
+        assertEquals(sorted, order.bottom(100));
+        assertEquals(49, order.descending().indexOf(sorted.get(0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> order.get(50));
+    }
+
+    @Test
+    void ordersByName() {
+        List<Student> students = new ArrayList<>();
+        for (String name : new String[] {"carol", "Alice", "bob", "alice"}) {
+            students.add(new Student(name, 70, "Physics", START));
+        }
+        RosterOrder order = RosterOrder.of(RosterOrder.Key.NAME, students);
+
+        List<String> names = new ArrayList<>();
+        for (Student student : order.ascending()) names.add(student.getName());
+        // Case is ignored; the two Alices keep the order they were added in
+        assertEquals(List.of("Alice", "alice", "bob", "carol"), names);
+    }
+
+    private static List<Student> students(int count, int first) {
+        Random random = new Random(first);
+        List<Student> students = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            students.add(new Student("S" + i, random.nextInt(101), "Physics", START.plusMinutes(i)));
+        }
+        return students;
+    }
+
+    private static void assertOrder(List<Student> sorted, RosterOrder order) {
+        assertEquals(sorted.size(), order.size());
+        assertEquals(sorted, new ArrayList<>(order.ascending()));
+        for (int rank = 0; rank < sorted.size(); rank++) {
+            assertEquals(rank, order.rankOf(sorted.get(rank)));
+        }
+    }
+}
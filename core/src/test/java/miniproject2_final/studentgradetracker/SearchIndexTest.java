@@ -0,0 +1,124 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+    private static final String[] FIRST = {"Ava", "Liam", "Zoë", "Noah", "Émile", "Ian", "Anya", "Li"};
+    private static final String[] LAST = {"Lee", "Nguyen", "O'Brien", "Ivanova", "Andersson", "Xu", "Da Silva"};
+    private static final String[] MAJORS = {"Computer Science", "Political Science", "Mathematics", "History"};
+    private static final String[] QUERIES = {"a", "x", "ë", "li", "an", " ", "ava", "ava lee", "a l", "o'b", "science",
+            "political", "xu", "li xu", "nobody", "ivanova3", "z", "l"};
+
+    private final Random random = new Random(23);
+    private int created;
+
+    @Test
+    void findsEveryStudentWhoseNameOrMajorContainsTheQuery() {
+        StudentTable table = new StudentTable();
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 3000; i++) add(table, index, student());
+
+        assertMatches(table.snapshot(), index);
+    }
+
+    @Test
+    void forgetsRemovedStudentsAndFindsThemAgainOnceBack() {
+        StudentTable table = new StudentTable();
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 3000; i++) add(table, index, student());
+
+        int[] rows = random.ints(800, 0, table.size()).sorted().distinct().toArray();
+        List<Student> removed = table.removeRows(rows, rows.length);
+        index.removeAll(removed);
+        Student one = table.get(7);
+        table.removeRows(new int[] {7}, 1);
+        index.remove(one);
+        assertMatches(table.snapshot(), index);
+
+        for (int i = 0; i < rows.length; i++) add(table, index, removed.get(i));
+        assertMatches(table.snapshot(), index);
+    }
+
+    @Test
+    void sweepsOutNamesNobodyHasAnyMore() {
+        StudentTable table = new StudentTable();
+        SearchIndex index = new SearchIndex();
+        // Every name distinct, so removing most of them leaves their entries empty
+        List<Student> unique = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Student student = new Student("Pupil " + i, i % 100, MAJORS[i % MAJORS.length], START.plusMinutes(i));
+            unique.add(student);
+            add(table, index, student);
+        }
+        index.removeAll(table.removeRange(0, 4000));
+        for (Student student : unique.subList(0, 10)) add(table, index, student);
+
+        StudentTable.Snapshot snapshot = table.snapshot();
+        for (String query : new String[] {"pupil 4", "pupil 1", "pupil 9", "1", "pu"}) {
+            assertArrayEquals(expected(snapshot, query), index.search(query, snapshot, () -> false), query);
+        }
+    }
+
+    @Test
+    void leavesOutStudentsAddedAfterTheSnapshot() {
+        StudentTable table = new StudentTable();
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 100; i++) add(table, index, student());
+        StudentTable.Snapshot before = table.snapshot();
+        for (int i = 0; i < 100; i++) add(table, index, student());
+
+        assertMatches(before, index);
+    }
+
+    @Test
+    void stopsWhenCancelled() {
+        StudentTable table = new StudentTable();
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 5000; i++) add(table, index, student());
+        StudentTable.Snapshot snapshot = table.snapshot();
+
+        assertThrows(CancellationException.class, () -> index.search("a", snapshot, () -> true));
+        assertThrows(CancellationException.class, () -> SearchIndex.scan("a", snapshot, () -> true));
+    }
+
+    private Student student() {
+        int n = created++;
+        String name = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)] + (n % 3 == 0 ? " " + n : "");
+        return new Student(name, random.nextInt(101), MAJORS[random.nextInt(MAJORS.length)], START.plusMinutes(n));
+    }
+
+    private static void add(StudentTable table, SearchIndex index, Student student) {
+        table.add(table.size(), student);
+        index.add(student);
+    }
+
+    private static void assertMatches(StudentTable.Snapshot snapshot, SearchIndex index) {
+        for (String query : QUERIES) {
+            String normalized = Student.normalize(query);
+            int[] expected = expected(snapshot, normalized);
+            assertArrayEquals(expected, index.search(normalized, snapshot, () -> false), query);
+            assertArrayEquals(expected, SearchIndex.scan(normalized, snapshot, () -> false), query);
+        }
+    }
+
+    private static int[] expected(List<Student> rows, String normalizedQuery) {
+        List<Integer> found = new ArrayList<>();
+        for (int row = 0; row < rows.size(); row++) {
+            if (rows.get(row).matches(normalizedQuery)) found.add(row);
+        }
+        assertEquals(found.size(), found.stream().distinct().count());
+        return found.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,91 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StudentExporterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackTheRosterItWrites() throws Exception {
+        List<Student> roster = GradeBookTest.roster(5_000);
+        roster.add(new Student("Hopper, \"Amazing\" Grace", 88.25, "Computer Science, Applied", START));
+        Path file = directory.resolve("students.csv");
+
+        new StudentExporter(tableOf(roster).snapshot()).export(file, StudentExporter.Format.STUDENTS_CSV, Progress.NONE);
+        List<Student> imported = new ArrayList<>();
+        StudentImporter.Result result = new StudentImporter(file).run(imported::addAll, Progress.NONE);
+
+        assertEquals(List.of(), result.getErrors());
+        assertEquals(StudentImporterTest.describe(roster), StudentImporterTest.describe(imported));
+    }
+
+    @Test
+    void summarizesEachMajorInTheOrderItFirstAppears() throws IOException {
+        List<Student> roster = List.of(
+                new Student("Ada", 95, "Mathematics", START),
+                new Student("Alan", 55, "Computer Science", START),
+                new Student("Grace", 60, "Mathematics", START),
+                new Student("Edsger", 72.5, "Computer Science", START));
+        Path file = directory.resolve("majors.csv");
+
+        new StudentExporter(tableOf(roster).snapshot()).export(file, StudentExporter.Format.MAJORS_CSV, Progress.NONE);
+
+        assertEquals("major,students,average,lowest,highest,passing\n"
+                + "Mathematics,2,77.5,60.0,95.0,2\n"
+                + "Computer Science,2,63.75,55.0,72.5,1\n", Files.readString(file));
+    }
+
+    @Test
+    void escapesJsonStrings() throws IOException {
+        List<Student> roster = List.of(
+                new Student("Say \"hi\"\\\tnow", 91, "Art\u0001", START),
+                new Student("Émile", 40, "Art\u0001", START.plusMinutes(1)));
+        Path file = directory.resolve("students.json");
+
+        new StudentExporter(tableOf(roster).snapshot()).export(file, StudentExporter.Format.JSON, Progress.NONE);
+
+        assertEquals("{\n  \"students\": [\n"
+                + "    {\"name\": \"Say \\\"hi\\\"\\\\\\tnow\", \"grade\": 91.0, \"major\": \"Art\\u0001\", "
+                + "\"timestamp\": \"2024-09-02T08:00\"},\n"
+                + "    {\"name\": \"Émile\", \"grade\": 40.0, \"major\": \"Art\\u0001\", "
+                + "\"timestamp\": \"2024-09-02T08:01\"}\n"
+                + "  ],\n  \"majors\": [\n"
+                + "    {\"major\": \"Art\\u0001\", \"students\": 2, \"average\": 65.5, \"lowest\": 40.0, "
+                + "\"highest\": 91.0, \"passing\": 1}\n"
+                + "  ]\n}\n", Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writesJustTheHeadersForAnEmptyRoster() throws IOException {
+        StudentTable.Snapshot empty = new StudentTable().snapshot();
+        Path csv = directory.resolve("students.csv");
+        Path json = directory.resolve("students.json");
+
+        new StudentExporter(empty).export(csv, StudentExporter.Format.STUDENTS_CSV, Progress.NONE);
+        new StudentExporter(empty).export(json, StudentExporter.Format.JSON, Progress.NONE);
+
+        assertEquals("name,grade,major,timestamp\n", Files.readString(csv));
+        assertEquals("{\n  \"students\": [],\n  \"majors\": []\n}\n", Files.readString(json));
+    }
+
+    private static StudentTable tableOf(List<Student> roster) {
+        StudentTable table = new StudentTable();
+        for (Student student : roster) table.add(table.size(), student);
+        return table;
+    }
+}
@@ -0,0 +1,111 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StudentImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsColumnsByTheirHeader() throws Exception {
+        Path file = write("students.csv", "﻿Major,Name,Grade\r\n"
+                + "Physics,Ada Lovelace,91.5\r\n"
+                + "\r\n"
+                + "\"Computer Science, Applied\",\"Hopper, \"\"Amazing\"\" Grace\",88\r\n");
+        List<Student> students = new ArrayList<>();
+
+        StudentImporter.Result result = new StudentImporter(file).run(students::addAll, Progress.NONE);
+
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(List.of("Ada Lovelace|91.5|Physics", "Hopper, \"Amazing\" Grace|88.0|Computer Science, Applied"),
+                describe(students));
+    }
+
+    @Test
+    void readsNameGradeMajorInOrderWithoutAHeader() throws Exception {
+        Path file = write("students.tsv", "Ada Lovelace\t91.5\tPhysics\nAlan, Turing\t77\tMathematics");
+        List<Student> students = new ArrayList<>();
+
+        new StudentImporter(file).run(students::addAll, Progress.NONE);
+
+        assertEquals(List.of("Ada Lovelace|91.5|Physics", "Alan, Turing|77.0|Mathematics"), describe(students));
+    }
+
+    @Test
+    void reportsRejectedRowsByLineAndKeepsTheRest() throws Exception {
+        Path file = write("students.csv", "name,grade,major\n"
+                + "Ada,91,Physics\n"
+                + "Alan,lots,Mathematics\n"
+                + "Grace,101,Computer Science\n"
+                + ",50,History\n"
+                + "Edsger,60,Computer Science\n");
+        List<Student> students = new ArrayList<>();
+
+        StudentImporter.Result result = new StudentImporter(file).run(students::addAll, Progress.NONE);
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of("Line 3: " + StudentValidator.GRADE_NOT_A_NUMBER,
+                "Line 4: " + StudentValidator.GRADE_OUT_OF_RANGE,
+                "Line 5: " + StudentValidator.MISSING_FIELDS), result.getErrors());
+        assertEquals(List.of("Ada|91.0|Physics", "Edsger|60.0|Computer Science"), describe(students));
+    }
+
+    @Test
+    void keepsFileOrderAndLineNumbersAcrossBlocks() throws Exception {
+        // Several 1 MB blocks, parsed in parallel
+        StringBuilder text = new StringBuilder("name,grade,major\n");
+        int rows = 150_000;
+        for (int i = 0; i < rows; i++) {
+            text.append("Student number ").append(i).append(',').append(i == 123_456 ? "x" : Integer.toString(i % 101))
+                    .append(",Mathematics\n");
+        }
+        Path file = write("many.csv", text.toString());
+        List<Student> students = new ArrayList<>();
+        List<Long> progress = new ArrayList<>();
+
+        StudentImporter.Result result = new StudentImporter(file).run(students::addAll, (done, total) -> progress.add(done));
+
+        assertEquals(rows - 1, result.getImported());
+        assertEquals(List.of("Line 123458: " + StudentValidator.GRADE_NOT_A_NUMBER), result.getErrors());
+        for (int i = 0, row = 0; i < rows; i++) {
+            if (i == 123_456) continue;
+            assertEquals("Student number " + i, students.get(row++).getName());
+        }
+        assertEquals(Files.size(file), progress.get(progress.size() - 1));
+    }
+
+    @Test
+    void stopsWhenProgressCancels() throws IOException {
+        Path file = write("students.csv", "Ada,91,Physics\n");
+        assertThrows(CancellationException.class, () -> new StudentImporter(file).run(batch -> { }, (done, total) -> {
+            throw new CancellationException();
+        }));
+    }
+
+    private Path write(String name, String text) throws IOException {
+        return Files.writeString(directory.resolve(name), text, StandardCharsets.UTF_8);
+    }
+
+    static List<String> describe(List<Student> students) {
+        List<String> described = new ArrayList<>();
+        for (Student student : students) {
+            described.add(student.getName() + "|" + student.getGrade() + "|" + student.getMajor());
+        }
+        return described;
+    }
+}
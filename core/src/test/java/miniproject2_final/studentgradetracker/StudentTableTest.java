@@ -0,0 +1,178 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StudentTableTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 2, 8, 0);
+    private static final String[] MAJORS = {"Computer Science", "Mathematics", "Physics", "Économie"};
+
+    private int created;
+
+    @Test
+    void addsAndRemovesLikeAList() {
+        StudentTable table = new StudentTable();
+        List<Student> model = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 3000; step++) {
+            int choice = random.nextInt(10);
+            if (choice < 6 || model.isEmpty()) {
+                int index = random.nextInt(model.size() + 1);
+                Student student = newStudent(random);
+                table.add(index, student);
+                model.add(index, student);
+            } else if (choice < 8) {
+                int from = random.nextInt(model.size());
+                int to = from + random.nextInt(Math.min(model.size() - from, 2500) + 1);
+                List<Student> removed = table.removeRange(from, to);
+                assertRows(model.subList(from, to), removed);
+                model.subList(from, to).clear();
+            } else {
+                int[] rows = random.ints(1 + random.nextInt(50), 0, model.size()).sorted().distinct().toArray();
+                List<Student> removed = table.removeRows(rows, rows.length);
+                List<Student> expected = new ArrayList<>();
+                for (int i = rows.length - 1; i >= 0; i--) expected.add(0, model.remove(rows[i]));
+                assertRows(expected, removed);
+            }
+            if (step % 100 == 0) assertTable(model, table);
+        }
+        assertTable(model, table);
+    }
+
+    @Test
+    void appendsPastManySegments() {
+        StudentTable table = new StudentTable();
+        List<Student> model = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 3 * StudentTable.SEGMENT_SIZE + 17; i++) {
+            Student student = newStudent(random);
+            table.add(table.size(), student);
+            model.add(student);
+        }
+        assertTable(model, table);
+
+        // Across three segments, leaving head and tail leftovers to join
+        int from = StudentTable.SEGMENT_SIZE / 2;
+        int to = 2 * StudentTable.SEGMENT_SIZE + 100;
+        table.removeRange(from, to);
+        model.subList(from, to).clear();
+        assertTable(model, table);
+    }
+
+    @Test
+    void snapshotsDoNotSeeLaterWrites() {
+        StudentTable table = new StudentTable();
+        Random random = new Random(3);
+        for (int i = 0; i < 2 * StudentTable.SEGMENT_SIZE; i++) table.add(table.size(), newStudent(random));
+        StudentTable.Snapshot before = table.snapshot();
+        List<Student> frozen = new ArrayList<>(before);
+        long version = before.version();
+
+        table.add(0, newStudent(random));
+        table.add(StudentTable.SEGMENT_SIZE, newStudent(random));
+        table.add(table.size(), newStudent(random));
+        table.removeRows(new int[] {1, 2, StudentTable.SEGMENT_SIZE + 5}, 3);
+        table.removeRange(10, 40);
+
+        assertRows(frozen, before);
+        assertEquals(version, before.version());
+        for (int row = 0; row < frozen.size(); row++) {
+            assertEquals(row, before.indexOfId(frozen.get(row).getId()));
+        }
+        assertEquals(frozen.size() + 3 - 3 - 30, table.size());
+    }
+
+    @Test
+    void snapshotFindsStudentsById() {
+        StudentTable table = new StudentTable();
+        Random random = new Random(11);
+        List<Student> model = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Student student = newStudent(random);
+            table.add(table.size(), student);
+            model.add(student);
+        }
+        Student gone = model.remove(1500);
+        table.removeRows(new int[] {1500}, 1);
+
+        StudentTable.Snapshot snapshot = table.snapshot();
+        assertEquals(-1, snapshot.indexOfId(gone.getId()));
+        assertEquals(-1, snapshot.indexOfId(-1));
+        for (int row = 0; row < model.size(); row += 7) {
+            assertEquals(row, snapshot.indexOfId(model.get(row).getId()));
+        }
+    }
+
+    @Test
+    void putsRemovedRowsBackAndFindsThemInOlderSnapshots() {
+        StudentTable table = new StudentTable();
+        Random random = new Random(5);
+        List<Student> model = new ArrayList<>();
+        for (int i = 0; i < 3 * StudentTable.SEGMENT_SIZE; i++) {
+            Student student = newStudent(random);
+            table.add(table.size(), student);
+            model.add(student);
+        }
+        StudentTable.Snapshot before = table.snapshot();
+
+        // Every other row of the middle segment, then most of the last one, which gets rewritten
+        int[] rows = IntStream.range(StudentTable.SEGMENT_SIZE, 2 * StudentTable.SEGMENT_SIZE).filter(row -> row % 2 == 0).toArray();
+        List<Student> removed = table.removeRows(rows, rows.length);
+        table.removeRange(table.size() - 900, table.size() - 10);
+        for (int i = 0; i < rows.length; i++) table.add(rows[i], removed.get(i));
+        List<Student> expected = new ArrayList<>(model);
+        expected.subList(expected.size() - 900, expected.size() - 10).clear();
+        assertTable(expected, table);
+
+        for (int row = 0; row < model.size(); row += 13) {
+            assertEquals(row, before.indexOfId(model.get(row).getId()));
+        }
+        assertRows(model, before);
+    }
+
+    @Test
+    void rejectsRangesOutsideTheTable() {
+        StudentTable table = new StudentTable();
+        table.add(0, newStudent(new Random(1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.removeRange(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.removeRange(1, 0));
+    }
+
+    private Student newStudent(Random random) {
+        int n = created++;
+        return new Student("Student " + n + (n % 5 == 0 ? " Ünal" : ""), Math.round(random.nextDouble() * 10000) / 100.0,
+                MAJORS[random.nextInt(MAJORS.length)], START.plusMinutes(n));
+    }
+
+    private static void assertTable(List<Student> model, StudentTable table) {
+        assertEquals(model.size(), table.size());
+        assertRows(model, table.snapshot());
+        for (int row = 0; row < model.size(); row++) {
+            assertEquals(row, table.indexOf(model.get(row).getId()));
+            assertEquals(model.get(row).getGrade(), table.gradeAt(row));
+        }
+    }
+
+    private static void assertRows(List<Student> expected, List<Student> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            Student want = expected.get(row);
+            Student got = actual.get(row);
+            assertEquals(want.getId(), got.getId());
+            assertEquals(want.getName(), got.getName());
+            assertEquals(want.getGrade(), got.getGrade());
+            assertEquals(want.getMajor(), got.getMajor());
+            assertEquals(want.getTimestamp(), got.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package miniproject2_final.studentgradetracker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackerServerTest {
+
+    private static final Pattern ID = Pattern.compile("\\{\"id\": (\\d+),");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private GradeBook book;
+    private TrackerServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        book = new GradeBook();
+        server = new TrackerServer(book, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void addsFindsAndRemovesAStudent() throws Exception {
+        HttpResponse<String> added = send("POST", "/students", "name=Ada+Lovelace&grade=91.5&major=Mathematics");
+        assertEquals(201, added.statusCode());
+        assertTrue(added.body().contains("\"name\": \"Ada Lovelace\", \"grade\": 91.5, \"major\": \"Mathematics\""),
+                added.body());
+        String id = idOf(added.body());
+
+        HttpResponse<String> found = send("GET", "/students/" + id, null);
+        assertEquals(200, found.statusCode());
+        assertEquals(added.body(), found.body());
+
+        assertEquals(204, send("DELETE", "/students/" + id, null).statusCode());
+        assertEquals(0, book.size());
+        assertEquals("{\"error\": \"No student with id " + id + "\"}", send("GET", "/students/" + id, null).body());
+        assertEquals(404, send("DELETE", "/students/" + id, null).statusCode());
+    }
+
+    @Test
+    void answersBadInputWith400AndTheValidatorsMessage() throws Exception {
+        HttpResponse<String> response = send("POST", "/students", "name=Ada&grade=101&major=Mathematics");
+        assertEquals(400, response.statusCode());
+        assertEquals("{\"error\": \"" + StudentValidator.GRADE_OUT_OF_RANGE + "\"}", response.body());
+        assertEquals(400, send("POST", "/students", "grade=50").statusCode());
+        assertEquals(400, send("GET", "/students?limit=-1", null).statusCode());
+        assertEquals(400, send("GET", "/stats?binWidth=wide", null).statusCode());
+        assertEquals(400, send("GET", "/stats?binWidth=0", null).statusCode());
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    void answersUnknownPathsWith404AndOtherMethodsWith405() throws Exception {
+        assertEquals(404, send("GET", "/students/ada", null).statusCode());
+        assertEquals(404, send("GET", "/students/12", null).statusCode());
+
+        HttpResponse<String> put = send("PUT", "/students", "");
+        assertEquals(405, put.statusCode());
+        assertEquals(List.of("GET, POST"), put.headers().allValues("Allow"));
+        assertEquals(List.of("POST"), send("GET", "/students/bulk", null).headers().allValues("Allow"));
+        assertEquals(List.of("GET, DELETE"), send("POST", "/students/7", "").headers().allValues("Allow"));
+        assertEquals(405, send("POST", "/stats", "").statusCode());
+        assertEquals(405, send("DELETE", "/report", null).statusCode());
+    }
+
+    @Test
+    void addsABulkBodyAndReportsTheRowsItRejects() throws Exception {
+        StringBuilder body = new StringBuilder("major,name,grade\n");
+        for (int i = 0; i < 10_000; i++) body.append("Physics,Student ").append(i).append(',').append(i % 101).append('\n');
+        body.append("Physics,Nobody,lots\n\"History, Modern\",\"Hopper, Grace\",88\n");
+
+        HttpResponse<String> response = send("POST", "/students/bulk", body.toString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"added\": 10001, \"rejected\": 1, \"errors\": [\"Line 10002: "
+                + StudentValidator.GRADE_NOT_A_NUMBER + "\"]}", response.body());
+        assertEquals(10_001, book.size());
+        assertEquals("Student 9999", book.get(9_999).getName());
+        assertEquals("History, Modern", book.get(10_000).getMajor());
+    }
+
+    @Test
+    void searchesWithALimitAndKeepsTheFullCount() throws Exception {
+        book.add("Ada Lovelace", "91", "Mathematics");
+        book.add("Adam Smith", "72", "Economics");
+        book.add("Grace Hopper", "88", "Computer Science");
+
+        HttpResponse<String> response = send("GET", "/students?q=ada&limit=1", null);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"count\": 2, \"students\": [\n  {\"id\": "), response.body());
+        assertEquals(1, ID.matcher(response.body()).results().count());
+        assertEquals("{\"count\": 0, \"students\": []}\n", send("GET", "/students?q=zzz", null).body());
+    }
+
+    @Test
+    void servesStatsAndTheReport() throws Exception {
+        book.add("Ada Lovelace", "95", "Mathematics");
+        book.add("Grace Hopper", "55", "Computer Science");
+
+        String stats = send("GET", "/stats?binWidth=60", null).body();
+        assertTrue(stats.startsWith("{\"major\": null, \"count\": 2, \"average\": 75.0"), stats);
+        assertTrue(stats.endsWith("\"binWidth\": 60.0, \"bins\": [1, 1], \"majors\": [\"Computer Science\", \"Mathematics\"]}"),
+                stats);
+        assertTrue(send("GET", "/stats?major=Mathematics", null).body()
+                .startsWith("{\"major\": \"Mathematics\", \"count\": 1"));
+
+        HttpResponse<String> report = send("GET", "/report", null);
+        assertEquals(200, report.statusCode());
+        assertTrue(report.body().startsWith("🎓 COMPREHENSIVE STUDENT GRADE REPORT BY MAJOR\n"), report.body());
+        assertTrue(report.body().contains("  • Ada Lovelace: 95.0 A 🏆\n"), report.body());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path));
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.ofString(body))
+                    .header("Content-Type", "application/x-www-form-urlencoded");
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String idOf(String json) {
+        Matcher matcher = ID.matcher(json);
+        assertTrue(matcher.find(), json);
+        return matcher.group(1);
+    }
+}